@@ -0,0 +1,12 @@
+package ru.clevertec.newsmanagement.apigateway.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.context.annotation.Configuration;
+import ru.clevertec.newsmanagement.apigateway.loadbalancer.CacheAffinityLoadBalancerConfiguration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "gateway.affinity", name = "enabled", matchIfMissing = true)
+@LoadBalancerClient(name = "news-service", configuration = CacheAffinityLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,195 @@
+package ru.clevertec.newsmanagement.apigateway.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpMethod;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A load balancer routing the reads of a news and of its comments to the instance caching the news,
+ * so every instance caches its own share of the news and the cache capacity grows with the number of instances.
+ * The instance is chosen by rendezvous hashing of the news id: every instance gets a score from the hashes
+ * of the id and of the instance, and the request goes to the instance with the highest score. When an instance
+ * joins or leaves, only the ids it scores highest for move. The load is bounded: an instance already serving more than
+ * the load factor times the average number of requests in flight is skipped for the instance with the next score,
+ * so a hot news spills over instead of overloading its instance. The other requests are spread by round robin.
+ * @author Dayanch
+ */
+@Slf4j
+public class CacheAffinityLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    /**
+     * The path of a news or of its comments, e.g. "/news/api/v1/news/42" or "/news/api/v1/news/42/comment/7".
+     */
+    private static final Pattern NEWS_PATH = Pattern.compile("/news/(\\d{1,18})(?:/comment(?:/.*)?)?$");
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final String serviceId;
+    private final double loadFactor;
+    private final AtomicInteger position = new AtomicInteger();
+
+    /**
+     * The number of requests in flight, by the instance id.
+     */
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger totalInFlight = new AtomicInteger();
+
+    /**
+     * Creates a load balancer.
+     * @param supplierProvider the provider of the instances of the service
+     * @param serviceId the id of the service
+     * @param loadFactor the maximum load of an instance relative to the average, greater than 1
+     */
+    public CacheAffinityLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider, String serviceId,
+                                     double loadFactor) {
+        this.supplierProvider = supplierProvider;
+        this.serviceId = serviceId;
+        this.loadFactor = loadFactor;
+    }
+
+    @Override
+    // raw as declared by ReactorLoadBalancer, a Request<?> parameter would not override it
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        OptionalLong id = newsIdOf(request);
+        return supplier.get(request)
+                .next()
+                .map(instances -> choose(instances, id));
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if(lbResponse.hasServer()) {
+            inFlight.computeIfAbsent(instanceIdOf(lbResponse.getServer()), k -> new AtomicInteger()).incrementAndGet();
+            totalInFlight.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if(Objects.isNull(lbResponse) || !lbResponse.hasServer()) {
+            return;
+        }
+        AtomicInteger load = inFlight.get(instanceIdOf(lbResponse.getServer()));
+        if(Objects.nonNull(load) && load.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+            totalInFlight.decrementAndGet();
+        }
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances, OptionalLong id) {
+        if(instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        if(id.isEmpty() || instances.size() == 1) {
+            int next = Math.floorMod(position.getAndIncrement(), instances.size());
+            return new DefaultResponse(instances.get(next));
+        }
+        return new DefaultResponse(chooseByRendezvous(instances, id.getAsLong()));
+    }
+
+    /**
+     * Returns the instance with the highest score for the given id among the instances within the load bound,
+     * or the instance with the highest score if all of them are above it.
+     */
+    private ServiceInstance chooseByRendezvous(List<ServiceInstance> instances, long id) {
+        int count = instances.size();
+        long[] scores = new long[count];
+        for (int i = 0; i < count; i++) {
+            scores[i] = mix(hash(instanceIdOf(instances.get(i))) ^ mix(id));
+        }
+        double bound = Math.ceil(loadFactor * (totalInFlight.get() + 1) / count);
+        int best = -1;
+        int bestWithinBound = -1;
+        for (int i = 0; i < count; i++) {
+            if(best < 0 || Long.compareUnsigned(scores[i], scores[best]) > 0) {
+                best = i;
+            }
+            if(loadOf(instances.get(i)) < bound
+                    && (bestWithinBound < 0 || Long.compareUnsigned(scores[i], scores[bestWithinBound]) > 0)) {
+                bestWithinBound = i;
+            }
+        }
+        return instances.get(bestWithinBound < 0 ? best : bestWithinBound);
+    }
+
+    private int loadOf(ServiceInstance instance) {
+        AtomicInteger load = inFlight.get(instanceIdOf(instance));
+        return Objects.isNull(load) ? 0 : load.get();
+    }
+
+    /**
+     * Returns the id of the news read by the given request, or an empty optional if the request is not such a read.
+     */
+    static OptionalLong newsIdOf(Request<?> request) {
+        if(!(request.getContext() instanceof RequestDataContext context) || Objects.isNull(context.getClientRequest())) {
+            return OptionalLong.empty();
+        }
+        RequestData data = context.getClientRequest();
+        if(!HttpMethod.GET.equals(data.getHttpMethod()) || Objects.isNull(data.getUrl())) {
+            return OptionalLong.empty();
+        }
+        Matcher matcher = NEWS_PATH.matcher(data.getUrl().getPath());
+        return matcher.find() ? OptionalLong.of(Long.parseLong(matcher.group(1))) : OptionalLong.empty();
+    }
+
+    private static String instanceIdOf(ServiceInstance instance) {
+        return Objects.nonNull(instance.getInstanceId())
+                ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+    }
+
+    /**
+     * The 64-bit FNV-1a hash of the given string.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * The finalizer of the 64-bit MurmurHash3, spreading every bit of the value over the result.
+     */
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.clevertec.newsmanagement.apigateway.loadbalancer;
+
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * The load balancer client configuration of the services routed by {@link CacheAffinityLoadBalancer}.
+ * It is registered by {@code @LoadBalancerClient} for every such service, so it must not be a scanned configuration.
+ * The maximum load of an instance relative to the average is set by "gateway.affinity.load-factor".
+ * The bean is declared by its class, so the load balancer is found as the lifecycle counting the requests in flight too.
+ * @author Dayanch
+ */
+public class CacheAffinityLoadBalancerConfiguration {
+
+    private static final double DEFAULT_LOAD_FACTOR = 1.25;
+
+    @Bean
+    public CacheAffinityLoadBalancer reactorServiceInstanceLoadBalancer(Environment environment,
+                                                                        LoadBalancerClientFactory factory) {
+        String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        double loadFactor = environment.getProperty("gateway.affinity.load-factor", Double.class, DEFAULT_LOAD_FACTOR);
+        return new CacheAffinityLoadBalancer(factory.getLazyProvider(name, ServiceInstanceListSupplier.class), name,
+                Math.max(1, loadFactor));
+    }
+}
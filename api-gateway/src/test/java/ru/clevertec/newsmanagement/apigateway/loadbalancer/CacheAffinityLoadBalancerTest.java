@@ -0,0 +1,98 @@
+package ru.clevertec.newsmanagement.apigateway.loadbalancer;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.LinkedMultiValueMap;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+class CacheAffinityLoadBalancerTest {
+
+    private static final String SERVICE_ID = "news-service";
+
+    private static final List<ServiceInstance> INSTANCES = IntStream.rangeClosed(1, 5)
+            .mapToObj(i -> (ServiceInstance) new DefaultServiceInstance(SERVICE_ID + ":" + i, SERVICE_ID,
+                    "news-service-" + i, 8080, false))
+            .toList();
+
+    @Test
+    void readsOfSameNewsShouldGoToSameInstance() {
+        CacheAffinityLoadBalancer loadBalancer = loadBalancer(INSTANCES);
+
+        ServiceInstance news = choose(loadBalancer, HttpMethod.GET, "/news/api/v1/news/42");
+        ServiceInstance comments = choose(loadBalancer, HttpMethod.GET, "/news/api/v1/news/42/comment");
+        ServiceInstance comment = choose(loadBalancer, HttpMethod.GET, "/news/api/v1/news/42/comment/7");
+
+        Assertions.assertThat(comments).isEqualTo(news);
+        Assertions.assertThat(comment).isEqualTo(news);
+    }
+
+    @Test
+    void removedInstanceShouldMoveOnlyItsNews() {
+        CacheAffinityLoadBalancer loadBalancer = loadBalancer(INSTANCES);
+        Map<Long, ServiceInstance> before = new HashMap<>();
+        LongStream.rangeClosed(1, 1000)
+                .forEach(id -> before.put(id, choose(loadBalancer, HttpMethod.GET, "/news/api/v1/news/" + id)));
+        ServiceInstance removed = INSTANCES.get(2);
+
+        CacheAffinityLoadBalancer scaledIn = loadBalancer(INSTANCES.stream().filter(i -> i != removed).toList());
+
+        Assertions.assertThat(LongStream.rangeClosed(1, 1000).filter(id -> !before.get(id).equals(removed)))
+                .allMatch(id -> choose(scaledIn, HttpMethod.GET, "/news/api/v1/news/" + id).equals(before.get(id)));
+        Assertions.assertThat(new HashSet<>(before.values())).hasSize(INSTANCES.size());
+    }
+
+    @Test
+    void overloadedInstanceShouldBeSkipped() {
+        CacheAffinityLoadBalancer loadBalancer = loadBalancer(INSTANCES);
+        Request<RequestDataContext> request = request(HttpMethod.GET, "/news/api/v1/news/42");
+        ServiceInstance owner = loadBalancer.choose(request).block().getServer();
+
+        IntStream.range(0, 10).forEach(i -> loadBalancer.onStartRequest(request, new DefaultResponse(owner)));
+
+        Assertions.assertThat(loadBalancer.choose(request).block().getServer()).isNotEqualTo(owner);
+    }
+
+    @Test
+    void otherRequestsShouldBeSpreadByRoundRobin() {
+        CacheAffinityLoadBalancer loadBalancer = loadBalancer(INSTANCES);
+
+        Set<ServiceInstance> chosen = new HashSet<>();
+        IntStream.range(0, INSTANCES.size())
+                .forEach(i -> chosen.add(choose(loadBalancer, HttpMethod.PUT, "/news/api/v1/news/42")));
+
+        Assertions.assertThat(chosen).hasSize(INSTANCES.size());
+    }
+
+    private static CacheAffinityLoadBalancer loadBalancer(List<ServiceInstance> instances) {
+        return new CacheAffinityLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider(SERVICE_ID, instances.toArray(ServiceInstance[]::new)),
+                SERVICE_ID, 1.25);
+    }
+
+    private static ServiceInstance choose(CacheAffinityLoadBalancer loadBalancer, HttpMethod method, String path) {
+        return loadBalancer.choose(request(method, path)).block().getServer();
+    }
+
+    private static Request<RequestDataContext> request(HttpMethod method, String path) {
+        return new DefaultRequest<>(new RequestDataContext(new RequestData(method, URI.create("http://gateway" + path),
+                new HttpHeaders(), new LinkedMultiValueMap<>(), Map.of())));
+    }
+}
@@ -0,0 +1,52 @@
+package ru.clevertec.newsmanagement.benchmarks;
+
+import com.google.protobuf.Timestamp;
+import ru.clevertec.newsmanagement.newsservice.cache.GetCache;
+import ru.clevertec.newsmanagement.newsservice.model.DTO;
+
+/**
+ * A service with cached methods like the ones of the news service, loading the values from memory
+ * instead of the database, so the benchmarks measure the cache and not the database.
+ * @author Dayanch
+ */
+public class BenchmarkNewsService {
+
+    /**
+     * Returns the news with the given id.
+     * @param id the id of the news
+     * @return the news
+     */
+    @GetCache(key = "#id", type = DTO.News.class)
+    public DTO.News findNews(Long id) {
+        return news(id);
+    }
+
+    /**
+     * Returns the comment with the given id of the given news, the method used to evaluate keys of several parameters.
+     * @param news the id of the news
+     * @param id the id of the comment
+     * @return the comment
+     */
+    public DTO.Comment findComment(Long news, Long id) {
+        return DTO.Comment.newBuilder()
+                .setId(id)
+                .setText("Comment " + id + " of the news " + news)
+                .setUsername("subscriber")
+                .build();
+    }
+
+    /**
+     * Creates a news of a realistic size with the given id.
+     * @param id the id of the news
+     * @return the news
+     */
+    public static DTO.News news(long id) {
+        return DTO.News.newBuilder()
+                .setId(id)
+                .setTitle("News " + id)
+                .setText("The text of the news. ".repeat(20) + id)
+                .setUsername("journalist")
+                .setCreatedDate(Timestamp.newBuilder().setSeconds(1_680_000_000L + id))
+                .build();
+    }
+}
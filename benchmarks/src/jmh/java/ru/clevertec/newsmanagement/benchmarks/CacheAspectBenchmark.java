@@ -0,0 +1,110 @@
+package ru.clevertec.newsmanagement.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import ru.clevertec.newsmanagement.newsservice.aop.CacheAspect;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheAsyncLoader;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheEvictor;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheProperties;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheRefresher;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheWriteBehind;
+import ru.clevertec.newsmanagement.newsservice.cache.CustomCacheManager;
+import ru.clevertec.newsmanagement.newsservice.cache.NegativeCache;
+import ru.clevertec.newsmanagement.newsservice.cache.SingleFlight;
+import ru.clevertec.newsmanagement.newsservice.cache.invalidation.InvalidationBus;
+import ru.clevertec.newsmanagement.newsservice.cache.invalidation.LocalInvalidationTransport;
+import ru.clevertec.newsmanagement.newsservice.cache.trace.AccessTraceRecorder;
+import ru.clevertec.newsmanagement.newsservice.model.DTO;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the whole {@link CacheAspect#getCacheAdvise} path of a {@code @GetCache} method called through
+ * a Spring AOP proxy: the key evaluation, the lookup, the metrics and, on a miss, the method execution.
+ * The nested classes run the same benchmark with 1, 4 and 16 threads.
+ * @author Dayanch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public abstract class CacheAspectBenchmark {
+
+    /**
+     * The type of the cache lists, the "cache.type" property.
+     */
+    @Param({"lru", "lfu", "tinylfu"})
+    public String type;
+
+    @Param({"100", "10000"})
+    public int size;
+
+    @Param({"UNIFORM", "ZIPFIAN"})
+    public KeyDistribution distribution;
+
+    private CacheRefresher cacheRefresher;
+    private CacheWriteBehind cacheWriteBehind;
+    private CacheAsyncLoader cacheAsyncLoader;
+    private BenchmarkNewsService service;
+    private Long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CacheProperties properties = new CacheProperties();
+        properties.setType(type);
+        properties.setSize(size);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CustomCacheManager customCacheManager = new CustomCacheManager(properties, registry);
+        cacheRefresher = new CacheRefresher(properties);
+        cacheWriteBehind = new CacheWriteBehind(properties);
+        cacheAsyncLoader = new CacheAsyncLoader(properties);
+        CacheAspect cacheAspect = new CacheAspect(customCacheManager, new SingleFlight(registry), cacheRefresher,
+                new InvalidationBus(new LocalInvalidationTransport(), customCacheManager, properties),
+                new NegativeCache(properties), new CacheEvictor(customCacheManager), cacheWriteBehind, cacheAsyncLoader,
+                new AccessTraceRecorder(properties));
+        AspectJProxyFactory factory = new AspectJProxyFactory(new BenchmarkNewsService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(cacheAspect);
+        service = factory.getProxy();
+        int[] sample = distribution.ids(size, 42);
+        ids = new Long[sample.length];
+        for (int i = 0; i < sample.length; i++) {
+            ids[i] = (long) sample[i];
+            service.findNews(ids[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        cacheRefresher.shutdown();
+        cacheWriteBehind.shutdown();
+        cacheAsyncLoader.shutdown();
+    }
+
+    @Benchmark
+    public DTO.News findNews(KeyCursor cursor) {
+        return service.findNews(ids[cursor.next()]);
+    }
+
+    @Threads(1)
+    public static class OneThread extends CacheAspectBenchmark {
+    }
+
+    @Threads(4)
+    public static class FourThreads extends CacheAspectBenchmark {
+    }
+
+    @Threads(16)
+    public static class SixteenThreads extends CacheAspectBenchmark {
+    }
+}
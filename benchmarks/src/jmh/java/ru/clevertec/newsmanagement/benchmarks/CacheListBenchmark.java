@@ -0,0 +1,90 @@
+package ru.clevertec.newsmanagement.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.HashLfuCacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.HashLruCacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.LfuCacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.LruCacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.TinyLfuCacheList;
+import ru.clevertec.newsmanagement.newsservice.model.DTO;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Measures the throughput of a lookup of a single cache list, the way {@code CacheAspect} uses it:
+ * a hit promotes the entry in place, a miss adds a new entry, evicting another one when the list is full.
+ * The lists are not thread-safe, so they are measured by a single thread.
+ * @author Dayanch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(1)
+public class CacheListBenchmark {
+
+    /**
+     * The implementation of the list.
+     */
+    @Param({"LruCacheList", "LfuCacheList", "HashLruCacheList", "HashLfuCacheList", "TinyLfuCacheList"})
+    public String list;
+
+    @Param({"100", "10000"})
+    public int size;
+
+    @Param({"UNIFORM", "ZIPFIAN"})
+    public KeyDistribution distribution;
+
+    private CacheList cacheList;
+    private int[] ids;
+    private String[] keys;
+    private DTO.News[] values;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        IntFunction<CacheList> factory = switch (list) {
+            case "LruCacheList" -> LruCacheList::new;
+            case "LfuCacheList" -> LfuCacheList::new;
+            case "HashLruCacheList" -> HashLruCacheList::new;
+            case "HashLfuCacheList" -> HashLfuCacheList::new;
+            case "TinyLfuCacheList" -> TinyLfuCacheList::new;
+            default -> throw new IllegalArgumentException("Unknown cache list " + list);
+        };
+        cacheList = factory.apply(size);
+        ids = distribution.ids(size, 42);
+        keys = KeyDistribution.keys(ids);
+        values = new DTO.News[2 * size];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = BenchmarkNewsService.news(i);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            lookup(i);
+        }
+    }
+
+    @Benchmark
+    public Object lookup() {
+        return lookup(next++ & (KeyDistribution.SAMPLE_SIZE - 1));
+    }
+
+    private Object lookup(int i) {
+        Optional<Cache> cache = cacheList.hit(keys[i]);
+        if(cache.isPresent()) {
+            return cache.get().getValue();
+        }
+        return cacheList.add(keys[i], values[ids[i]]).getValue();
+    }
+}
@@ -0,0 +1,98 @@
+package ru.clevertec.newsmanagement.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheProperties;
+import ru.clevertec.newsmanagement.newsservice.cache.CustomCacheManager;
+import ru.clevertec.newsmanagement.newsservice.model.DTO;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CustomCacheManager#getCache(Class)} and {@link CacheList#hit(String)}
+ * on the striped cache lists created by the manager, with the news service lookup: find the list,
+ * hit the entry in place, or add a new one. The nested classes run the same benchmarks with 1, 4 and 16 threads.
+ * @author Dayanch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public abstract class CacheManagerBenchmark {
+
+    /**
+     * The type of the cache lists, the "cache.type" property.
+     */
+    @Param({"lru", "lfu", "tinylfu"})
+    public String type;
+
+    @Param({"100", "10000"})
+    public int size;
+
+    @Param({"UNIFORM", "ZIPFIAN"})
+    public KeyDistribution distribution;
+
+    private CustomCacheManager customCacheManager;
+    private int[] ids;
+    private String[] keys;
+    private DTO.News[] values;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CacheProperties properties = new CacheProperties();
+        properties.setType(type);
+        properties.setSize(size);
+        customCacheManager = new CustomCacheManager(properties, new SimpleMeterRegistry());
+        ids = distribution.ids(size, 42);
+        keys = KeyDistribution.keys(ids);
+        values = new DTO.News[2 * size];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = BenchmarkNewsService.news(i);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            lookup(i);
+        }
+    }
+
+    @Benchmark
+    public CacheList getCache() {
+        return customCacheManager.getCache(DTO.News.class);
+    }
+
+    @Benchmark
+    public Object lookup(KeyCursor cursor) {
+        return lookup(cursor.next());
+    }
+
+    private Object lookup(int i) {
+        CacheList cache = customCacheManager.getCache(DTO.News.class);
+        Optional<Cache> cacheObject = cache.hit(keys[i]);
+        if(cacheObject.isPresent()) {
+            return cacheObject.get().getValue();
+        }
+        return cache.add(keys[i], values[ids[i]]).getValue();
+    }
+
+    @Threads(1)
+    public static class OneThread extends CacheManagerBenchmark {
+    }
+
+    @Threads(4)
+    public static class FourThreads extends CacheManagerBenchmark {
+    }
+
+    @Threads(16)
+    public static class SixteenThreads extends CacheManagerBenchmark {
+    }
+}
@@ -0,0 +1,25 @@
+package ru.clevertec.newsmanagement.benchmarks;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+
+/**
+ * An aspect keeping the last join point of {@link BenchmarkNewsService}, so the key evaluation is measured
+ * with the same join points the cache aspects get.
+ * @author Dayanch
+ */
+@Aspect
+public class JoinPointCapture {
+
+    private JoinPoint joinPoint;
+
+    @Before("execution(* ru.clevertec.newsmanagement.benchmarks.BenchmarkNewsService.*(..))")
+    public void capture(JoinPoint joinPoint) {
+        this.joinPoint = joinPoint;
+    }
+
+    public JoinPoint getJoinPoint() {
+        return joinPoint;
+    }
+}
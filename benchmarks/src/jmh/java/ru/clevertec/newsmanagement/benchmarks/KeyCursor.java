@@ -0,0 +1,31 @@
+package ru.clevertec.newsmanagement.benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The position of a benchmark thread in the drawn keys. Every thread starts at a random position,
+ * so the threads do not request the same keys in lockstep.
+ * @author Dayanch
+ */
+@State(Scope.Thread)
+public class KeyCursor {
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        next = ThreadLocalRandom.current().nextInt(KeyDistribution.SAMPLE_SIZE);
+    }
+
+    /**
+     * Returns the index of the next key.
+     * @return the index of the next key, less than {@link KeyDistribution#SAMPLE_SIZE}
+     */
+    public int next() {
+        return next++ & (KeyDistribution.SAMPLE_SIZE - 1);
+    }
+}
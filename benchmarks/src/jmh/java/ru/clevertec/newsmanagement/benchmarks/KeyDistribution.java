@@ -0,0 +1,75 @@
+package ru.clevertec.newsmanagement.benchmarks;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The distributions of the keys requested by the benchmarks. The keys are drawn from a range twice as large
+ * as the cache, so every distribution also produces misses and evictions.
+ * @author Dayanch
+ */
+public enum KeyDistribution {
+
+    /**
+     * Every key of the range is equally likely, the worst case of every eviction policy.
+     */
+    UNIFORM {
+        @Override
+        int[] sample(int range, int count, SplittableRandom random) {
+            return random.ints(count, 0, range).toArray();
+        }
+    },
+
+    /**
+     * The k-th most popular key is requested in proportion to 1 / k^0.99, like the news read on a news site.
+     */
+    ZIPFIAN {
+        @Override
+        int[] sample(int range, int count, SplittableRandom random) {
+            double[] cumulative = new double[range];
+            double sum = 0;
+            for (int k = 0; k < range; k++) {
+                sum += 1 / Math.pow(k + 1, ZIPF_EXPONENT);
+                cumulative[k] = sum;
+            }
+            int[] sample = new int[count];
+            for (int i = 0; i < count; i++) {
+                int found = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                sample[i] = Math.min(found >= 0 ? found : -found - 1, range - 1);
+            }
+            return sample;
+        }
+    };
+
+    private static final double ZIPF_EXPONENT = 0.99;
+
+    /**
+     * The number of the keys drawn in advance, so drawing a key costs an array read in the measured code.
+     */
+    public static final int SAMPLE_SIZE = 1 << 16;
+
+    /**
+     * Draws the ids of the values requested from a cache of the given size.
+     * @param cacheSize the maximum number of entries of the cache
+     * @param seed the seed of the random generator, so every run requests the same keys
+     * @return the drawn ids, from 0 to twice the size of the cache
+     */
+    public int[] ids(int cacheSize, long seed) {
+        return sample(2 * cacheSize, SAMPLE_SIZE, new SplittableRandom(seed));
+    }
+
+    /**
+     * Converts the given ids into the keys of the cache.
+     * @param ids the ids of the values
+     * @return the keys
+     */
+    public static String[] keys(int[] ids) {
+        String[] keys = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            keys[i] = String.valueOf(ids[i]);
+        }
+        return keys;
+    }
+
+    abstract int[] sample(int range, int count, SplittableRandom random);
+}
@@ -0,0 +1,48 @@
+package ru.clevertec.newsmanagement.benchmarks;
+
+import org.aspectj.lang.JoinPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import ru.clevertec.newsmanagement.newsservice.util.SpelExpression;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SpelExpression#getKeyValue(JoinPoint, String)} for the kinds of keys of the cache annotations:
+ * a single parameter and a list of parameters, read from the arguments directly, and an expression evaluated by SpEL.
+ * @author Dayanch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpelExpressionBenchmark {
+
+    @Param({"#id", "{#news,#id}", "'news:' + #news"})
+    public String key;
+
+    private JoinPoint joinPoint;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JoinPointCapture capture = new JoinPointCapture();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new BenchmarkNewsService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(capture);
+        BenchmarkNewsService service = factory.getProxy();
+        service.findComment(42L, 7L);
+        joinPoint = capture.getJoinPoint();
+    }
+
+    @Benchmark
+    public String getKeyValue() {
+        return SpelExpression.getKeyValue(joinPoint, key);
+    }
+}
@@ -21,6 +21,11 @@ import java.util.List;
 @UtilityClass
 public class JsonUtil {
 
+    /**
+     * The printer of the protobuf messages. It is immutable and thread-safe, so a single instance is shared.
+     */
+    private static final JsonFormat.Printer PRINTER = JsonFormat.printer();
+
     /**
      * Converts a protobuf message to JSON string format.
      * @param messageOrBuilder the protobuf message to convert
@@ -29,7 +34,7 @@ public class JsonUtil {
      */
     @SneakyThrows
     public static String toJson(MessageOrBuilder messageOrBuilder) {
-        return JsonFormat.printer().print(messageOrBuilder);
+        return PRINTER.print(messageOrBuilder);
     }
 
     /**
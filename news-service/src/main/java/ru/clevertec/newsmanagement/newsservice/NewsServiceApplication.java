@@ -5,11 +5,13 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = "ru.clevertec.newsmanagement")
 @EnableDiscoveryClient
 @EnableFeignClients
 @EnableAspectJAutoProxy
+@EnableScheduling
 public class NewsServiceApplication {
 
     public static void main(String[] args) {
@@ -3,22 +3,40 @@ package ru.clevertec.newsmanagement.newsservice.aop;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.springframework.stereotype.Component;
+import ru.clevertec.newsmanagement.exceptionservice.exception.CustomException;
 import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheAsyncLoader;
 import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheLoader;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheMetrics;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheEvictor;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheRefresher;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheWriteBehind;
 import ru.clevertec.newsmanagement.newsservice.cache.CustomCacheManager;
 import ru.clevertec.newsmanagement.newsservice.cache.DeleteCache;
+import ru.clevertec.newsmanagement.newsservice.cache.EvictCache;
+import ru.clevertec.newsmanagement.newsservice.cache.EvictCaches;
 import ru.clevertec.newsmanagement.newsservice.cache.GetCache;
+import ru.clevertec.newsmanagement.newsservice.cache.NegativeCache;
 import ru.clevertec.newsmanagement.newsservice.cache.PostCache;
+import ru.clevertec.newsmanagement.newsservice.cache.SingleFlight;
 import ru.clevertec.newsmanagement.newsservice.cache.UpdateCache;
+import ru.clevertec.newsmanagement.newsservice.cache.invalidation.InvalidationBus;
+import ru.clevertec.newsmanagement.newsservice.cache.trace.AccessTraceRecorder;
 import ru.clevertec.newsmanagement.newsservice.util.AspectUtil;
 import ru.clevertec.newsmanagement.newsservice.util.SpelExpression;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Aspect
 @Component
@@ -27,10 +45,28 @@ import java.util.Optional;
 public class CacheAspect {
 
     private final CustomCacheManager customCacheManager;
+    private final SingleFlight singleFlight;
+    private final CacheRefresher cacheRefresher;
+    private final InvalidationBus invalidationBus;
+    private final NegativeCache negativeCache;
+    private final CacheEvictor cacheEvictor;
+    private final CacheWriteBehind cacheWriteBehind;
+    private final CacheAsyncLoader cacheAsyncLoader;
+    private final AccessTraceRecorder accessTraceRecorder;
 
     /**
      * A method-level advice that intercepts methods annotated with {@link GetCache} annotation
      * and provides caching functionality.
+     * In the single-flight mode concurrent misses for the same key share one method execution,
+     * and the miss running it looks the key up again first.
+     * A hit is promoted in place, so the cache never leaves its list and no concurrent lookup or write misses it.
+     * An expired cache is loaded again and replaced, and a cache due for refresh is returned
+     * while its value is reloaded in the background.
+     * The hits, misses and load times are recorded in the metrics of the cached type,
+     * and the accesses of the sampled keys in the access trace.
+     * In the negative mode a key whose entity was not found fails at once until it is forgotten.
+     * In the async mode the value is loaded on a separate executor and the caller waits for it up to a timeout,
+     * then gets the expired value if there is one; a pending load is cached as its future.
      * @param joinPoint The join point that represents the method execution.
      * @param getCache The annotation that indicates the method is cacheable.
      * @return The cached value or the result of the method execution.
@@ -39,35 +75,144 @@ public class CacheAspect {
     @Around("@annotation(getCache)")
     public Object getCacheAdvise(ProceedingJoinPoint joinPoint, GetCache getCache) throws Throwable {
         CacheList cache = customCacheManager.getCache(getCache.type());
-        String evaluatedKey = SpelExpression.getKeyValue(joinPoint, getCache.key());
-        Optional<Cache> cacheObject = cache.remove(evaluatedKey);
-        if (cacheObject.isPresent()) {
-            return customCacheManager.hitCache(cache, cacheObject.get());
+        CacheMetrics metrics = customCacheManager.getMetrics(getCache.type());
+        Optional<Cache> cacheObject = hitCache(cache, joinPoint, getCache.key());
+        long now = System.nanoTime();
+        if (cacheObject.isPresent() && !expireAfter(cacheObject.get(), getCache).isExpired(now)) {
+            metrics.hit();
+            Cache hit = cacheObject.get();
+            accessTraceRecorder.record(getCache.type(), hit.getKey());
+            Object value = hit.getValue();
+            if (value instanceof CompletableFuture<?> pending) {
+                return cacheAsyncLoader.await(hit.getKey(), pending, Optional.empty());
+            }
+            if (hit.isRefreshNeeded(now)) {
+                cacheRefresher.refresh(cache, hit, joinPoint::proceed);
+            }
+            return value;
         }
-        return cache.add(evaluatedKey, joinPoint.proceed())
-                .getValue();
+        String evaluatedKey = cacheObject.isPresent()
+                ? cacheObject.get().getKey()
+                : SpelExpression.getKeyValue(joinPoint, getCache.key());
+        accessTraceRecorder.record(getCache.type(), evaluatedKey);
+        if (getCache.negative()) {
+            Optional<String> notFound = negativeCache.find(getCache.type(), evaluatedKey);
+            if (notFound.isPresent()) {
+                throw new CustomException(notFound.get());
+            }
+        }
+        metrics.miss();
+        CacheLoader loader = () -> {
+            long start = System.nanoTime();
+            Object value;
+            try {
+                value = joinPoint.proceed();
+            } catch (Throwable e) {
+                if (getCache.negative()) {
+                    negativeCache.remember(getCache.type(), evaluatedKey, e);
+                }
+                throw e;
+            }
+            metrics.loaded(System.nanoTime() - start);
+            Cache added = expireAfter(cache.add(evaluatedKey, value), getCache);
+            tag(joinPoint, getCache.type(), evaluatedKey, getCache.tags(), null);
+            return added.getValue();
+        };
+        if (getCache.async()) {
+            Optional<Object> stale = cacheObject.map(Cache::getValue)
+                    .filter(value -> !(value instanceof CompletableFuture));
+            return cacheAsyncLoader.await(evaluatedKey,
+                    cacheAsyncLoader.load(getCache.type(), cache, evaluatedKey, loader), stale);
+        }
+        return getCache.singleFlight()
+                ? singleFlight.load(getCache.type(), evaluatedKey, () -> cache.findByKey(evaluatedKey)
+                        .filter(loaded -> !loaded.isExpired(System.nanoTime()))
+                        .map(Cache::getValue), loader)
+                : loader.load();
+    }
+
+    /**
+     * Hits the cache with the given key in the given list. A key of one or two {@code Long} parameters
+     * is found by their values, so the key string is built only on a miss.
+     * The hit is promoted in place by {@link CacheList#hit(String)}, the cache stays in the list.
+     * @param cache the cache list
+     * @param joinPoint the join point whose arguments are used in the evaluation of the key
+     * @param key the SpEL expression key
+     * @return the hit cache, or an empty optional if it is not cached
+     */
+    static Optional<Cache> hitCache(CacheList cache, JoinPoint joinPoint, String key) {
+        int[] ids = SpelExpression.getIdParameters(joinPoint, key);
+        if (Objects.nonNull(ids)) {
+            Object[] args = joinPoint.getArgs();
+            if (ids.length == 1 && args[ids[0]] instanceof Long id) {
+                return cache.hit(id.longValue());
+            }
+            if (ids.length == 2 && args[ids[0]] instanceof Long first && args[ids[1]] instanceof Long second) {
+                return cache.hit(first.longValue(), second.longValue());
+            }
+        }
+        return cache.hit(SpelExpression.getKeyValue(joinPoint, key));
+    }
+
+    /**
+     * Tags the cache with the given class and key with the evaluated tags.
+     * @param joinPoint the join point whose arguments are used in the evaluation of the tags
+     * @param type the cached class
+     * @param key the key of the cache
+     * @param tags the SpEL expressions of the tags
+     * @param result the result of the method, or null
+     */
+    private void tag(JoinPoint joinPoint, Class<?> type, String key, String[] tags, Object result) {
+        if (tags.length == 0) {
+            return;
+        }
+        List<String> evaluated = new ArrayList<>(tags.length);
+        for (String tag : tags) {
+            evaluated.add(SpelExpression.getKeyValue(joinPoint, tag, result));
+        }
+        customCacheManager.tag(type, key, evaluated);
+    }
+
+    /**
+     * Applies the expiration and refresh periods of the given annotation to the given cache.
+     * @param cache the cache to apply the periods to
+     * @param getCache the annotation with the periods
+     * @return the given cache
+     */
+    private Cache expireAfter(Cache cache, GetCache getCache) {
+        cache.expireAfter(getCache.timeUnit().toNanos(getCache.expireAfterWrite()),
+                getCache.timeUnit().toNanos(getCache.refreshAfterWrite()));
+        return cache;
     }
 
 
     /**
      * A method-level advice that intercepts methods annotated with {@link PostCache} annotation
-     * and saves the result to the cache.
+     * and saves the result to the cache. The key is forgotten as not found, here and in the other instances.
+     * @param joinPoint The join point that represents the method execution.
      * @param saveCache The annotation that indicates the method saves data to the cache.
      * @param result The result of the method execution.
      * @throws NoSuchFieldException If the specified field does not exist.
      * @throws IllegalAccessException If the specified field is not accessible.
      */
     @AfterReturning(value = "@annotation(saveCache)",returning = "result")
-    public void saveCacheAdvise(PostCache saveCache, Object result) throws NoSuchFieldException, IllegalAccessException {
+    public void saveCacheAdvise(JoinPoint joinPoint, PostCache saveCache, Object result)
+            throws NoSuchFieldException, IllegalAccessException {
         CacheList cache = customCacheManager.getCache(saveCache.type());
-        String id = AspectUtil.getFieldValue(result,saveCache.fieldName());
+        String id = saveCache.key().isEmpty()
+                ? AspectUtil.getFieldValue(result,saveCache.fieldName())
+                : SpelExpression.getKeyValue(joinPoint, saveCache.key(), result);
+        negativeCache.forget(saveCache.type(), id);
         cache.add(id, result);
+        tag(joinPoint, saveCache.type(), id, saveCache.tags(), result);
+        invalidationBus.publish(saveCache.type(), id);
     }
 
 
     /**
      * A method-level advice that intercepts methods annotated with {@link DeleteCache} annotation
-     * and removes the cached value associated with the specified key.
+     * and removes the cached value associated with the specified key, here and in the other instances.
+     * The key is removed after the method, whether it was cached before or was cached while the method ran.
      * @param joinPoint The join point that represents the method execution.
      * @param deleteCache The annotation that indicates the method deletes data from the cache.
      * @return The result of the method execution.
@@ -77,29 +222,107 @@ public class CacheAspect {
     public Object deleteCacheAdvise(ProceedingJoinPoint joinPoint, DeleteCache deleteCache) throws Throwable {
         CacheList cache = customCacheManager.getCache(deleteCache.type());
         String evaluatedKey = SpelExpression.getKeyValue(joinPoint, deleteCache.key());
-        Optional<Cache> cacheObject = cache.findByKey(evaluatedKey);
         Object result = joinPoint.proceed();
-        cacheObject.ifPresent(c -> cache.remove(c.getKey()));
+        cache.remove(evaluatedKey);
+        invalidationBus.publish(deleteCache.type(), evaluatedKey);
         return result;
     }
 
 
     /**
      * A method-level advice that intercepts methods annotated with {@link UpdateCache} annotation
-     * and updates the cached value associated with the specified key.
+     * and writes its result through to the cache: the method runs once, and its result replaces the cached value
+     * of the specified key in place. The other instances drop their cached value of the key.
+     * In the write-behind mode the method runs in the background and the provisional value is returned at once.
      * @param joinPoint The join point that represents the method execution.
      * @param updateCache The annotation that indicates the method updates data in the cache.
-     * @return The cached value or the result of the method execution.
+     * @return The result of the method execution, or the provisional value in the write-behind mode.
      * @throws Throwable If an exception occurs during method execution.
      */
     @Around("@annotation(updateCache)")
     public Object updateCacheAdvise(ProceedingJoinPoint joinPoint, UpdateCache updateCache) throws Throwable {
         String evaluatedKey = SpelExpression.getKeyValue(joinPoint, updateCache.key());
         CacheList cache = customCacheManager.getCache(updateCache.type());
-        Optional<Cache> cacheObject = cache.findByKey(evaluatedKey);
+        if (updateCache.writeBehind()) {
+            return writeBehind(joinPoint, updateCache, cache, evaluatedKey);
+        }
         Object result = joinPoint.proceed();
-        cacheObject.ifPresent(k -> k.setValue(result));
-        return cache.add(evaluatedKey, joinPoint.proceed())
-                .getValue();
+        cache.replace(evaluatedKey, result);
+        tag(joinPoint, updateCache.type(), evaluatedKey, updateCache.tags(), result);
+        invalidationBus.publish(updateCache.type(), evaluatedKey);
+        return result;
+    }
+
+    /**
+     * Caches the provisional value of the given update and runs the update in the background.
+     * The result of the update replaces the provisional value, and a failed update drops it.
+     * @param joinPoint The join point that represents the method execution.
+     * @param updateCache The annotation that indicates the method updates data in the cache.
+     * @param cache The cache list of the updated type.
+     * @param evaluatedKey The key of the updated cache.
+     * @return The provisional value, or null if it is not defined.
+     */
+    private Object writeBehind(ProceedingJoinPoint joinPoint, UpdateCache updateCache, CacheList cache,
+                               String evaluatedKey) {
+        Object value = null;
+        if (!updateCache.value().isEmpty()) {
+            Object cached = cache.findByKey(evaluatedKey).map(Cache::getValue).orElse(null);
+            value = SpelExpression.getValue(joinPoint, updateCache.value(), cached);
+        }
+        if (Objects.isNull(value)) {
+            cache.remove(evaluatedKey);
+        } else {
+            cache.replace(evaluatedKey, value);
+        }
+        invalidationBus.publish(updateCache.type(), evaluatedKey);
+        cacheWriteBehind.write(evaluatedKey, joinPoint::proceed,
+                result -> {
+                    cache.replace(evaluatedKey, result);
+                    tag(joinPoint, updateCache.type(), evaluatedKey, updateCache.tags(), result);
+                    invalidationBus.publish(updateCache.type(), evaluatedKey);
+                },
+                () -> {
+                    cache.remove(evaluatedKey);
+                    invalidationBus.publish(updateCache.type(), evaluatedKey);
+                });
+        return value;
+    }
+
+
+    /**
+     * A method-level advice that intercepts methods annotated with {@link EvictCache} annotation
+     * and removes the caches selected by its scope, here and in the other instances.
+     * The scope is published rather than the keys removed here, so the other instances evict their own pages,
+     * and a tag is resolved against the tag index of every instance.
+     * @param joinPoint The join point that represents the method execution.
+     * @param evictCache The annotation that indicates the method evicts a group of caches.
+     * @param result The result of the method execution.
+     */
+    @AfterReturning(value = "@annotation(evictCache)", returning = "result")
+    public void evictCacheAdvise(JoinPoint joinPoint, EvictCache evictCache, Object result) {
+        evict(joinPoint, evictCache, result);
+    }
+
+
+    /**
+     * A method-level advice that intercepts methods annotated with several {@link EvictCache} annotations
+     * and removes the caches selected by each of them.
+     * @param joinPoint The join point that represents the method execution.
+     * @param evictCaches The container of the annotations.
+     * @param result The result of the method execution.
+     */
+    @AfterReturning(value = "@annotation(evictCaches)", returning = "result")
+    public void evictCachesAdvise(JoinPoint joinPoint, EvictCaches evictCaches, Object result) {
+        for (EvictCache evictCache : evictCaches.value()) {
+            evict(joinPoint, evictCache, result);
+        }
+    }
+
+    private void evict(JoinPoint joinPoint, EvictCache evictCache, Object result) {
+        String evaluatedKey = evictCache.scope() == EvictCache.Scope.ALL
+                ? ""
+                : SpelExpression.getKeyValue(joinPoint, evictCache.key(), result);
+        cacheEvictor.evict(evictCache.type(), evictCache.scope(), evaluatedKey, evictCache.fieldName());
+        invalidationBus.publishEviction(evictCache.type(), evictCache.scope(), evaluatedKey, evictCache.fieldName());
     }
 }
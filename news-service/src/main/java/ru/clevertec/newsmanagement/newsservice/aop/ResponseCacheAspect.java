@@ -0,0 +1,104 @@
+package ru.clevertec.newsmanagement.newsservice.aop;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheProperties;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheResponse;
+import ru.clevertec.newsmanagement.newsservice.cache.CustomCacheManager;
+import ru.clevertec.newsmanagement.newsservice.cache.RenderedResponse;
+import ru.clevertec.newsmanagement.newsservice.cache.trace.AccessTraceRecorder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Optional;
+
+@Aspect
+@Component
+public class ResponseCacheAspect {
+
+    private static final String GZIP = "gzip";
+
+    private final CustomCacheManager customCacheManager;
+    private final AccessTraceRecorder accessTraceRecorder;
+    private final long gzipMinSize;
+
+    public ResponseCacheAspect(CustomCacheManager customCacheManager, AccessTraceRecorder accessTraceRecorder,
+                               CacheProperties properties) {
+        this.customCacheManager = customCacheManager;
+        this.accessTraceRecorder = accessTraceRecorder;
+        this.gzipMinSize = properties.getResponse().getGzipMinSize().toBytes();
+    }
+
+    /**
+     * A method-level advice that intercepts controller methods annotated with {@link CacheResponse} annotation.
+     * If the value is cached, its JSON bytes are rendered once and written straight to the response,
+     * in the gzip variant if the client accepts it; the hit is recorded as a hit of the value, in the metrics
+     * and in the access trace.
+     * The hit is promoted in place by the ids of the key, as in {@link CacheAspect#getCacheAdvise},
+     * and the cache is weighed again when its value is rendered, so the rendered bytes count in the budget.
+     * A missing, expired or due for refresh value is left to the method and its cached service.
+     * @param joinPoint The join point that represents the controller method execution.
+     * @param cacheResponse The annotation that indicates the method returns the JSON of a cached value.
+     * @return null if the cached response was written, otherwise the result of the method execution.
+     * @throws Throwable If an exception occurs during method execution.
+     */
+    @Around("@annotation(cacheResponse)")
+    public Object cacheResponseAdvise(ProceedingJoinPoint joinPoint, CacheResponse cacheResponse) throws Throwable {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (Objects.isNull(attributes) || Objects.isNull(attributes.getResponse())) {
+            return joinPoint.proceed();
+        }
+        CacheList cache = customCacheManager.getCache(cacheResponse.type());
+        Optional<Cache> cacheObject = CacheAspect.hitCache(cache, joinPoint, cacheResponse.key());
+        long now = System.nanoTime();
+        if (cacheObject.isEmpty() || cacheObject.get().isExpired(now) || cacheObject.get().isRefreshNeeded(now)) {
+            return joinPoint.proceed();
+        }
+        Cache hit = cacheObject.get();
+        RenderedResponse previous = hit.getRendered();
+        Optional<RenderedResponse> rendered = RenderedResponse.of(hit, cacheResponse.gzip() ? gzipMinSize : -1);
+        if (rendered.isEmpty()) {
+            return joinPoint.proceed();
+        }
+        if (rendered.get() != previous) {
+            cache.reweigh(hit);
+        }
+        customCacheManager.getMetrics(cacheResponse.type()).hit();
+        accessTraceRecorder.record(cacheResponse.type(), hit.getKey());
+        write(attributes.getRequest(), attributes.getResponse(), rendered.get());
+        return null;
+    }
+
+    private static void write(HttpServletRequest request, HttpServletResponse response, RenderedResponse rendered)
+            throws IOException {
+        boolean gzip = Objects.nonNull(rendered.gzip()) && acceptsGzip(request);
+        byte[] body = gzip ? rendered.gzip() : rendered.json();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        if (Objects.nonNull(rendered.gzip())) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        response.flushBuffer();
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String accepted = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return Objects.nonNull(accepted) && accepted.contains(GZIP);
+    }
+}
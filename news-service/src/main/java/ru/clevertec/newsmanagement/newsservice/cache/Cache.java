@@ -1,10 +1,12 @@
 package ru.clevertec.newsmanagement.newsservice.cache;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 @ToString
@@ -13,11 +15,102 @@ import java.util.Objects;
 public abstract class Cache {
 
     private String key;
-    private Object value;
+    private volatile Object value;
+
+    /**
+     * The weight of the value, set by the cache list when the cache is added to it.
+     */
+    private int weight;
+
+    /**
+     * The time of the last write of the value, in {@link System#nanoTime()} units.
+     * Set directly only when a cache is restored from another storage.
+     */
+    private volatile long writeTime;
+
+    /**
+     * The time after the last write when the cache expires, in nanoseconds, or 0 if it never expires.
+     */
+    @Setter(AccessLevel.NONE)
+    private long expireAfterWrite;
+
+    /**
+     * The time after the last write when the value should be reloaded, in nanoseconds, or 0 if it is never reloaded.
+     */
+    @Setter(AccessLevel.NONE)
+    private long refreshAfterWrite;
+
+    /**
+     * The value rendered as a response body, valid only while its source is the current value.
+     */
+    @ToString.Exclude
+    private volatile RenderedResponse rendered;
+
+    /**
+     * Whether a reload of the value is in progress.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final AtomicBoolean refreshing = new AtomicBoolean();
 
     protected Cache(String key, Object value) {
         this.key = key;
         this.value = value;
+        this.writeTime = System.nanoTime();
+    }
+
+    /**
+     * Sets the value, drops the rendered old value and restarts the expiration and refresh periods.
+     * @param value the new value
+     */
+    public void setValue(Object value) {
+        this.value = value;
+        this.rendered = null;
+        this.writeTime = System.nanoTime();
+    }
+
+    /**
+     * Sets the expiration and refresh periods, counted from the last write.
+     * @param expireAfterWrite the expiration period in nanoseconds, or 0 if the cache never expires
+     * @param refreshAfterWrite the refresh period in nanoseconds, or 0 if the value is never reloaded
+     */
+    public void expireAfter(long expireAfterWrite, long refreshAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+        this.refreshAfterWrite = refreshAfterWrite;
+    }
+
+    /**
+     * Returns whether the cache is expired at the given time.
+     * @param now the current time in {@link System#nanoTime()} units
+     * @return true if the cache is expired
+     */
+    public boolean isExpired(long now) {
+        return expireAfterWrite > 0 && now - writeTime >= expireAfterWrite;
+    }
+
+    /**
+     * Returns whether the value should be reloaded at the given time.
+     * @param now the current time in {@link System#nanoTime()} units
+     * @return true if the value should be reloaded
+     */
+    public boolean isRefreshNeeded(long now) {
+        return refreshAfterWrite > 0 && now - writeTime >= refreshAfterWrite;
+    }
+
+    /**
+     * Marks the start of a reload of the value.
+     * @return true if no other reload is in progress
+     */
+    public boolean startRefresh() {
+        return refreshing.compareAndSet(false, true);
+    }
+
+    /**
+     * Marks the end of a reload of the value.
+     */
+    public void endRefresh() {
+        refreshing.set(false);
     }
 
     @Override
@@ -0,0 +1,148 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import ru.clevertec.newsmanagement.exceptionservice.exception.CustomException;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * This class runs the loads of {@link GetCache#async()} on a bounded executor, so a slow query does not hold
+ * the request threads longer than "cache.async.timeout". While a load is pending its future is the cached value,
+ * and the concurrent calls for the same key wait for the same future; the loaded value then replaces it.
+ * When the bounded queue is full the load runs in the calling thread.
+ * The loads run on virtual threads if "cache.async.virtual-threads" is set and the JVM supports them.
+ * @author Dayanch
+ */
+@Slf4j
+@Component
+public class CacheAsyncLoader {
+
+    private static final String THREAD_PREFIX = "cache-async-";
+
+    /**
+     * The pending loads, by cached class and key.
+     */
+    private final Map<Load, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final long timeout;
+
+    public CacheAsyncLoader(CacheProperties properties) {
+        CacheProperties.Async async = properties.getAsync();
+        executor = new ThreadPoolExecutor(async.getThreads(), async.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(async.getQueueCapacity()), threadFactory(async.isVirtualThreads()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        timeout = async.getTimeout().toNanos();
+    }
+
+    /**
+     * Returns the pending load of the given key, starting it unless a load of the key is already pending.
+     * The future of a new load is cached under the key until the loader caches the loaded value;
+     * the future of a failed load is removed.
+     * @param type the cached class
+     * @param cache the cache list of the class
+     * @param key the evaluated cache key
+     * @param loader the load, caching the loaded value
+     * @return the future of the loaded value
+     */
+    public CompletableFuture<Object> load(Class<?> type, CacheList cache, String key, CacheLoader loader) {
+        Load load = new Load(type, key);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> pending = loads.putIfAbsent(load, future);
+        if(Objects.nonNull(pending)) {
+            return pending;
+        }
+        cache.add(key, future);
+        executor.execute(() -> run(load, cache, future, loader));
+        return future;
+    }
+
+    /**
+     * Waits for the given load up to the timeout.
+     * @param key the evaluated cache key, used in the error message
+     * @param future the future of the load
+     * @param stale the expired value returned if the load times out
+     * @return the loaded value, or the stale value if the load timed out
+     * @throws Throwable the exception of the load, or {@link CustomException} if it timed out without a stale value
+     * or the waiting thread is interrupted, with its interrupt status kept
+     */
+    public Object await(String key, CompletableFuture<?> future, Optional<Object> stale) throws Throwable {
+        try {
+            return future.get(timeout, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            if(stale.isPresent()) {
+                return stale.get();
+            }
+            throw new CustomException("Load of cache " + key + " timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomException("Load of cache " + key + " was interrupted");
+        }
+    }
+
+    /**
+     * Returns the number of loads waiting for a thread.
+     * @return the number of queued loads
+     */
+    public int pending() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Load load, CacheList cache, CompletableFuture<Object> future, CacheLoader loader) {
+        try {
+            future.complete(loader.load());
+        } catch (Throwable e) {
+            cache.findByKey(load.key())
+                    .filter(cached -> cached.getValue() == future)
+                    .ifPresent(cached -> cache.remove(load.key()));
+            future.completeExceptionally(e);
+        } finally {
+            loads.remove(load, future);
+        }
+    }
+
+    /**
+     * Creates the factory of the loading threads. The virtual threads are created by reflection,
+     * so the service still runs on JVMs without them.
+     * @param virtual whether to create virtual threads
+     * @return the thread factory
+     */
+    private static ThreadFactory threadFactory(boolean virtual) {
+        if(virtual) {
+            try {
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                builder = builderType.getMethod("name", String.class, long.class).invoke(builder, THREAD_PREFIX, 0L);
+                return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads are not supported by the JVM, the caches are loaded by platform threads");
+            }
+        }
+        return new CustomizableThreadFactory(THREAD_PREFIX);
+    }
+
+    /**
+     * A load of a single cache key.
+     */
+    private record Load(Class<?> type, String key) {
+    }
+}
@@ -0,0 +1,125 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.clevertec.newsmanagement.newsservice.util.AspectUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This class removes the groups of caches selected by the scope of {@link EvictCache}, such as the cached pages
+ * affected by a write or the caches under a tag. The keys of the pages are "[owner,]page,size,sort", e.g. "0,20,UNSORTED" for a page of news
+ * or "1,0,20,createdDate: DESC" for a page of the comments of the news 1.
+ * @author Dayanch
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheEvictor {
+
+    /**
+     * A pattern of a page key. The sort never starts with a digit, so the optional owner is not ambiguous.
+     */
+    private static final Pattern PAGE_KEY = Pattern.compile("(?:(.+?),)?(\\d+),(\\d+),(.*)");
+
+    private final CustomCacheManager customCacheManager;
+
+    /**
+     * Removes the caches of the given type selected by the given scope.
+     * @param type the cached class
+     * @param scope the scope of the removed caches
+     * @param key the key the scope is applied to
+     * @param fieldName the field of the cached elements compared with the key
+     * @return the keys of the removed caches
+     */
+    public List<String> evict(Class<?> type, EvictCache.Scope scope, String key, String fieldName) {
+        CacheList list = customCacheManager.getCache(type);
+        return switch (scope) {
+            case ALL -> removeIf(list, cache -> true);
+            case PREFIX -> removeIf(list, cache -> cache.getKey().startsWith(key + ","));
+            case TAG -> new ArrayList<>(customCacheManager.evictTag(key, type));
+            case CONTAINING -> removeIf(list, cache -> contains(cache, key, fieldName));
+            case FOLLOWING -> evictFollowing(list, key, fieldName);
+        };
+    }
+
+    /**
+     * Removes the pages holding the element with the given key and the pages following them.
+     * The first page holding the element is found in a snapshot, as the pages are kept in no particular order.
+     * @param list the cache list of the pages
+     * @param key the key of the element
+     * @param fieldName the field of the element compared with the key
+     * @return the keys of the removed pages
+     */
+    private List<String> evictFollowing(CacheList list, String key, String fieldName) {
+        Map<String, Integer> firstPages = new HashMap<>();
+        for (Cache cache : list.snapshot()) {
+            Matcher page = PAGE_KEY.matcher(cache.getKey());
+            if(page.matches() && contains(cache, key, fieldName)) {
+                firstPages.merge(groupOf(page), Integer.parseInt(page.group(2)), Math::min);
+            }
+        }
+        if(firstPages.isEmpty()) {
+            return removeIf(list, cache -> true);
+        }
+        return removeIf(list, cache -> {
+            Matcher page = PAGE_KEY.matcher(cache.getKey());
+            if(!page.matches()) {
+                return true;
+            }
+            Integer first = firstPages.get(groupOf(page));
+            return Objects.isNull(first) || Integer.parseInt(page.group(2)) >= first;
+        });
+    }
+
+    /**
+     * Returns the group of the given page: the pages of the same owner, size and sort.
+     * @param page the matched page key
+     * @return the group of the page
+     */
+    private static String groupOf(Matcher page) {
+        return page.group(1) + "," + page.group(3) + "," + page.group(4);
+    }
+
+    private static List<String> removeIf(CacheList list, Predicate<Cache> filter) {
+        List<String> removed = new ArrayList<>();
+        list.removeIf(cache -> {
+            if(filter.test(cache)) {
+                removed.add(cache.getKey());
+                return true;
+            }
+            return false;
+        });
+        return removed;
+    }
+
+    /**
+     * Checks if the given cache holds a collection with an element whose field equals the given key.
+     * @param cache the cache to check
+     * @param key the key of the element
+     * @param fieldName the field of the element compared with the key
+     * @return true if the element is found
+     */
+    private static boolean contains(Cache cache, String key, String fieldName) {
+        if(!(cache.getValue() instanceof Collection<?> elements)) {
+            return false;
+        }
+        try {
+            for (Object element : elements) {
+                if(key.equals(AspectUtil.getFieldValue(element, fieldName))) {
+                    return true;
+                }
+            }
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalArgumentException("No readable field " + fieldName + " in cache " + cache.getKey(), e);
+        }
+        return false;
+    }
+}
@@ -1,6 +1,8 @@
 package ru.clevertec.newsmanagement.newsservice.cache;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
  * This interface defines the behavior of a cache list, which is a list of caches that can be added to, removed from,
@@ -24,6 +26,22 @@ public interface CacheList {
      */
     Cache add(Cache cache);
 
+    /**
+     * Replaces the value of the cache with the given key in place, keeping its position in the eviction order,
+     * or adds a new cache if no cache has the key.
+     * @param key the key of the cache
+     * @param value the new value
+     * @return the cache holding the new value
+     */
+    default Cache replace(String key, Object value) {
+        Optional<Cache> cache = findByKey(key);
+        if(cache.isEmpty()) {
+            return add(key, value);
+        }
+        cache.get().setValue(value);
+        return cache.get();
+    }
+
     /**
      * Removes the cache with the given key from the list, if it exists.
      * @param key the key of the cache to remove
@@ -31,10 +49,130 @@ public interface CacheList {
      */
     Optional<Cache> remove(String key);
 
+    /**
+     * Removes the cache with the key of a single id, e.g. "42", if it exists.
+     * Lists indexing such keys by their numeric value find it without building the key.
+     * @param id the id the key consists of
+     * @return an optional containing the cache that was removed, or an empty optional if no cache was removed
+     */
+    default Optional<Cache> remove(long id) {
+        return remove(Long.toString(id));
+    }
+
+    /**
+     * Removes the cache with the key of a pair of ids, e.g. "1,42", if it exists.
+     * Lists indexing such keys by their numeric values find it without building the key.
+     * @param first the first id of the key
+     * @param second the second id of the key
+     * @return an optional containing the cache that was removed, or an empty optional if no cache was removed
+     */
+    default Optional<Cache> remove(long first, long second) {
+        return remove(first + "," + second);
+    }
+
+    /**
+     * Finds the cache with the given key and records a hit of it, promoting it by the policy of the list
+     * while it stays in the list, so concurrent lookups and writes of the key always find it.
+     * By default the cache is removed and added back, which a thread-safe list has to do atomically.
+     * @param key the key of the cache
+     * @return an optional containing the hit cache, or an empty optional if no cache has the key
+     */
+    default Optional<Cache> hit(String key) {
+        Optional<Cache> cache = remove(key);
+        cache.ifPresent(found -> {
+            found.hit();
+            add(found);
+        });
+        return cache;
+    }
+
+    /**
+     * Hits the cache with the key of a single id, e.g. "42", like {@link #hit(String)}.
+     * Lists indexing such keys by their numeric value find it without building the key.
+     * @param id the id the key consists of
+     * @return an optional containing the hit cache, or an empty optional if no cache has the key
+     */
+    default Optional<Cache> hit(long id) {
+        return hit(Long.toString(id));
+    }
+
+    /**
+     * Hits the cache with the key of a pair of ids, e.g. "1,42", like {@link #hit(String)}.
+     * Lists indexing such keys by their numeric values find it without building the key.
+     * @param first the first id of the key
+     * @param second the second id of the key
+     * @return an optional containing the hit cache, or an empty optional if no cache has the key
+     */
+    default Optional<Cache> hit(long first, long second) {
+        return hit(first + "," + second);
+    }
+
+    /**
+     * Weighs the given cache again, e.g. after its value was rendered, if the list still holds this very cache,
+     * evicting other caches while the list is over its weight budget. Lists without a budget ignore it.
+     * @param cache the cache to weigh
+     */
+    default void reweigh(Cache cache) {
+    }
+
     /**
      * Searches the list for a cache with the given key.
      * @param key the key to search for
      * @return an optional containing the cache with the given key, or an empty optional if no such cache exists
      */
     Optional<Cache> findByKey(String key);
+
+    /**
+     * Checks if the list has a cache with the given key.
+     * @param key the key to search for
+     * @return true if the list has a cache with the given key
+     */
+    default boolean containsKey(String key) {
+        return findByKey(key).isPresent();
+    }
+
+    /**
+     * Removes all caches matching the given filter from the list.
+     * @param filter the filter of the caches to remove
+     * @return the number of removed caches
+     */
+    int removeIf(Predicate<Cache> filter);
+
+    /**
+     * Removes the caches expired at the given time from the list.
+     * Lists storing the caches serialized check the expiration without restoring the caches.
+     * @param now the current time in {@link System#nanoTime()} units
+     * @return the number of removed caches
+     */
+    default int removeExpired(long now) {
+        return removeIf(cache -> cache.isExpired(now));
+    }
+
+    /**
+     * Returns the caches of the list, from the first to the last to be evicted.
+     * Adding the caches to an empty list in this order restores their eviction order.
+     * @return the caches of the list
+     */
+    List<Cache> snapshot();
+
+    /**
+     * Limits the list to the given share of its maximum size and weight budget, evicting the caches
+     * of the lowest value by the policy of the list until they fit. The share of 1 restores the full limits.
+     * Lists without an eviction policy ignore it.
+     * @param share the share of the limits, greater than 0 and at most 1
+     */
+    default void scale(double share) {
+    }
+
+    /**
+     * Returns the number of caches in the list.
+     * @return the number of caches
+     */
+    int size();
+
+    /**
+     * Returns the total weight of the caches in the list.
+     * @return the total weight of the caches
+     */
+    long weight();
 }
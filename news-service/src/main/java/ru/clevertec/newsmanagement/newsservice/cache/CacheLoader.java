@@ -0,0 +1,16 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+/**
+ * This interface defines the load of a cached value, usually the execution of the intercepted method.
+ * @author Dayanch
+ */
+@FunctionalInterface
+public interface CacheLoader {
+
+    /**
+     * Loads the value.
+     * @return the loaded value
+     * @throws Throwable if the load fails
+     */
+    Object load() throws Throwable;
+}
@@ -0,0 +1,195 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.LfuCache;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.LruCache;
+import ru.clevertec.newsmanagement.newsservice.cache.invalidation.InvalidationBus;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The "cachemanager" actuator endpoint, which shows and changes the cache lists of {@link CustomCacheManager}
+ * while the service runs. The cached types are referenced by the lower-case simple name of their class,
+ * as under "cache.types". A cache list is resized or changed to another type without losing its caches;
+ * the change overrides the configuration until the next refresh of the "cache" properties.
+ * The evicted keys are published to the other instances by the {@link InvalidationBus}.
+ * The endpoint changes and flushes the caches, so it must not be exposed over the web unless the actuator is secured.
+ * @author Dayanch
+ */
+@Component
+@Endpoint(id = "cachemanager")
+@RequiredArgsConstructor
+public class CacheManagerEndpoint {
+
+    private static final Set<String> TYPES = Set.of("lru", "lfu", "tinylfu");
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final CustomCacheManager customCacheManager;
+    private final CacheEvictor cacheEvictor;
+    private final InvalidationBus invalidationBus;
+    private final CacheProperties properties;
+
+    /**
+     * Returns the cache lists created so far.
+     * @return the descriptors of the cache lists, by the name of the cached type
+     */
+    @ReadOperation
+    public Map<String, CacheListDescriptor> caches() {
+        Map<String, CacheListDescriptor> caches = new TreeMap<>();
+        customCacheManager.getCaches().forEach((type, list) -> caches.put(nameOf(type), describe(type, list)));
+        return caches;
+    }
+
+    /**
+     * Returns the caches of the given type its cache list values most: the most frequently hit caches
+     * of an "lfu" list, the most recently hit caches of the other lists.
+     * @param name the name of the cached type
+     * @param limit the maximum number of caches, 20 by default
+     * @return the descriptors of the caches, or null if the type has no cache list
+     */
+    @ReadOperation
+    public List<CacheDescriptor> entries(@Selector String name, @Nullable Integer limit) {
+        Optional<Class<?>> type = findType(name);
+        if(type.isEmpty()) {
+            return null;
+        }
+        long now = System.nanoTime();
+        return customCacheManager.getCache(type.get()).snapshot().stream()
+                .sorted(CacheManagerEndpoint::compareValue)
+                .limit(Objects.isNull(limit) ? DEFAULT_LIMIT : Math.max(0, limit))
+                .map(cache -> CacheDescriptor.of(cache, now))
+                .toList();
+    }
+
+    /**
+     * Changes the type or the size of the cache list of the given type and migrates its caches into the new list.
+     * @param name the name of the cached type
+     * @param type the new type of the cache list, "lru", "lfu" or "tinylfu", or null to keep the type
+     * @param size the new maximum size of the cache list, or null to keep the size
+     * @return the descriptor of the changed cache list, or null if the type has no cache list
+     * @throws InvalidEndpointRequestException if the type is unknown or the size is not positive
+     */
+    @WriteOperation
+    public CacheListDescriptor reconfigure(@Selector String name, @Nullable String type, @Nullable Integer size) {
+        Optional<Class<?>> classname = findType(name);
+        if(classname.isEmpty()) {
+            return null;
+        }
+        if(Objects.nonNull(type) && !TYPES.contains(type)) {
+            throw new InvalidEndpointRequestException("Unknown cache type " + type, "Unknown cache type");
+        }
+        if(Objects.nonNull(size) && size <= 0) {
+            throw new InvalidEndpointRequestException("Cache size " + size + " is not positive", "Invalid cache size");
+        }
+        CacheProperties.Spec spec = new CacheProperties.Spec();
+        CacheProperties.Spec current = properties.getTypes().get(name);
+        if(Objects.nonNull(current)) {
+            spec.setType(current.getType());
+            spec.setSize(current.getSize());
+            spec.setMaxWeight(current.getMaxWeight());
+            spec.setOffHeap(current.getOffHeap());
+        }
+        spec.setType(Objects.isNull(type) ? spec.getType() : type);
+        spec.setSize(Objects.isNull(size) ? spec.getSize() : size);
+        Map<String, CacheProperties.Spec> types = new HashMap<>(properties.getTypes());
+        types.put(name, spec);
+        properties.setTypes(types);
+        customCacheManager.reconfigure(classname.get());
+        return describe(classname.get(), customCacheManager.getCache(classname.get()));
+    }
+
+    /**
+     * Removes the cache with the given key of the given type, or all caches of the type,
+     * here and in the other instances.
+     * @param name the name of the cached type
+     * @param key the key of the removed cache, or null to remove all caches of the type
+     * @return the removed keys, or null if the type has no cache list
+     */
+    @DeleteOperation
+    public List<String> evict(@Selector String name, @Nullable String key) {
+        Optional<Class<?>> type = findType(name);
+        if(type.isEmpty()) {
+            return null;
+        }
+        List<String> keys = Objects.isNull(key)
+                ? cacheEvictor.evict(type.get(), EvictCache.Scope.ALL, null, null)
+                : customCacheManager.getCache(type.get()).remove(key).map(cache -> List.of(cache.getKey())).orElse(List.of());
+        if(Objects.nonNull(key)) {
+            invalidationBus.publish(type.get(), key);
+        } else {
+            invalidationBus.publishEviction(type.get(), EvictCache.Scope.ALL, null, null);
+        }
+        return keys;
+    }
+
+    private Optional<Class<?>> findType(String name) {
+        return customCacheManager.getCaches().keySet().stream()
+                .filter(type -> nameOf(type).equals(name))
+                .findFirst();
+    }
+
+    private CacheListDescriptor describe(Class<?> type, CacheList list) {
+        return new CacheListDescriptor(properties.getType(type), properties.getSize(type), list.size(), list.weight());
+    }
+
+    private static String nameOf(Class<?> type) {
+        return type.getSimpleName().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Orders the caches by the value their cache list gives them, the most valuable first.
+     * The caches of different types, met only during a migration, are left in their order.
+     */
+    private static int compareValue(Cache first, Cache second) {
+        if(first instanceof LfuCache lfu && second instanceof LfuCache other) {
+            return lfu.compareTo(other);
+        }
+        if(first instanceof LruCache lru && second instanceof LruCache other) {
+            return Comparator.comparingLong(LruCache::getLastAccessedTime).reversed().compare(lru, other);
+        }
+        return 0;
+    }
+
+    /**
+     * A cache list as shown by the endpoint.
+     * @param type the configured type of the cache list
+     * @param maxSize the configured maximum size
+     * @param size the number of cached values
+     * @param weight the total serialized size of the cached values on the heap
+     */
+    public record CacheListDescriptor(String type, int maxSize, int size, long weight) {
+    }
+
+    /**
+     * A cache as shown by the endpoint.
+     * @param key the key of the cache
+     * @param weight the serialized size of the value
+     * @param age the time since the last write of the value, in milliseconds
+     * @param hits the number of hits of an "lfu" cache, otherwise null
+     */
+    public record CacheDescriptor(String key, int weight, long age, Integer hits) {
+
+        static CacheDescriptor of(Cache cache, long now) {
+            return new CacheDescriptor(cache.getKey(), cache.getWeight(),
+                    TimeUnit.NANOSECONDS.toMillis(now - cache.getWriteTime()),
+                    cache instanceof LfuCache lfu ? lfu.getCount() : null);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class records the metrics of the cache list of a single cached class and publishes them to Micrometer.
+ * The counts are kept in striped {@link LongAdder}s read by function counters, so recording neither allocates
+ * nor contends between threads. All meters are tagged by the simple name of the class:
+ * "cache.gets" by the "result" tag ("hit" or "miss"), "cache.evictions", "cache.size", "cache.weight",
+ * "cache.hit.ratio" and the "cache.load" timer with a percentile histogram.
+ * @author Dayanch
+ */
+public class CacheMetrics {
+
+    private static final String TYPE_TAG = "type";
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final Timer loads;
+    private final MeterRegistry registry;
+    private final String type;
+
+    /**
+     * Creates the metrics of the given class and registers its counters.
+     * @param registry the registry to publish the metrics to
+     * @param classname the cached class
+     */
+    public CacheMetrics(MeterRegistry registry, Class<?> classname) {
+        this.registry = registry;
+        this.type = classname.getSimpleName();
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags(TYPE_TAG, type, "result", "hit")
+                .description("The number of calls returning a cached value")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags(TYPE_TAG, type, "result", "miss")
+                .description("The number of calls loading the value")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag(TYPE_TAG, type)
+                .description("The number of caches evicted to make room for new ones")
+                .register(registry);
+        Gauge.builder("cache.hit.ratio", this, CacheMetrics::hitRatio)
+                .tag(TYPE_TAG, type)
+                .description("The share of calls returning a cached value")
+                .register(registry);
+        loads = Timer.builder("cache.load")
+                .tag(TYPE_TAG, type)
+                .description("The time of the successful loads of values")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Registers the gauges of the size and the weight of the given cache list.
+     * @param list the cache list of the class
+     */
+    public void bind(CacheList list) {
+        Gauge.builder("cache.size", list, CacheList::size)
+                .tag(TYPE_TAG, type)
+                .description("The number of cached values")
+                .register(registry);
+        Gauge.builder("cache.weight", list, CacheList::weight)
+                .tag(TYPE_TAG, type)
+                .baseUnit(BaseUnits.BYTES)
+                .description("The total serialized size of the cached values")
+                .register(registry);
+    }
+
+    public void hit() {
+        hits.increment();
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    public void evicted() {
+        evictions.increment();
+    }
+
+    /**
+     * Records a successful load of a value.
+     * @param nanos the time of the load in nanoseconds
+     */
+    public void loaded(long nanos) {
+        loads.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the share of calls returning a cached value.
+     * @return the hit ratio, or 0 if there were no calls
+     */
+    public double hitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+}
@@ -0,0 +1,442 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class holds the "cache" properties of the application.
+ * The "cache.type" and "cache.size" properties are the defaults for every cached type, and can be overridden
+ * for a single type under "cache.types", where the type is referenced by the lower-case simple name of its class
+ * (e.g. "cache.types.news.size" for {@code DTO.News}).
+ * @author Dayanch
+ */
+@Component
+@ConfigurationProperties(prefix = "cache")
+@Getter
+@Setter
+public class CacheProperties {
+
+    /**
+     * The default type of cache list, "lru", "lfu" or "tinylfu".
+     */
+    private String type = "lfu";
+
+    /**
+     * The default maximum size of the cache list.
+     */
+    private int size = 100;
+
+    /**
+     * The default budget of the serialized size of the cached values in the cache list, or null if it is unbounded.
+     */
+    private DataSize maxWeight;
+
+    /**
+     * The default capacity of the off-heap tier behind the cache list, or null if there is no off-heap tier.
+     */
+    private DataSize offHeap;
+
+    /**
+     * The size of the direct buffers the off-heap tier is allocated in.
+     */
+    private DataSize offHeapSlab = DataSize.ofMegabytes(4);
+
+    /**
+     * The number of independently locked stripes of each cache list. A list too small to give every stripe
+     * a few dozen caches gets fewer stripes.
+     */
+    private int stripes = 16;
+
+    /**
+     * The settings of single types, by the lower-case simple name of the type class.
+     */
+    private Map<String, Spec> types = new HashMap<>();
+
+    /**
+     * The interval between the sweeps of the expired caches.
+     */
+    private Duration sweepInterval = Duration.ofSeconds(30);
+
+    /**
+     * The settings of the background reloads of cached values.
+     */
+    private Refresh refresh = new Refresh();
+
+    /**
+     * The settings of the invalidation of the caches of the other instances.
+     */
+    private Invalidation invalidation = new Invalidation();
+
+    /**
+     * The settings of the preloading of the caches on startup.
+     */
+    private WarmUp warmUp = new WarmUp();
+
+    /**
+     * The settings of the snapshot of the caches written on shutdown.
+     */
+    private Snapshot snapshot = new Snapshot();
+
+    /**
+     * The settings of the caches of the not found keys.
+     */
+    private Negative negative = new Negative();
+
+    /**
+     * The settings of the background writes of {@link UpdateCache#writeBehind()}.
+     */
+    private WriteBehind writeBehind = new WriteBehind();
+
+    /**
+     * The settings of the cached responses of {@link CacheResponse}.
+     */
+    private Response response = new Response();
+
+    /**
+     * The settings of the asynchronous loads of {@link GetCache#async()}.
+     */
+    private Async async = new Async();
+
+    /**
+     * The settings of the recording of the access trace.
+     */
+    private Trace trace = new Trace();
+
+    /**
+     * The settings of the shrinking of the cache lists under memory pressure.
+     */
+    private Memory memory = new Memory();
+
+    /**
+     * Returns the type of cache list for the given class, falling back to "cache.type".
+     * @param classname the cached class
+     * @return the type of cache list for the given class
+     */
+    public String getType(Class<?> classname) {
+        Spec spec = getSpec(classname);
+        return Objects.isNull(spec) || Objects.isNull(spec.getType()) ? type : spec.getType();
+    }
+
+    /**
+     * Returns the maximum size of the cache list for the given class, falling back to "cache.size".
+     * @param classname the cached class
+     * @return the maximum size of the cache list for the given class
+     */
+    public int getSize(Class<?> classname) {
+        Spec spec = getSpec(classname);
+        return Objects.isNull(spec) || Objects.isNull(spec.getSize()) ? size : spec.getSize();
+    }
+
+    /**
+     * Returns the budget of the serialized size of the cached values for the given class, falling back to "cache.max-weight".
+     * @param classname the cached class
+     * @return the budget in bytes, or {@link Long#MAX_VALUE} if it is unbounded
+     */
+    public long getMaxWeight(Class<?> classname) {
+        Spec spec = getSpec(classname);
+        DataSize weight = Objects.isNull(spec) || Objects.isNull(spec.getMaxWeight()) ? maxWeight : spec.getMaxWeight();
+        return Objects.isNull(weight) ? Long.MAX_VALUE : weight.toBytes();
+    }
+
+    /**
+     * Returns the capacity of the off-heap tier for the given class, falling back to "cache.off-heap".
+     * @param classname the cached class
+     * @return the capacity in bytes, or 0 if the class has no off-heap tier
+     */
+    public long getOffHeap(Class<?> classname) {
+        Spec spec = getSpec(classname);
+        DataSize capacity = Objects.isNull(spec) || Objects.isNull(spec.getOffHeap()) ? offHeap : spec.getOffHeap();
+        return Objects.isNull(capacity) ? 0 : capacity.toBytes();
+    }
+
+    /**
+     * Returns the settings of the given class, or null if the class has no own settings.
+     * @param classname the cached class
+     * @return the settings of the given class
+     */
+    private Spec getSpec(Class<?> classname) {
+        return types.get(classname.getSimpleName().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * The settings of a single cached type. Unset values are taken from the defaults.
+     */
+    @Getter
+    @Setter
+    public static class Spec {
+
+        private String type;
+
+        private Integer size;
+
+        private DataSize maxWeight;
+
+        private DataSize offHeap;
+    }
+
+    /**
+     * The settings of the background reloads of cached values.
+     */
+    @Getter
+    @Setter
+    public static class Refresh {
+
+        /**
+         * The number of threads reloading values.
+         */
+        private int threads = 2;
+
+        /**
+         * The number of reloads waiting for a thread; further reloads are skipped until the queue drains.
+         */
+        private int queueCapacity = 100;
+    }
+
+    /**
+     * The settings of the invalidation of the caches of the other instances.
+     */
+    @Getter
+    @Setter
+    public static class Invalidation {
+
+        /**
+         * The transport of the invalidations, "local" for the instances of the same JVM or "tcp".
+         */
+        private String transport = "local";
+
+        /**
+         * The address the "tcp" transport listens on, the loopback address by default.
+         */
+        private String address = "127.0.0.1";
+
+        /**
+         * The port the "tcp" transport listens on.
+         */
+        private int port = 7701;
+
+        /**
+         * The time the invalidated keys are collected for before they are sent.
+         */
+        private Duration debounce = Duration.ofMillis(50);
+
+        /**
+         * The number of collected keys which are sent at once, without waiting for the debounce period.
+         */
+        private int maxBatch = 1000;
+    }
+
+    /**
+     * The settings of the preloading of the caches on startup.
+     */
+    @Getter
+    @Setter
+    public static class WarmUp {
+
+        private boolean enabled;
+
+        /**
+         * The number of the most recent news to load.
+         */
+        private int news = 1000;
+
+        /**
+         * The number of news read by a single query.
+         */
+        private int batchSize = 100;
+
+        /**
+         * The number of threads reading the news.
+         */
+        private int threads = 4;
+
+        /**
+         * The number of the first comments of every news to load, or 0 to load no comments.
+         */
+        private int comments;
+
+        /**
+         * The time budget of the warm-up, after which the instance starts with the caches loaded so far.
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+    }
+
+    /**
+     * The settings of the snapshot of the caches written on shutdown.
+     */
+    @Getter
+    @Setter
+    public static class Snapshot {
+
+        private boolean enabled;
+
+        /**
+         * The path of the snapshot file.
+         */
+        private String path = "cache.snapshot";
+    }
+
+    /**
+     * The settings of the caches of the not found keys.
+     */
+    @Getter
+    @Setter
+    public static class Negative {
+
+        /**
+         * The maximum number of not found keys remembered for every type.
+         */
+        private int size = 1000;
+
+        /**
+         * The time a not found key is remembered for.
+         */
+        private Duration expireAfterWrite = Duration.ofSeconds(30);
+    }
+
+    /**
+     * The settings of the background writes of {@link UpdateCache#writeBehind()}.
+     */
+    @Getter
+    @Setter
+    public static class WriteBehind {
+
+        /**
+         * The number of threads running the writes.
+         */
+        private int threads = 2;
+
+        /**
+         * The number of writes waiting for a thread; further writes run in the calling thread.
+         */
+        private int queueCapacity = 1000;
+
+        /**
+         * The time the pending writes are waited for on shutdown.
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+    }
+
+    /**
+     * The settings of the cached responses of {@link CacheResponse}.
+     */
+    @Getter
+    @Setter
+    public static class Response {
+
+        /**
+         * The minimum size of a JSON response to keep its gzip variant.
+         */
+        private DataSize gzipMinSize = DataSize.ofKilobytes(1);
+    }
+
+    /**
+     * The settings of the asynchronous loads.
+     */
+    @Getter
+    @Setter
+    public static class Async {
+
+        /**
+         * The number of threads running the loads.
+         */
+        private int threads = 8;
+
+        /**
+         * The number of loads waiting for a thread; further loads run in the calling thread.
+         */
+        private int queueCapacity = 1000;
+
+        /**
+         * If true, the loads run on virtual threads, when the JVM supports them.
+         */
+        private boolean virtualThreads;
+
+        /**
+         * The time a caller waits for a load before the stale value is returned, or the call fails.
+         */
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+
+    /**
+     * The settings of the recording of the access trace, replayed by {@code CacheSimulator}.
+     */
+    @Getter
+    @Setter
+    public static class Trace {
+
+        private boolean enabled;
+
+        /**
+         * The path of the trace file.
+         */
+        private String path = "cache.trace";
+
+        /**
+         * The share of the keys whose accesses are recorded, from 0 to 1. The keys are sampled by hash,
+         * so every access of a sampled key is recorded.
+         */
+        private double sampleRate = 0.01;
+
+        /**
+         * The number of the accesses waiting to be written; the accesses recorded while it is full are dropped.
+         */
+        private int queueCapacity = 10_000;
+    }
+
+    /**
+     * The settings of the {@code MemoryPressureController}, which shrinks the cache lists while the heap
+     * stays full after the collections or the collections take too much time, and grows them back when it ends.
+     */
+    @Getter
+    @Setter
+    public static class Memory {
+
+        private boolean enabled = true;
+
+        /**
+         * The interval between the checks of the memory pressure.
+         */
+        private Duration interval = Duration.ofSeconds(5);
+
+        /**
+         * The share of the maximum size of a heap memory pool still used after a collection, from 0 to 1,
+         * above which the heap is under pressure.
+         */
+        private double threshold = 0.85;
+
+        /**
+         * The share of the time between two checks spent in the collections, from 0 to 1,
+         * above which the heap is under pressure.
+         */
+        private double maxGcOverhead = 0.1;
+
+        /**
+         * The share of the full size the cache lists lose on every check under pressure.
+         */
+        private double shrinkStep = 0.2;
+
+        /**
+         * The share of the full size the cache lists get back on every check without pressure.
+         */
+        private double growStep = 0.05;
+
+        /**
+         * The smallest share of the full size the cache lists are shrunk to.
+         */
+        private double minShare = 0.2;
+
+        /**
+         * The number of checks without pressure before the cache lists start growing back.
+         */
+        private int calmChecks = 3;
+    }
+}
@@ -0,0 +1,71 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class reloads cached values in the background, so the callers keep getting the current value
+ * while the new one is loaded. Only one reload of a cache runs at a time, and the reloads are skipped
+ * when the bounded queue of the reloading threads is full.
+ * @author Dayanch
+ */
+@Slf4j
+@Component
+public class CacheRefresher {
+
+    private final ThreadPoolExecutor executor;
+
+    public CacheRefresher(CacheProperties properties) {
+        CacheProperties.Refresh refresh = properties.getRefresh();
+        executor = new ThreadPoolExecutor(refresh.getThreads(), refresh.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(refresh.getQueueCapacity()), new CustomizableThreadFactory("cache-refresh-"));
+    }
+
+    /**
+     * Reloads the value of the given cache in the background, unless a reload of it is already in progress.
+     * The new value is put through {@link CacheList#replace(String, Object)}, so the list weighs it,
+     * and only while the list still holds the cache, so a removed or rewritten cache is not brought back.
+     * A failed reload leaves the current value in place until the cache expires.
+     * @param list the cache list holding the cache
+     * @param cache the cache to reload
+     * @param loader the load of the new value
+     */
+    public void refresh(CacheList list, Cache cache, CacheLoader loader) {
+        if(!cache.startRefresh()) {
+            return;
+        }
+        try {
+            executor.execute(() -> reload(list, cache, loader));
+        } catch (RejectedExecutionException e) {
+            cache.endRefresh();
+            log.debug("Reload of cache {} skipped, the queue is full", cache.getKey());
+        }
+    }
+
+    private void reload(CacheList list, Cache cache, CacheLoader loader) {
+        try {
+            Object value = loader.load();
+            if(list.findByKey(cache.getKey()).filter(held -> held == cache).isPresent()) {
+                list.replace(cache.getKey(), value);
+            } else {
+                log.debug("Reload of cache {} dropped, the cache was removed", cache.getKey());
+            }
+        } catch (Throwable e) {
+            log.warn("Reload of cache {} failed", cache.getKey(), e);
+        } finally {
+            cache.endRefresh();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
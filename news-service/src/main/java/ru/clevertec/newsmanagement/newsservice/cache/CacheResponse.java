@@ -0,0 +1,24 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CacheResponse {
+
+    /**
+     * The SpEL expression of the key of the value cached by {@link GetCache}, whose pre-rendered JSON bytes
+     * are written straight to the response on a hit, without calling the controller method.
+     */
+    String key();
+
+    Class<?> type();
+
+    /**
+     * If true, a gzip variant of the JSON bytes is kept too and sent to the clients accepting it.
+     */
+    boolean gzip() default false;
+}
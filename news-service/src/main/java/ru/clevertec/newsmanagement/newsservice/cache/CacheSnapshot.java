@@ -0,0 +1,199 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.LfuCache;
+import ru.clevertec.newsmanagement.newsservice.model.Snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class writes the caches to a file on shutdown and reads them back on startup, so a restarted instance
+ * serves from warm caches. The file is a sequence of length-delimited {@link Snapshot.CacheEntry} messages,
+ * every one holding the serialized protobuf value with its hit count, write time, expiration periods and tags.
+ * The caches are written from the first to the last to be evicted, so adding them back in the file order
+ * restores both the LRU order and the LFU counts. The file is memory-mapped on startup and deleted after
+ * the restore, so a crash never brings back an outdated snapshot.
+ * The restore runs before the warm-up, and the snapshot is written after the web server stops.
+ * @author Dayanch
+ */
+@Slf4j
+@Component
+public class CacheSnapshot implements SmartLifecycle {
+
+    /**
+     * The phase of the snapshot, before the phase of {@link CacheWarmUp}.
+     */
+    private static final int PHASE = -200;
+
+    private final CustomCacheManager customCacheManager;
+    private final CacheProperties.Snapshot settings;
+    private volatile boolean running;
+
+    public CacheSnapshot(CustomCacheManager customCacheManager, CacheProperties properties) {
+        this.customCacheManager = customCacheManager;
+        this.settings = properties.getSnapshot();
+    }
+
+    /**
+     * Restores the caches from the snapshot file, if the snapshot is enabled and the file exists.
+     */
+    @Override
+    public void start() {
+        running = true;
+        if(settings.isEnabled()) {
+            try {
+                restore(Path.of(settings.getPath()));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Cache snapshot {} was not restored", settings.getPath(), e);
+            }
+        }
+    }
+
+    /**
+     * Writes the caches to the snapshot file, if the snapshot is enabled.
+     */
+    @Override
+    public void stop() {
+        if(running && settings.isEnabled()) {
+            try {
+                save(Path.of(settings.getPath()));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Cache snapshot {} was not written", settings.getPath(), e);
+            }
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Writes the caches with protobuf values to the given file. The file is replaced atomically.
+     * @param path the path of the snapshot file
+     * @return the number of written caches
+     * @throws IOException if the file cannot be written
+     */
+    public int save(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if(Objects.nonNull(parent)) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        int written = 0;
+        long now = System.nanoTime();
+        long wallNow = System.currentTimeMillis();
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            for (Map.Entry<Class<?>, CacheList> list : customCacheManager.getCaches().entrySet()) {
+                Map<String, List<String>> tags = customCacheManager.getTags(list.getKey());
+                for (Cache cache : list.getValue().snapshot()) {
+                    if(cache.getValue() instanceof MessageLite message) {
+                        Snapshot.CacheEntry.newBuilder()
+                                .setType(list.getKey().getName())
+                                .setKey(cache.getKey())
+                                .setValue(message.toByteString())
+                                .setCount(cache instanceof LfuCache lfu ? lfu.getCount() : 0)
+                                .setWrittenAt(wallNow - TimeUnit.NANOSECONDS.toMillis(now - cache.getWriteTime()))
+                                .setExpireAfterWrite(cache.getExpireAfterWrite())
+                                .setRefreshAfterWrite(cache.getRefreshAfterWrite())
+                                .addAllTags(tags.getOrDefault(cache.getKey(), List.of()))
+                                .build()
+                                .writeDelimitedTo(output);
+                        written++;
+                    }
+                }
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Cache snapshot {} written with {} caches", path, written);
+        return written;
+    }
+
+    /**
+     * Adds the caches of the given file to the cache lists, skipping the expired ones, and deletes the file.
+     * @param path the path of the snapshot file
+     * @return the number of restored caches
+     * @throws IOException if the file cannot be read
+     */
+    public int restore(Path path) throws IOException {
+        if(!Files.exists(path)) {
+            return 0;
+        }
+        int restored = 0;
+        Map<String, Parser<? extends MessageLite>> parsers = new HashMap<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CodedInputStream input = CodedInputStream.newInstance(buffer);
+            while (!input.isAtEnd()) {
+                int limit = input.pushLimit(input.readRawVarint32());
+                Snapshot.CacheEntry entry = Snapshot.CacheEntry.parseFrom(input);
+                input.popLimit(limit);
+                if(restore(entry, parsers)) {
+                    restored++;
+                }
+            }
+        }
+        Files.delete(path);
+        log.info("Cache snapshot {} restored with {} caches", path, restored);
+        return restored;
+    }
+
+    /**
+     * Adds the cache of the given entry to the cache list of its class, unless it is expired.
+     * @param entry the entry of the snapshot
+     * @param parsers the parsers of the values by the name of the class
+     * @return true if the cache was added
+     * @throws InvalidProtocolBufferException if the value cannot be parsed
+     */
+    private boolean restore(Snapshot.CacheEntry entry, Map<String, Parser<? extends MessageLite>> parsers)
+            throws InvalidProtocolBufferException {
+        Class<?> type;
+        try {
+            type = Class.forName(entry.getType());
+        } catch (ClassNotFoundException e) {
+            log.debug("Cache of unknown type {} is skipped", entry.getType());
+            return false;
+        }
+        Parser<? extends MessageLite> parser = parsers.computeIfAbsent(entry.getType(),
+                t -> CustomCacheManager.parserOf(type));
+        Cache cache = customCacheManager.newCache(type, entry.getKey(), parser.parseFrom(entry.getValue()));
+        if(cache instanceof LfuCache lfu && entry.getCount() > 0) {
+            lfu.setCount(entry.getCount());
+        }
+        long age = Math.max(0, System.currentTimeMillis() - entry.getWrittenAt());
+        long now = System.nanoTime();
+        cache.setWriteTime(now - TimeUnit.MILLISECONDS.toNanos(age));
+        cache.expireAfter(entry.getExpireAfterWrite(), entry.getRefreshAfterWrite());
+        if(cache.isExpired(now)) {
+            return false;
+        }
+        customCacheManager.getCache(type).add(cache);
+        customCacheManager.tag(type, entry.getKey(), entry.getTagsList());
+        return true;
+    }
+}
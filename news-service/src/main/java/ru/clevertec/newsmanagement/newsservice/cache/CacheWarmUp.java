@@ -0,0 +1,171 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import ru.clevertec.newsmanagement.newsservice.entity.News;
+import ru.clevertec.newsmanagement.newsservice.model.DTO;
+import ru.clevertec.newsmanagement.newsservice.persistence.CommentRepository;
+import ru.clevertec.newsmanagement.newsservice.persistence.NewsRepository;
+import ru.clevertec.newsmanagement.newsservice.util.SpelExpression;
+import ru.clevertec.newsmanagement.newsservice.util.impl.CommentMapper;
+import ru.clevertec.newsmanagement.newsservice.util.impl.NewsMapper;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class preloads the most recent news, and optionally the first page of their comments, into the caches
+ * when the application starts. It runs in a lifecycle phase before the registration in Eureka, so the instance
+ * receives traffic only with warm caches.
+ * The news are read in pages by several threads; the warm-up stops when the time budget is spent,
+ * leaving the rest to be loaded on demand. The progress is published as the "cache.warmup.progress" gauge,
+ * the "cache.warmup.loaded" counter by type and the "cache.warmup" timer.
+ * @author Dayanch
+ */
+@Slf4j
+@Component
+public class CacheWarmUp implements SmartLifecycle {
+
+    /**
+     * The phase of the warm-up, before the phase 0 of the Eureka registration.
+     */
+    private static final int PHASE = -100;
+
+    private final NewsRepository newsRepository;
+    private final CommentRepository commentRepository;
+    private final NewsMapper newsMapper;
+    private final CommentMapper commentMapper;
+    private final CustomCacheManager customCacheManager;
+    private final CacheProperties.WarmUp settings;
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final Counter loadedNews;
+    private final Counter loadedComments;
+    private final Timer duration;
+    private volatile boolean running;
+
+    public CacheWarmUp(NewsRepository newsRepository, CommentRepository commentRepository, NewsMapper newsMapper,
+                       CommentMapper commentMapper, CustomCacheManager customCacheManager, CacheProperties properties,
+                       MeterRegistry registry) {
+        this.newsRepository = newsRepository;
+        this.commentRepository = commentRepository;
+        this.newsMapper = newsMapper;
+        this.commentMapper = commentMapper;
+        this.customCacheManager = customCacheManager;
+        this.settings = properties.getWarmUp();
+        this.loadedNews = registry.counter("cache.warmup.loaded", "type", DTO.News.class.getSimpleName());
+        this.loadedComments = registry.counter("cache.warmup.loaded", "type", DTO.Comment.class.getSimpleName());
+        this.duration = registry.timer("cache.warmup");
+        Gauge.builder("cache.warmup.progress", loaded, l -> settings.getNews() == 0 ? 1 : (double) l.get() / settings.getNews())
+                .description("The share of the news loaded by the warm-up")
+                .register(registry);
+    }
+
+    /**
+     * Runs the warm-up if it is enabled. Blocks until the warm-up completes or its time budget is spent.
+     */
+    @Override
+    public void start() {
+        running = true;
+        if(settings.isEnabled()) {
+            duration.record(this::warmUp);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Loads the pages of the most recent news in parallel, within the time budget.
+     */
+    private void warmUp() {
+        int pages = (settings.getNews() + settings.getBatchSize() - 1) / settings.getBatchSize();
+        ExecutorService executor = Executors.newFixedThreadPool(settings.getThreads(),
+                new CustomizableThreadFactory("cache-warm-up-"));
+        for (int page = 0; page < pages; page++) {
+            int number = page;
+            executor.execute(() -> loadPage(number));
+        }
+        executor.shutdown();
+        try {
+            if(!executor.awaitTermination(settings.getTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+                log.warn("Cache warm-up stopped after {}, {} of {} news loaded",
+                        settings.getTimeout(), loaded.get(), settings.getNews());
+                return;
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            return;
+        }
+        log.info("Cache warm-up loaded {} news", loaded.get());
+    }
+
+    /**
+     * Loads a single page of the most recent news, and the first page of comments of every news if enabled.
+     * @param page the number of the page
+     */
+    private void loadPage(int page) {
+        try {
+            int skip = page * settings.getBatchSize();
+            List<News> news = newsRepository.findAll(PageRequest.of(page, settings.getBatchSize(),
+                            Sort.by(Sort.Direction.DESC, "createdDate")))
+                    .stream()
+                    .limit(settings.getNews() - (long) skip)
+                    .toList();
+            CacheList newsCache = customCacheManager.getCache(DTO.News.class);
+            for (News entity : news) {
+                if(Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                newsCache.add(String.valueOf(entity.getId()), newsMapper.toDTO(entity));
+                loadedNews.increment();
+                loaded.incrementAndGet();
+                if(settings.getComments() > 0) {
+                    loadComments(entity.getId());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cache warm-up of page {} failed", page, e);
+        }
+    }
+
+    /**
+     * Loads the first page of comments of the given news, with the keys and the tag of {@code findComments(news, id)}.
+     * @param news the id of the news
+     */
+    private void loadComments(long news) {
+        CacheList commentCache = customCacheManager.getCache(DTO.Comment.class);
+        List<String> tags = List.of("news:" + news);
+        commentRepository.findCommentsByNews_Id(news, PageRequest.of(0, settings.getComments()))
+                .forEach(comment -> {
+                    String key = SpelExpression.listKey(news, comment.getId());
+                    commentCache.add(key, commentMapper.toDTO(comment));
+                    customCacheManager.tag(DTO.Comment.class, key, tags);
+                    loadedComments.increment();
+                });
+    }
+}
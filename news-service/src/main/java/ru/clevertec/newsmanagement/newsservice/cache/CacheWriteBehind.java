@@ -0,0 +1,173 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * This class runs the writes of {@link UpdateCache#writeBehind()} in the background, so the callers are answered
+ * before the database is updated. When the bounded queue is full, or the writer is already shut down,
+ * the write runs in the calling thread, slowing the callers down instead of dropping writes.
+ * The pending writes are completed on shutdown; the writes not completed in time are failed.
+ * The writes of the same key run one at a time in the order they were made, so an older write never lands
+ * after a newer one: a write made while another one of its key is running waits for it and is run next
+ * by the same thread.
+ * @author Dayanch
+ */
+@Slf4j
+@Component
+public class CacheWriteBehind {
+
+    private final ThreadPoolExecutor executor;
+    private final long shutdownTimeout;
+
+    /**
+     * The writes waiting for the running write of their key, by the key. A key is present while its write runs.
+     */
+    private final Map<String, Queue<Write>> waiting = new HashMap<>();
+    private int waitingCount;
+
+    public CacheWriteBehind(CacheProperties properties) {
+        CacheProperties.WriteBehind writeBehind = properties.getWriteBehind();
+        executor = new ThreadPoolExecutor(writeBehind.getThreads(), writeBehind.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(writeBehind.getQueueCapacity()), new CustomizableThreadFactory("cache-write-behind-"),
+                (task, pool) -> task.run());
+        shutdownTimeout = writeBehind.getShutdownTimeout().toNanos();
+    }
+
+    /**
+     * Runs the given write in the background, after the earlier writes of the same key.
+     * @param key the key of the written cache, the writes of one key run in order
+     * @param writer the write, returning the value to cache
+     * @param onSuccess the consumer of the written value
+     * @param onFailure the action run when the write fails
+     */
+    public void write(String key, CacheLoader writer, Consumer<Object> onSuccess, Runnable onFailure) {
+        Write write = new Write(key, writer, onSuccess, onFailure);
+        synchronized (waiting) {
+            Queue<Write> writes = waiting.get(key);
+            if(Objects.nonNull(writes)) {
+                writes.add(write);
+                waitingCount++;
+                return;
+            }
+            waiting.put(key, new ArrayDeque<>());
+        }
+        executor.execute(new InOrder(write));
+    }
+
+    /**
+     * Runs the given write and then the writes of its key made in the meantime, until none is left.
+     * @param write the first write
+     */
+    private void runInOrder(Write write) {
+        Write next = write;
+        while (Objects.nonNull(next)) {
+            try {
+                next.run();
+            } catch (RuntimeException e) {
+                log.warn("Write behind of cache {} failed", next.key(), e);
+            }
+            synchronized (waiting) {
+                next = waiting.get(write.key()).poll();
+                if(Objects.isNull(next)) {
+                    waiting.remove(write.key());
+                } else {
+                    waitingCount--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fails the given write, which will never run, and the writes of its key waiting for it.
+     * @param write the first write
+     */
+    private void fail(Write write) {
+        Queue<Write> writes;
+        synchronized (waiting) {
+            writes = waiting.remove(write.key());
+            waitingCount -= Objects.isNull(writes) ? 0 : writes.size();
+        }
+        write.fail();
+        if(Objects.nonNull(writes)) {
+            writes.forEach(Write::fail);
+        }
+    }
+
+    /**
+     * Returns the number of writes waiting for a thread or for the running write of their key.
+     * @return the number of pending writes
+     */
+    public int pending() {
+        synchronized (waiting) {
+            return executor.getQueue().size() + waitingCount;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if(!executor.awaitTermination(shutdownTimeout, TimeUnit.NANOSECONDS)) {
+            List<Runnable> dropped = executor.shutdownNow();
+            log.warn("{} cache writes behind were not completed", dropped.size());
+            dropped.forEach(task -> fail(((InOrder) task).write));
+        }
+    }
+
+    /**
+     * A write of a cache.
+     * @param key the key of the written cache
+     * @param writer the write, returning the value to cache
+     * @param onSuccess the consumer of the written value
+     * @param onFailure the action run when the write fails
+     */
+    private record Write(String key, CacheLoader writer, Consumer<Object> onSuccess, Runnable onFailure) {
+
+        void run() {
+            Object value;
+            try {
+                value = writer.load();
+            } catch (Throwable e) {
+                log.warn("Write behind of cache {} failed", key, e);
+                onFailure.run();
+                return;
+            }
+            onSuccess.accept(value);
+        }
+
+        void fail() {
+            log.warn("Write behind of cache {} was not run", key);
+            onFailure.run();
+        }
+    }
+
+    /**
+     * The task running a write and the writes of its key made in the meantime.
+     */
+    private final class InOrder implements Runnable {
+
+        private final Write write;
+
+        private InOrder(Write write) {
+            this.write = write;
+        }
+
+        @Override
+        public void run() {
+            runInOrder(write);
+        }
+    }
+}
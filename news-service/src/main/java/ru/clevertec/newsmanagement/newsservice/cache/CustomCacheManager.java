@@ -1,44 +1,91 @@
 package ru.clevertec.newsmanagement.newsservice.cache;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import ru.clevertec.newsmanagement.newsservice.cache.impl.LfuCacheList;
-import ru.clevertec.newsmanagement.newsservice.cache.impl.LruCacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.HashLfuCacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.HashLruCacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.LfuCache;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.LruCache;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.OffHeapTier;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.ReconfigurableCacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.StripedCacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.TieredCacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.TinyLfuCache;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.TinyLfuCacheList;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 
 /**
  * This class is a custom cache manager that manages a map of cache lists. It provides methods for retrieving a cache list
- * based on a given class, creating a new cache list if necessary, and hitting a cache.
- * The type of cache list created is determined by the "cache.type" property, and the size of the cache list is determined
- * by the "cache.size" property.
+ * based on a given class and creating a new cache list if necessary.
+ * The type, the size and the weight budget of the cache list are taken from {@link CacheProperties} for every class separately.
+ * The values are weighed by their serialized size. The usage of every cache list is recorded by its {@link CacheMetrics}.
+ * A class with an off-heap capacity gets an off-heap tier, which keeps the serialized caches evicted from the heap.
+ * Both the map and the cache lists are safe to use from many threads: the cache lists are striped,
+ * so only the threads working with the same stripe of the same class contend.
+ * The caches may be tagged, e.g. the comments of a news with "news:42", to be evicted together by the tag.
+ * The cache lists are reconfigured live: when the settings of a class change on a refresh of the configuration,
+ * or through {@link CacheManagerEndpoint}, its cache list is rebuilt and the caches are migrated into the new list
+ * while the old one stays in use, so the class neither stops serving nor starts cold.
+ * Under memory pressure all cache lists are scaled down by {@link MemoryPressureController}.
  * @author Dayanch
  */
+@Slf4j
 @Component
+@RequiredArgsConstructor
 public class CustomCacheManager {
 
     /**
      * A map of cache lists, with the class as the key and the cache list as the value.
      */
-    private Map<Class<?>, CacheList> cache;
+    private final Map<Class<?>, CacheList> cache = new ConcurrentHashMap<>();
 
     /**
-     * The type of cache list to create.
+     * The metrics of the cache lists, by the cached class.
      */
-    @Value("${cache.type}")
-    private String type;
+    private final Map<Class<?>, CacheMetrics> metrics = new ConcurrentHashMap<>();
 
     /**
-     * The maximum size of the cache list.
+     * The settings the cache lists were built with, by the cached class.
      */
-    @Value("${cache.size}")
-    private int size;
+    private final Map<Class<?>, ListSpec> specs = new ConcurrentHashMap<>();
 
-    public CustomCacheManager() {
-        cache = new HashMap<>();
-    }
+    /**
+     * The keys of the cache lists by tag.
+     */
+    private final TagIndex tagIndex = new TagIndex();
+
+    /**
+     * The settings of the cache lists.
+     */
+    private final CacheProperties properties;
+
+    /**
+     * The registry of the cache metrics.
+     */
+    private final MeterRegistry registry;
+
+    /**
+     * The share of the limits the cache lists are scaled to, lowered under memory pressure.
+     */
+    private volatile double share = 1;
 
 
     /**
@@ -49,32 +96,275 @@ public class CustomCacheManager {
      */
     public CacheList getCache(Class<?> classname) {
         CacheList list = cache.get(classname);
-        if(Objects.isNull(list)) {
-            list = createNewCache();
-            cache.put(classname, list);
+        return Objects.nonNull(list) ? list : cache.computeIfAbsent(classname, this::createNewCache);
+    }
+
+    /**
+     * Returns the metrics of the cache list for the given class, creating the cache list if it does not exist.
+     * @param classname the cached class
+     * @return the metrics of the cache list
+     */
+    public CacheMetrics getMetrics(Class<?> classname) {
+        CacheMetrics cacheMetrics = metrics.get(classname);
+        if(Objects.nonNull(cacheMetrics)) {
+            return cacheMetrics;
+        }
+        getCache(classname);
+        return metrics.get(classname);
+    }
+
+    /**
+     * Returns the cache lists created so far.
+     * @return an unmodifiable view of the cache lists by the cached class
+     */
+    public Map<Class<?>, CacheList> getCaches() {
+        return Collections.unmodifiableMap(cache);
+    }
+
+    /**
+     * Creates a cache of the type of the cache list of the given class, not added to any list.
+     * @param classname the cached class
+     * @param key the key of the cache
+     * @param value the value of the cache
+     * @return a new LruCache if the type of the class is "lru", a new TinyLfuCache if it is "tinylfu",
+     * otherwise a new LfuCache
+     */
+    public Cache newCache(Class<?> classname, String key, Object value) {
+        ListSpec spec = specs.get(classname);
+        return newCache(Objects.isNull(spec) ? properties.getType(classname) : spec.type(), key, value);
+    }
+
+    private static Cache newCache(String type, String key, Object value) {
+        return switch (type) {
+            case "lru" -> new LruCache(key, value);
+            case "tinylfu" -> new TinyLfuCache(key, value);
+            default -> new LfuCache(key, value);
+        };
+    }
+
+    /**
+     * Returns the existing cache list for the class with the given name.
+     * @param classname the name of the cached class
+     * @return an optional containing the cache list, or an empty optional if the class has no cache list yet
+     */
+    public Optional<CacheList> findCache(String classname) {
+        return cache.entrySet().stream()
+                .filter(entry -> entry.getKey().getName().equals(classname))
+                .map(Map.Entry::getValue)
+                .findFirst();
+    }
+
+    /**
+     * Rebuilds the cache list of the given class if its type, size, weight budget or off-heap capacity has changed,
+     * and migrates the caches into the new list while the old one stays in use. The caches are migrated
+     * in the order of their eviction; a cache of another type keeps its value, write time and expiration,
+     * while its hit count starts over. Does nothing if the class has no cache list yet.
+     * @param classname the cached class
+     * @return true if the cache list was rebuilt
+     */
+    public synchronized boolean reconfigure(Class<?> classname) {
+        ListSpec spec = ListSpec.of(properties, classname);
+        if(!(cache.get(classname) instanceof ReconfigurableCacheList list) || spec.equals(specs.get(classname))) {
+            return false;
         }
+        ListSpec old = specs.put(classname, spec);
+        int migrated = list.migrate(createList(classname, spec), adapter(spec.type()));
+        log.info("Cache list of {} is reconfigured from {} to {}, {} caches are migrated",
+                classname.getSimpleName(), old, spec, migrated);
+        return true;
+    }
+
+    /**
+     * Rebuilds the cache lists whose settings were changed by a refresh of the configuration.
+     * Runs after the "cache" properties are bound again.
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void reconfigure() {
+        cache.keySet().forEach(this::reconfigure);
+    }
+
+    /**
+     * Limits every cache list, including the ones created later, to the given share of its size and weight budget,
+     * evicting the caches of the lowest value by the policy of the list. The share of 1 restores the full limits.
+     * @param share the share of the limits, greater than 0 and at most 1
+     */
+    public void scale(double share) {
+        this.share = share;
+        cache.values().forEach(list -> list.scale(share));
+    }
+
+    /**
+     * Creates a new reconfigurable cache list for the given class and registers its gauges.
+     * @param classname the class to create the cache list for
+     * @return a new cache list based on the type, size and weight properties of the given class
+     */
+    private CacheList createNewCache(Class<?> classname) {
+        ListSpec spec = ListSpec.of(properties, classname);
+        specs.put(classname, spec);
+        CacheList list = new ReconfigurableCacheList(createList(classname, spec), adapter(spec.type()));
+        if(share < 1) {
+            list.scale(share);
+        }
+        metrics.get(classname).bind(list);
         return list;
     }
 
     /**
-     * Creates a new cache list based on the "cache.type" property and the "cache.size" property.
-     * If "cache.type" is "lru", returns an LruCacheList with the given size.
-     * If "cache.type" is "lfu", returns an LfuCacheList with the given size.
-     * @return a new cache list based on the "cache.type" property and the "cache.size" property
+     * Creates a new striped cache list for the given class by the given settings,
+     * backed by an off-heap tier if the class has an off-heap capacity.
+     * If the type is "lru", the stripes are HashLruCacheList, if it is "tinylfu", TinyLfuCacheList,
+     * otherwise HashLfuCacheList. The off-heap gauges of a previous list of the class are replaced.
+     * @param classname the class to create the cache list for
+     * @param spec the settings of the cache list
+     * @return a new cache list based on the given settings
+     */
+    private CacheList createList(Class<?> classname, ListSpec spec) {
+        CacheMetrics cacheMetrics = metrics.computeIfAbsent(classname, c -> new CacheMetrics(registry, c));
+        registry.find("cache.offheap.used").tag("type", classname.getSimpleName()).meters().forEach(registry::remove);
+        registry.find("cache.offheap.size").tag("type", classname.getSimpleName()).meters().forEach(registry::remove);
+        OffHeapTier offHeap = createOffHeapTier(classname, spec);
+        EvictionListener listener = Objects.isNull(offHeap)
+                ? cache -> cacheMetrics.evicted()
+                : cache -> {
+                    cacheMetrics.evicted();
+                    offHeap.demote(cache);
+                };
+        CacheList list = new StripedCacheList(properties.getStripes(), spec.size(),
+                spec.maxWeight(), (size, maxWeight) -> switch (spec.type()) {
+                    case "lru" -> new HashLruCacheList(size, maxWeight, Weigher.SERIALIZED_SIZE, listener);
+                    case "tinylfu" -> new TinyLfuCacheList(size, maxWeight, Weigher.SERIALIZED_SIZE, listener);
+                    default -> new HashLfuCacheList(size, maxWeight, Weigher.SERIALIZED_SIZE, listener);
+                });
+        if(Objects.isNull(offHeap)) {
+            return list;
+        }
+        Gauge.builder("cache.offheap.used", offHeap, OffHeapTier::used)
+                .tag("type", classname.getSimpleName())
+                .baseUnit(BaseUnits.BYTES)
+                .description("The total serialized size of the caches in the off-heap tier")
+                .register(registry);
+        Gauge.builder("cache.offheap.size", offHeap, OffHeapTier::size)
+                .tag("type", classname.getSimpleName())
+                .description("The number of caches in the off-heap tier")
+                .register(registry);
+        return new TieredCacheList(list, offHeap);
+    }
+
+    /**
+     * Creates the adapter of the caches added to a cache list of the given type, which copies a cache
+     * of another type into a new cache of the type with the same value, write time and expiration.
+     * @param type the type of the cache list
+     * @return the adapter of the caches
      */
-    private CacheList createNewCache() {
-        return "lru".equals(type) ? new LruCacheList(size) : new LfuCacheList(size);
+    private static UnaryOperator<Cache> adapter(String type) {
+        Class<? extends Cache> cacheType = newCache(type, null, null).getClass();
+        return cache -> {
+            if(cache.getClass() == cacheType) {
+                return cache;
+            }
+            Cache copy = newCache(type, cache.getKey(), cache.getValue());
+            copy.setWriteTime(cache.getWriteTime());
+            copy.expireAfter(cache.getExpireAfterWrite(), cache.getRefreshAfterWrite());
+            copy.setRendered(cache.getRendered());
+            return copy;
+        };
     }
 
     /**
-     * Hits the given cache by incrementing its hit count, adds it to the given cache list, and returns its value.
-     * @param list the cache list to add the cache to
-     * @param cache the cache to hit
-     * @return the value of the given cache
+     * Creates the off-heap tier for the given class, if the class has an off-heap capacity and is a protobuf message.
+     * @param classname the class to create the off-heap tier for
+     * @param spec the settings of the cache list, defining the capacity and the type of the restored caches
+     * @return the off-heap tier, or null if the class has no off-heap tier
      */
-    public Object hitCache(CacheList list, Cache cache) {
-        cache.hit();
-        list.add(cache);
-        return cache.getValue();
+    private OffHeapTier createOffHeapTier(Class<?> classname, ListSpec spec) {
+        long capacity = spec.offHeap();
+        if(capacity <= 0) {
+            return null;
+        }
+        if(!MessageLite.class.isAssignableFrom(classname)) {
+            log.warn("Off-heap tier of {} is ignored, the class is not a protobuf message", classname.getName());
+            return null;
+        }
+        return new OffHeapTier(capacity, Math.toIntExact(properties.getOffHeapSlab().toBytes()), parserOf(classname),
+                switch (spec.type()) {
+                    case "lru" -> LruCache::new;
+                    case "tinylfu" -> TinyLfuCache::new;
+                    default -> LfuCache::new;
+                });
+    }
+
+    /**
+     * Returns the parser of the given protobuf message class.
+     * @param classname the protobuf message class
+     * @return the parser of the class
+     * @throws IllegalStateException if the class has no static parser() method
+     */
+    @SuppressWarnings("unchecked")
+    static Parser<? extends MessageLite> parserOf(Class<?> classname) {
+        try {
+            return (Parser<? extends MessageLite>) classname.getMethod("parser").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No protobuf parser of " + classname.getName(), e);
+        }
+    }
+
+    /**
+     * Tags the cache with the given class and key with the given tags.
+     * @param classname the cached class
+     * @param key the key of the cache
+     * @param tags the tags of the cache
+     */
+    public void tag(Class<?> classname, String key, Collection<String> tags) {
+        tagIndex.tag(classname, key, tags);
+    }
+
+    /**
+     * Returns the tags of the caches of the given class.
+     * @param classname the cached class
+     * @return the tags, by the key of the cache
+     */
+    public Map<String, List<String>> getTags(Class<?> classname) {
+        return tagIndex.tagsOf(classname);
+    }
+
+    /**
+     * Removes the caches of the given class tagged with the given tag, without scanning the cache list.
+     * @param tag the tag of the caches
+     * @param classname the cached class
+     * @return the keys of the caches under the tag, removed or already evicted
+     */
+    public Set<String> evictTag(String tag, Class<?> classname) {
+        Set<String> keys = tagIndex.remove(tag, classname);
+        if(!keys.isEmpty()) {
+            CacheList list = getCache(classname);
+            keys.forEach(list::remove);
+        }
+        return keys;
+    }
+
+    /**
+     * Removes the expired caches from all cache lists, and the keys of the caches no longer cached from the tag index.
+     * Expired caches are also dropped on access, so the sweep only frees the memory of the caches nobody asks for.
+     */
+    @Scheduled(fixedDelayString = "${cache.sweep-interval:PT30S}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        cache.values().forEach(list -> list.removeExpired(now));
+        tagIndex.purge((classname, key) -> getCache(classname).containsKey(key));
+    }
+
+    /**
+     * The settings of a cache list, compared to find out if the list has to be rebuilt.
+     * @param type the type of the cache list
+     * @param size the maximum size
+     * @param maxWeight the weight budget in bytes
+     * @param offHeap the capacity of the off-heap tier in bytes
+     */
+    private record ListSpec(String type, int size, long maxWeight, long offHeap) {
+
+        static ListSpec of(CacheProperties properties, Class<?> classname) {
+            return new ListSpec(properties.getType(classname), properties.getSize(classname),
+                    properties.getMaxWeight(classname), properties.getOffHeap(classname));
+        }
     }
 }
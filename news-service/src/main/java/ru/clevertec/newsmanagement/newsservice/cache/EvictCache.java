@@ -0,0 +1,60 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Repeatable(EvictCaches.class)
+public @interface EvictCache {
+
+    /**
+     * The SpEL expression of the key the scope is applied to, referencing the parameters and the result
+     * of the method as "#result". Not used by {@link Scope#ALL}.
+     */
+    String key() default "";
+
+    Class<?> type();
+
+    Scope scope() default Scope.ALL;
+
+    /**
+     * The field of the cached elements compared with the key by {@link Scope#CONTAINING} and {@link Scope#FOLLOWING}.
+     */
+    String fieldName() default "id";
+
+    /**
+     * The caches removed after the method execution.
+     */
+    enum Scope {
+
+        /**
+         * All caches of the type.
+         */
+        ALL,
+
+        /**
+         * The caches whose key starts with the key followed by a comma, e.g. the pages of a single news.
+         */
+        PREFIX,
+
+        /**
+         * The caches tagged with the key, found in the tag index without scanning the cache list.
+         */
+        TAG,
+
+        /**
+         * The cached pages holding an element whose field equals the key.
+         */
+        CONTAINING,
+
+        /**
+         * The cached pages holding an element whose field equals the key, and the pages following them
+         * in the same order, as their elements are shifted. If no page holds the element, all pages are removed.
+         */
+        FOLLOWING
+    }
+}
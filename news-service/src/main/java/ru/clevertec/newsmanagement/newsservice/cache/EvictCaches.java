@@ -0,0 +1,13 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface EvictCaches {
+
+    EvictCache[] value();
+}
@@ -0,0 +1,22 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+/**
+ * This interface defines a listener of the caches evicted from a cache list to make room for new ones.
+ * Caches removed by key or by a filter are not evictions.
+ * @author Dayanch
+ */
+@FunctionalInterface
+public interface EvictionListener {
+
+    /**
+     * A listener doing nothing.
+     */
+    EvictionListener NONE = cache -> {
+    };
+
+    /**
+     * Called after the given cache is evicted, while the cache list is still locked.
+     * @param cache the evicted cache
+     */
+    void onEviction(Cache cache);
+}
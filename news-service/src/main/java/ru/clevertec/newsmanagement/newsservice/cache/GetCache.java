@@ -4,6 +4,7 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
 
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
@@ -12,4 +13,47 @@ public @interface GetCache {
     String key();
 
     Class<?> type();
+
+    /**
+     * The SpEL expressions of the tags of the cached value, e.g. "'news:' + #news", evicted together
+     * by {@link EvictCache.Scope#TAG}.
+     */
+    String[] tags() default {};
+
+    /**
+     * If true, concurrent misses for the same key wait for a single load and share its result or exception.
+     */
+    boolean singleFlight() default false;
+
+    /**
+     * If true, the keys whose load failed with {@code ENTITY_NOT_FOUND} are remembered for a short time,
+     * and the calls for them fail at once without executing the method.
+     * The keys are forgotten when {@link PostCache} saves a value under them.
+     */
+    boolean negative() default false;
+
+    /**
+     * If true, the value is loaded on the executor of {@link CacheAsyncLoader} and the pending load is cached
+     * as a {@code CompletableFuture}, so the concurrent calls for the same key wait for the same load.
+     * A caller waits for the load up to "cache.async.timeout", then gets the expired value if there is one.
+     */
+    boolean async() default false;
+
+    /**
+     * The time after the last write when the cached value expires and is loaded again on the next call,
+     * or 0 if it never expires.
+     */
+    long expireAfterWrite() default 0;
+
+    /**
+     * The time after the last write when the cached value is reloaded in the background on the next call,
+     * while the current value is still returned, or 0 if it is never reloaded.
+     * Should be shorter than {@link #expireAfterWrite()} to take effect.
+     */
+    long refreshAfterWrite() default 0;
+
+    /**
+     * The unit of {@link #expireAfterWrite()} and {@link #refreshAfterWrite()}.
+     */
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
 }
@@ -0,0 +1,225 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import com.sun.management.GcInfo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class shrinks the cache lists while the heap is under pressure, so the caches give way to the requests
+ * instead of driving the service into back-to-back full collections. The heap is under pressure when a heap
+ * memory pool stays above "cache.memory.threshold" of its size after a collection, or the collections take more than
+ * "cache.memory.max-gc-overhead" of the time. A pool crossing the threshold is reported by the JVM at once,
+ * the collection time is checked every "cache.memory.interval". A check counts only the usage after the collections
+ * made since the previous check, as the usage a pool keeps after its last collection would keep the lists shrunk
+ * long after the shrinking freed the heap.
+ * Every check under pressure takes a step of the full size from all cache lists, evicting their coldest caches,
+ * down to "cache.memory.min-share";
+ * after "cache.memory.calm-checks" checks without pressure the lists grow back in smaller steps.
+ * @author Dayanch
+ */
+@Slf4j
+@Component
+public class MemoryPressureController implements NotificationListener {
+
+    private final CustomCacheManager customCacheManager;
+    private final CacheProperties.Memory memory;
+
+    /**
+     * The heap memory pools whose usage after a collection is watched.
+     */
+    private final List<MemoryPoolMXBean> pools;
+    private final List<GarbageCollectorMXBean> collectors;
+
+    /**
+     * The number of collections of every collector at the previous check, in the order of the collectors.
+     */
+    private final long[] collections;
+
+    /**
+     * The share of the full size the cache lists are limited to.
+     */
+    private double share = 1;
+
+    /**
+     * The number of checks without pressure since the last one under pressure.
+     */
+    private int calm;
+
+    /**
+     * The total collection time in milliseconds and the time in nanoseconds of the previous check.
+     */
+    private long collectionTime;
+    private long checkedAt;
+
+    public MemoryPressureController(CustomCacheManager customCacheManager, CacheProperties properties,
+                                    MeterRegistry registry) {
+        this.customCacheManager = customCacheManager;
+        this.memory = properties.getMemory();
+        this.pools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported())
+                .toList();
+        this.collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        this.collections = new long[collectors.size()];
+        Gauge.builder("cache.capacity.share", this, MemoryPressureController::getShare)
+                .description("The share of the full size the cache lists are limited to")
+                .register(registry);
+    }
+
+    /**
+     * Sets the collection usage threshold of the heap pools and starts listening to their notifications.
+     */
+    @PostConstruct
+    public void start() {
+        if(!memory.isEnabled()) {
+            return;
+        }
+        for (MemoryPoolMXBean pool : pools) {
+            long max = pool.getUsage().getMax();
+            if(max > 0) {
+                pool.setCollectionUsageThreshold((long) (max * memory.getThreshold()));
+            }
+        }
+        ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(this, null, null);
+        collectionTime = collectionTime();
+        checkedAt = System.nanoTime();
+        for (int i = 0; i < collectors.size(); i++) {
+            collections[i] = collectors.get(i).getCollectionCount();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if(!memory.isEnabled()) {
+            return;
+        }
+        try {
+            ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).removeNotificationListener(this);
+        } catch (ListenerNotFoundException e) {
+            log.debug("Memory pressure listener is already removed");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * A heap pool still above the threshold after a collection shrinks the cache lists without waiting for the next check.
+     */
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if(MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+            shrink();
+        }
+    }
+
+    /**
+     * Shrinks the cache lists if the heap is under pressure, otherwise grows them back.
+     */
+    @Scheduled(fixedDelayString = "${cache.memory.interval:PT5S}")
+    public void check() {
+        if(!memory.isEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long time = collectionTime();
+        double overhead = (time - collectionTime) / (double) Math.max(1, TimeUnit.NANOSECONDS.toMillis(now - checkedAt));
+        collectionTime = time;
+        checkedAt = now;
+        boolean aboveThreshold = isAboveThreshold();
+        if(overhead > memory.getMaxGcOverhead() || aboveThreshold) {
+            shrink();
+        } else {
+            grow();
+        }
+    }
+
+    /**
+     * Returns the share of the full size the cache lists are limited to.
+     * @return the share, from "cache.memory.min-share" to 1
+     */
+    public synchronized double getShare() {
+        return share;
+    }
+
+    /**
+     * Takes a step of the full size from the cache lists, unless they are at the smallest share.
+     */
+    synchronized void shrink() {
+        calm = 0;
+        double shrunk = Math.max(memory.getMinShare(), share - memory.getShrinkStep());
+        if(shrunk < share) {
+            log.warn("Heap is under pressure, the cache lists are shrunk to {}% of their size", Math.round(shrunk * 100));
+            share = shrunk;
+            customCacheManager.scale(shrunk);
+        }
+    }
+
+    /**
+     * Gives a step of the full size back to the cache lists after enough checks without pressure.
+     */
+    synchronized void grow() {
+        if(share >= 1 || ++calm < memory.getCalmChecks()) {
+            return;
+        }
+        share = Math.min(1, share + memory.getGrowStep());
+        if(share >= 1) {
+            log.info("Heap pressure is over, the cache lists are back to their full size");
+        }
+        customCacheManager.scale(share);
+    }
+
+    /**
+     * Checks if a heap pool is above the threshold after a collection made since the previous check.
+     * The usage is taken from the last collection of every collector which collected since then,
+     * as the usage kept by a pool is not updated by every collector managing it.
+     * @return true if such a pool is found
+     */
+    private boolean isAboveThreshold() {
+        boolean above = false;
+        for (int i = 0; i < collectors.size(); i++) {
+            GarbageCollectorMXBean collector = collectors.get(i);
+            long count = collector.getCollectionCount();
+            if(count == collections[i]) {
+                continue;
+            }
+            collections[i] = count;
+            GcInfo info = collector instanceof com.sun.management.GarbageCollectorMXBean bean ? bean.getLastGcInfo() : null;
+            if(Objects.isNull(info)) {
+                continue;
+            }
+            for (MemoryPoolMXBean pool : pools) {
+                MemoryUsage usage = info.getMemoryUsageAfterGc().get(pool.getName());
+                if(Objects.nonNull(usage) && usage.getMax() > 0
+                        && usage.getUsed() > usage.getMax() * memory.getThreshold()) {
+                    above = true;
+                }
+            }
+        }
+        return above;
+    }
+
+    private long collectionTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            time += Math.max(0, collector.getCollectionTime());
+        }
+        return time;
+    }
+}
@@ -0,0 +1,114 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import org.springframework.stereotype.Component;
+import ru.clevertec.newsmanagement.exceptionservice.exception.CustomException;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.HashLruCacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.StripedCacheList;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static ru.clevertec.newsmanagement.exceptionservice.exception.ExceptionStatus.ENTITY_NOT_FOUND;
+
+/**
+ * This class remembers the keys whose load failed because the entity does not exist, so repeated lookups
+ * of missing ids do not reach the database. Every type has its own small LRU list, separate from the cache
+ * of the values, so the not found keys never push out the found ones. A key is remembered with the message
+ * of the exception for a short time only, and is forgotten at once when a value is saved under it,
+ * here or in another instance.
+ * @author Dayanch
+ */
+@Component
+public class NegativeCache {
+
+    private final Map<Class<?>, CacheList> caches = new ConcurrentHashMap<>();
+    private final CacheProperties properties;
+    private final long expireAfterWrite;
+
+    public NegativeCache(CacheProperties properties) {
+        this.properties = properties;
+        this.expireAfterWrite = properties.getNegative().getExpireAfterWrite().toNanos();
+    }
+
+    /**
+     * Returns the message of the remembered exception of the given key, unless it is expired.
+     * @param type the class of the cached values
+     * @param key the key of the lookup
+     * @return an optional containing the message, or an empty optional if the key is not remembered
+     */
+    public Optional<String> find(Class<?> type, String key) {
+        CacheList list = caches.get(type);
+        if(Objects.isNull(list)) {
+            return Optional.empty();
+        }
+        Optional<Cache> cache = list.findByKey(key);
+        if(cache.isPresent() && cache.get().isExpired(System.nanoTime())) {
+            list.remove(key);
+            return Optional.empty();
+        }
+        return cache.map(c -> (String) c.getValue());
+    }
+
+    /**
+     * Remembers the given key if the given exception means that the entity does not exist.
+     * @param type the class of the cached values
+     * @param key the key of the lookup
+     * @param exception the exception of the load
+     * @return true if the key was remembered
+     */
+    public boolean remember(Class<?> type, String key, Throwable exception) {
+        if(!isNotFound(exception)) {
+            return false;
+        }
+        Cache cache = caches.computeIfAbsent(type, this::createNewCache)
+                .add(key, exception.getMessage());
+        cache.expireAfter(expireAfterWrite, 0);
+        return true;
+    }
+
+    /**
+     * Forgets the given key, if it is remembered.
+     * @param type the class of the cached values
+     * @param key the key to forget
+     */
+    public void forget(Class<?> type, String key) {
+        CacheList list = caches.get(type);
+        if(Objects.nonNull(list)) {
+            list.remove(key);
+        }
+    }
+
+    /**
+     * Forgets the given key of the class with the given name, if it is remembered.
+     * @param classname the name of the class of the cached values
+     * @param key the key to forget
+     */
+    public void forget(String classname, String key) {
+        caches.forEach((type, list) -> {
+            if(type.getName().equals(classname)) {
+                list.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Returns the number of remembered keys of the given type, including the expired ones not removed yet.
+     * @param type the class of the cached values
+     * @return the number of remembered keys
+     */
+    public int size(Class<?> type) {
+        CacheList list = caches.get(type);
+        return Objects.isNull(list) ? 0 : list.size();
+    }
+
+    private static boolean isNotFound(Throwable exception) {
+        return exception instanceof CustomException
+                && ENTITY_NOT_FOUND.toString().equals(exception.getMessage());
+    }
+
+    private CacheList createNewCache(Class<?> type) {
+        return new StripedCacheList(properties.getStripes(), properties.getNegative().getSize(), HashLruCacheList::new);
+    }
+}
@@ -9,7 +9,22 @@ import java.lang.annotation.Target;
 @Target(ElementType.METHOD)
 public @interface PostCache {
 
-    String fieldName();
+    /**
+     * The field of the result holding the key. Ignored if {@link #key()} is set.
+     */
+    String fieldName() default "";
+
+    /**
+     * The SpEL expression of the key, referencing the parameters and the result of the method as "#result",
+     * e.g. "{#news,#result.id}". If empty, the key is the value of {@link #fieldName()}.
+     */
+    String key() default "";
 
     Class<?> type();
+
+    /**
+     * The SpEL expressions of the tags of the cached value, e.g. "'news:' + #news", evicted together
+     * by {@link EvictCache.Scope#TAG}. The result of the method is available as "#result".
+     */
+    String[] tags() default {};
 }
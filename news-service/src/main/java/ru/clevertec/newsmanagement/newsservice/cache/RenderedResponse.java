@@ -0,0 +1,80 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import com.google.protobuf.MessageOrBuilder;
+import ru.clevertec.newsmanagement.exceptionservice.util.JsonUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A cached value rendered as a JSON response body: the UTF-8 bytes and optionally their gzip variant.
+ * It is kept next to the value in its {@link Cache} and is valid only while its source is the cached value,
+ * so a replaced value is rendered again without any explicit invalidation.
+ * The rendered bytes are counted in the weight of the cache by {@link Weigher#SERIALIZED_SIZE} once the list
+ * weighs the rendered cache again, see {@link CacheList#reweigh(Cache)}, and are dropped with a replaced value.
+ * @param source the rendered value
+ * @param json the UTF-8 JSON bytes
+ * @param gzip the gzip compressed JSON bytes, or null if not compressed
+ * @author Dayanch
+ */
+public record RenderedResponse(Object source, byte[] json, byte[] gzip) {
+
+    /**
+     * Returns the rendered value of the given cache, rendering and storing it if the value changed.
+     * @param cache the cache to render
+     * @param gzipMinSize the minimum JSON size in bytes to compress, or a negative number to never compress
+     * @return an optional containing the rendered value, or an empty optional if the value is not a protobuf message
+     * or a list of them
+     */
+    public static Optional<RenderedResponse> of(Cache cache, long gzipMinSize) {
+        Object value = cache.getValue();
+        RenderedResponse rendered = cache.getRendered();
+        if(Objects.nonNull(rendered) && rendered.source() == value) {
+            return Optional.of(rendered);
+        }
+        Optional<String> json = toJson(value);
+        if(json.isEmpty()) {
+            return Optional.empty();
+        }
+        byte[] bytes = json.get().getBytes(StandardCharsets.UTF_8);
+        rendered = new RenderedResponse(value, bytes,
+                gzipMinSize >= 0 && bytes.length >= gzipMinSize ? gzip(bytes) : null);
+        cache.setRendered(rendered);
+        return Optional.of(rendered);
+    }
+
+    /**
+     * Returns the number of the rendered bytes, of the JSON and its gzip variant.
+     * @return the size in bytes
+     */
+    public int size() {
+        return json.length + (Objects.isNull(gzip) ? 0 : gzip.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Optional<String> toJson(Object value) {
+        if(value instanceof MessageOrBuilder message) {
+            return Optional.of(JsonUtil.toJson(message));
+        }
+        if(value instanceof List<?> list && list.stream().allMatch(MessageOrBuilder.class::isInstance)) {
+            return Optional.of(JsonUtil.toJson((List<? extends MessageOrBuilder>) list));
+        }
+        return Optional.empty();
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,134 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.clevertec.newsmanagement.exceptionservice.exception.CustomException;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * This class collapses concurrent loads of the same cache key into a single one.
+ * The first caller runs the load, the callers arriving while it is in flight wait for it
+ * and share its result or exception. The first caller looks the key up again before the load,
+ * as a caller missing the cache just before a load of its key completed would otherwise load it once more.
+ * The number of loads and of collapsed loads is counted per cached class
+ * as "cache.singleflight.loads" and "cache.singleflight.collapsed".
+ * @author Dayanch
+ */
+@Component
+@RequiredArgsConstructor
+public class SingleFlight {
+
+    private static final String LOADS = "cache.singleflight.loads";
+    private static final String COLLAPSED = "cache.singleflight.collapsed";
+    private static final String TYPE_TAG = "type";
+
+    /**
+     * The loads in flight, by cached class and key.
+     */
+    private final Map<Flight, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * The counters of loads and collapsed loads, by cached class.
+     */
+    private final Map<Class<?>, Counter> loads = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Counter> collapsed = new ConcurrentHashMap<>();
+
+    private final MeterRegistry registry;
+
+    /**
+     * Runs the given loader unless a load of the same key is in flight, otherwise waits for that load.
+     * @param type the cached class
+     * @param key the evaluated cache key
+     * @param loader the load to run
+     * @return the result of the load
+     * @throws Throwable the exception of the load
+     */
+    public Object load(Class<?> type, String key, CacheLoader loader) throws Throwable {
+        return load(type, key, Optional::empty, loader);
+    }
+
+    /**
+     * Runs the given loader unless a load of the same key is in flight, otherwise waits for that load.
+     * The caller running the load returns the cached value instead, if it is found by the lookup.
+     * @param type the cached class
+     * @param key the evaluated cache key
+     * @param cached the lookup of the current cached value of the key
+     * @param loader the load to run
+     * @return the cached value or the result of the load
+     * @throws Throwable the exception of the load
+     */
+    public Object load(Class<?> type, String key, Supplier<Optional<Object>> cached, CacheLoader loader)
+            throws Throwable {
+        Flight flight = new Flight(type, key);
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = flights.putIfAbsent(flight, result);
+        if(Objects.nonNull(inFlight)) {
+            counter(collapsed, COLLAPSED, type).increment();
+            return await(key, inFlight);
+        }
+        try {
+            Optional<Object> current = cached.get();
+            if(current.isPresent()) {
+                result.complete(current.get());
+                return current.get();
+            }
+            counter(loads, LOADS, type).increment();
+            Object value = loader.load();
+            result.complete(value);
+            return value;
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(flight, result);
+        }
+    }
+
+    /**
+     * Waits for the given load in flight.
+     * @param key the evaluated cache key, used in the error message
+     * @param inFlight the load in flight
+     * @return the result of the load
+     * @throws Throwable the exception of the load, or {@link CustomException} if the waiting thread is interrupted,
+     * with its interrupt status kept
+     */
+    private Object await(String key, CompletableFuture<Object> inFlight) throws Throwable {
+        try {
+            return inFlight.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomException("Load of cache " + key + " was interrupted");
+        }
+    }
+
+    /**
+     * Returns the counter with the given name for the given class, registering it on first use.
+     * @param counters the counters with the given name
+     * @param name the name of the counter
+     * @param type the cached class
+     * @return the counter
+     */
+    private Counter counter(Map<Class<?>, Counter> counters, String name, Class<?> type) {
+        Counter counter = counters.get(type);
+        return Objects.nonNull(counter)
+                ? counter
+                : counters.computeIfAbsent(type, t -> registry.counter(name, TYPE_TAG, t.getSimpleName()));
+    }
+
+    /**
+     * A load of a single cache key.
+     */
+    private record Flight(Class<?> type, String key) {
+    }
+}
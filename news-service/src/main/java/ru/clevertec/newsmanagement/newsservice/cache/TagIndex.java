@@ -0,0 +1,136 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+
+/**
+ * An index of the cache keys by tag, such as "news:42" for the comments of the news 42, so all caches
+ * under a tag are found in time proportional to their number instead of scanning the cache lists.
+ * The index is not updated when a cache is evicted by its list, so it may keep keys of caches no longer cached;
+ * they are removed together with the tag, or by {@link #purge(BiPredicate)}.
+ * @author Dayanch
+ */
+public class TagIndex {
+
+    /**
+     * The tagged keys, by tag and cached class. The keys of a tag are changed only inside the atomic
+     * computation of its mapping, so they are plain collections.
+     */
+    private final Map<String, Map<Class<?>, Set<String>>> index = new ConcurrentHashMap<>();
+
+    /**
+     * Tags the cache with the given class and key with the given tags.
+     * @param type the cached class
+     * @param key the key of the cache
+     * @param tags the tags of the cache
+     */
+    public void tag(Class<?> type, String key, Collection<String> tags) {
+        for (String tag : tags) {
+            index.compute(tag, (t, types) -> {
+                Map<Class<?>, Set<String>> tagged = Objects.isNull(types) ? new HashMap<>() : types;
+                tagged.computeIfAbsent(type, k -> new HashSet<>()).add(key);
+                return tagged;
+            });
+        }
+    }
+
+    /**
+     * Removes the keys of the given class from the given tag.
+     * @param tag the tag
+     * @param type the cached class
+     * @return the removed keys
+     */
+    public Set<String> remove(String tag, Class<?> type) {
+        Set<String> removed = new HashSet<>();
+        index.computeIfPresent(tag, (t, types) -> {
+            Set<String> keys = types.remove(type);
+            if(Objects.nonNull(keys)) {
+                removed.addAll(keys);
+            }
+            return types.isEmpty() ? null : types;
+        });
+        return removed;
+    }
+
+    /**
+     * Removes the given tag with the keys of all classes.
+     * @param tag the tag
+     * @return the removed keys, by cached class
+     */
+    public Map<Class<?>, Set<String>> remove(String tag) {
+        Map<Class<?>, Set<String>> types = index.remove(tag);
+        return Objects.isNull(types) ? Collections.emptyMap() : types;
+    }
+
+    /**
+     * Returns the tags of the caches of the given class. The whole index is scanned.
+     * @param type the cached class
+     * @return the tags, by the key of the cache
+     */
+    public Map<String, List<String>> tagsOf(Class<?> type) {
+        Map<String, List<String>> tags = new HashMap<>();
+        for (String tag : index.keySet()) {
+            index.computeIfPresent(tag, (t, types) -> {
+                types.getOrDefault(type, Collections.emptySet())
+                        .forEach(key -> tags.computeIfAbsent(key, k -> new ArrayList<>()).add(tag));
+                return types;
+            });
+        }
+        return tags;
+    }
+
+    /**
+     * Removes the keys of the caches which are no longer cached, and the tags left without keys.
+     * A key is removed only if it is found not cached twice, before and after all tags are checked,
+     * so a cache moved between lists, or tagged just before it is added, keeps its tags.
+     * @param cached tests if the cache with the given class and key is still cached
+     * @return the number of removed keys
+     */
+    public int purge(BiPredicate<Class<?>, String> cached) {
+        Map<String, Map<Class<?>, Set<String>>> absent = new HashMap<>();
+        for (String tag : index.keySet()) {
+            index.computeIfPresent(tag, (t, types) -> {
+                types.forEach((type, keys) -> keys.stream()
+                        .filter(key -> !cached.test(type, key))
+                        .forEach(key -> absent.computeIfAbsent(t, k -> new HashMap<>())
+                                .computeIfAbsent(type, k -> new HashSet<>())
+                                .add(key)));
+                return types;
+            });
+        }
+        int[] removed = new int[1];
+        absent.forEach((tag, absentTypes) -> index.computeIfPresent(tag, (t, types) -> {
+            Iterator<Map.Entry<Class<?>, Set<String>>> iterator = types.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Class<?>, Set<String>> type = iterator.next();
+                Set<String> absentKeys = absentTypes.getOrDefault(type.getKey(), Collections.emptySet());
+                int before = type.getValue().size();
+                type.getValue().removeIf(key -> absentKeys.contains(key) && !cached.test(type.getKey(), key));
+                removed[0] += before - type.getValue().size();
+                if(type.getValue().isEmpty()) {
+                    iterator.remove();
+                }
+            }
+            return types.isEmpty() ? null : types;
+        }));
+        return removed[0];
+    }
+
+    /**
+     * Returns the number of tags.
+     * @return the number of tags
+     */
+    public int size() {
+        return index.size();
+    }
+}
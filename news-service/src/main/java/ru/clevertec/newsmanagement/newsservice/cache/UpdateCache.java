@@ -12,4 +12,23 @@ public @interface UpdateCache {
     String key();
 
     Class<?> type();
+
+    /**
+     * The SpEL expressions of the tags of the cached value, e.g. "'news:' + #news", evicted together
+     * by {@link EvictCache.Scope#TAG}. The result of the method is available as "#result".
+     */
+    String[] tags() default {};
+
+    /**
+     * If true, the method runs in the background and the call returns at once with the value of {@link #value()},
+     * which is cached until the method completes. The exceptions of the method do not reach the caller,
+     * a failed write only drops the cached value, so the methods checking access should not be written behind.
+     */
+    boolean writeBehind() default false;
+
+    /**
+     * The SpEL expression of the value returned and cached before a write behind completes, referencing
+     * the parameters of the method and the current cached value as "#result", or empty to return null.
+     */
+    String value() default "";
 }
@@ -0,0 +1,65 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import com.google.protobuf.MessageLite;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * This interface defines the weight of a cached value, used by the cache lists to keep their total weight
+ * under a budget.
+ * @author Dayanch
+ */
+@FunctionalInterface
+public interface Weigher {
+
+    /**
+     * Every value weighs one, so the total weight is the number of caches.
+     */
+    Weigher SINGLETON = value -> 1;
+
+    /**
+     * A protobuf message weighs its serialized size in bytes, a collection such as a cached page weighs
+     * the sum of its elements, any other value weighs one.
+     * The serialized size is memoized by the message, so a value is measured only once.
+     * A cache also weighs the bytes of its value rendered as a response body.
+     */
+    Weigher SERIALIZED_SIZE = new Weigher() {
+
+        @Override
+        public int weigh(Object value) {
+            if(value instanceof Collection<?> values) {
+                int weight = 0;
+                for (Object element : values) {
+                    weight += element instanceof MessageLite message ? message.getSerializedSize() : 1;
+                }
+                return Math.max(1, weight);
+            }
+            return value instanceof MessageLite message ? message.getSerializedSize() : 1;
+        }
+
+        @Override
+        public int weigh(Cache cache) {
+            Object value = cache.getValue();
+            RenderedResponse rendered = cache.getRendered();
+            int weight = weigh(value);
+            return Objects.nonNull(rendered) && rendered.source() == value ? weight + rendered.size() : weight;
+        }
+    };
+
+    /**
+     * Returns the weight of the given value.
+     * @param value the cached value
+     * @return the non-negative weight of the value
+     */
+    int weigh(Object value);
+
+    /**
+     * Returns the weight of the given cache, by default the weight of its value.
+     * @param cache the cache added to a list
+     * @return the non-negative weight of the cache
+     */
+    default int weigh(Cache cache) {
+        return weigh(cache.getValue());
+    }
+}
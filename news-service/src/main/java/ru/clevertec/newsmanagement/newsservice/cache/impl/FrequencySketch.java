@@ -0,0 +1,102 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+/**
+ * A count-min sketch estimating how often the keys were used, the admission filter of {@link TinyLfuCacheList}.
+ * Every key is counted in four 4-bit counters, sixteen counters packed in a long, and its frequency is
+ * the smallest of them, so the estimate may be too high but never too low, and never exceeds 15.
+ * When ten times the capacity of the list was counted, all counters are halved, so the history ages
+ * and keys popular long ago do not keep their place forever.
+ * @author Dayanch
+ */
+public class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+
+    /**
+     * The number of counted uses since the last aging.
+     */
+    private int additions;
+
+    /**
+     * Creates a sketch for a list of the given capacity.
+     * @param capacity the maximum number of entries of the list
+     */
+    public FrequencySketch(int capacity) {
+        int maximum = Math.max(capacity, 1);
+        table = new long[Math.max(Integer.highestOneBit(maximum - 1) << 1, 8)];
+        tableMask = table.length - 1;
+        sampleSize = 10 * maximum;
+    }
+
+    /**
+     * Returns the estimated number of uses of the key with the given hash code.
+     * @param hashCode the hash code of the key
+     * @return the estimated frequency, from 0 to 15
+     */
+    public int frequency(int hashCode) {
+        int hash = spread(hashCode);
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long slot = indexOf(hash, i);
+            frequency = Math.min(frequency, count(slot));
+        }
+        return frequency;
+    }
+
+    /**
+     * Counts a use of the key with the given hash code, aging the sketch once the sample is complete.
+     * @param hashCode the hash code of the key
+     */
+    public void increment(int hashCode) {
+        int hash = spread(hashCode);
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long slot = indexOf(hash, i);
+            if(count(slot) < MAX_COUNT) {
+                table[(int) (slot >>> 32)] += 1L << ((int) slot << 2);
+                added = true;
+            }
+        }
+        if(added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Halves every counter.
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private int count(long slot) {
+        return (int) (table[(int) (slot >>> 32)] >>> ((int) slot << 2)) & MAX_COUNT;
+    }
+
+    /**
+     * Returns the counter of the given row for the given hash: the index in the table in the high half,
+     * and the position of the counter in the long in the low half.
+     */
+    private long indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return ((long) ((int) h & tableMask) << 32) | ((h >>> 40) & MAX_COUNT);
+    }
+
+    private static int spread(int hashCode) {
+        int h = hashCode;
+        h = ((h >>> 16) ^ h) * 0x45d9f3b;
+        h = ((h >>> 16) ^ h) * 0x45d9f3b;
+        return (h >>> 16) ^ h;
+    }
+}
@@ -0,0 +1,420 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.EvictionListener;
+import ru.clevertec.newsmanagement.newsservice.cache.Weigher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Implementation of CacheList with constant time operations.
+ * Entries are indexed by key in a {@link KeyIndex} and grouped into frequency buckets, one bucket per hit count.
+ * The buckets form a doubly-linked list ordered by count, and every bucket keeps its entries in an intrusive
+ * doubly-linked list from the newest to the oldest one. The evicted entry is the oldest entry of the lowest bucket.
+ * Besides the maximum number of entries the list keeps the total weight of the entries under a budget,
+ * evicting entries until a new one fits.
+ * @author Dayanch
+ */
+public class HashLfuCacheList implements CacheList {
+
+    private final KeyIndex<LfuCache> index;
+    private final int fullSize;
+    private final long fullWeight;
+    private final Weigher weigher;
+    private final EvictionListener listener;
+
+    /**
+     * The current limits of the list, lowered by {@link #scale(double)}.
+     */
+    private int size;
+    private long maxWeight;
+
+    /**
+     * The total weight of the entries.
+     */
+    private long weight;
+
+    /**
+     * The bucket with the lowest count.
+     */
+    private Bucket lowest;
+
+    public HashLfuCacheList(int size) {
+        this(size, Long.MAX_VALUE, Weigher.SINGLETON, EvictionListener.NONE);
+    }
+
+    /**
+     * Creates a list bounded by both the number and the total weight of the entries.
+     * @param size the maximum number of entries
+     * @param maxWeight the maximum total weight of the entries
+     * @param weigher the weigher of the values
+     */
+    public HashLfuCacheList(int size, long maxWeight, Weigher weigher) {
+        this(size, maxWeight, weigher, EvictionListener.NONE);
+    }
+
+    /**
+     * Creates a list bounded by both the number and the total weight of the entries, notifying the given listener
+     * of the evicted entries, including the entries too heavy to be stored.
+     * @param size the maximum number of entries
+     * @param maxWeight the maximum total weight of the entries
+     * @param weigher the weigher of the values
+     * @param listener the listener of the evicted entries
+     */
+    public HashLfuCacheList(int size, long maxWeight, Weigher weigher, EvictionListener listener) {
+        index = new KeyIndex<>();
+        this.fullSize = size;
+        this.fullWeight = maxWeight;
+        this.size = size;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.listener = listener;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Cache add(String key, Object value) {
+        return add(new LfuCache(key, value));
+    }
+
+    /**
+     * {@inheritDoc}
+     * An entry already stored under the same key is replaced.
+     * An entry heavier than the whole budget is returned without being stored.
+     */
+    @Override
+    public Cache add(Cache lfuCache) {
+        LfuCache cache = (LfuCache) lfuCache;
+        LfuCache existing = index.remove(cache.getKey());
+        if(Objects.nonNull(existing)) {
+            unlink(existing);
+        }
+        cache.setWeight(weigher.weigh(cache));
+        if(cache.getWeight() > maxWeight) {
+            listener.onEviction(cache);
+            return cache;
+        }
+        removeLastIfOutSize(cache.getWeight());
+        index.put(cache.getKey(), cache);
+        findBucket(cache).addFirst(cache);
+        weight += cache.getWeight();
+        return cache;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The weight of the cache is updated, and a new value which does not fit into the budget is added
+     * the usual way, evicting other entries.
+     */
+    @Override
+    public Cache replace(String key, Object value) {
+        LfuCache cache = index.get(key);
+        int replaced = weigher.weigh(value);
+        if(Objects.isNull(cache) || weight - cache.getWeight() + replaced > maxWeight) {
+            return add(key, value);
+        }
+        weight += replaced - cache.getWeight();
+        cache.setWeight(replaced);
+        cache.setValue(value);
+        return cache;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Cache> remove(String key) {
+        return unlinked(index.remove(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is found by the id in the primitive index, without building it.
+     */
+    @Override
+    public Optional<Cache> remove(long id) {
+        return unlinked(index.remove(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is found by the ids in the primitive index, without building it.
+     */
+    @Override
+    public Optional<Cache> remove(long first, long second) {
+        return unlinked(index.remove(first, second));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The cache is moved to the bucket of its new count in place.
+     */
+    @Override
+    public Optional<Cache> hit(String key) {
+        return promoted(index.get(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is found by the id in the primitive index, without building it.
+     */
+    @Override
+    public Optional<Cache> hit(long id) {
+        return promoted(index.get(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is found by the ids in the primitive index, without building it.
+     */
+    @Override
+    public Optional<Cache> hit(long first, long second) {
+        return promoted(index.get(first, second));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reweigh(Cache cache) {
+        if(index.get(cache.getKey()) != cache) {
+            return;
+        }
+        int reweighed = weigher.weigh(cache);
+        weight += reweighed - cache.getWeight();
+        cache.setWeight(reweighed);
+        while (Objects.nonNull(lowest) && weight > maxWeight) {
+            evictLast();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Cache> findByKey(String key) {
+        return Optional.ofNullable(index.get(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int removeIf(Predicate<Cache> filter) {
+        List<LfuCache> removed = index.removeIf(filter);
+        for (LfuCache cache : removed) {
+            unlink(cache);
+        }
+        return removed.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Cache> snapshot() {
+        List<Cache> snapshot = new ArrayList<>(index.size());
+        for (Bucket bucket = lowest; Objects.nonNull(bucket); bucket = bucket.next) {
+            for (LfuCache cache = bucket.tail; Objects.nonNull(cache); cache = cache.before) {
+                snapshot.add(cache);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The least frequently used caches are evicted first.
+     */
+    @Override
+    public void scale(double share) {
+        size = Math.max(1, (int) Math.ceil(fullSize * share));
+        maxWeight = fullWeight == Long.MAX_VALUE ? Long.MAX_VALUE : (long) Math.ceil(fullWeight * share);
+        while (Objects.nonNull(lowest) && (index.size() > size || weight > maxWeight)) {
+            evictLast();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long weight() {
+        return weight;
+    }
+
+    /**
+     * Unlinks the given entry removed from the index.
+     * @param cache the removed entry, or null if no entry was removed
+     * @return an optional containing the removed entry
+     */
+    private Optional<Cache> unlinked(LfuCache cache) {
+        if(Objects.isNull(cache)) {
+            return Optional.empty();
+        }
+        unlink(cache);
+        return Optional.of(cache);
+    }
+
+    /**
+     * Hits the given entry and moves it to the bucket of its new count.
+     * @param cache the hit entry, or null if there is none
+     * @return an optional containing the hit entry
+     */
+    private Optional<Cache> promoted(LfuCache cache) {
+        if(Objects.isNull(cache)) {
+            return Optional.empty();
+        }
+        unlink(cache);
+        cache.hit();
+        findBucket(cache).addFirst(cache);
+        weight += cache.getWeight();
+        return Optional.of(cache);
+    }
+
+    /**
+     * Returns the bucket for the count of the given entry, creating and linking it if necessary.
+     * The search starts from the bucket the entry belonged to last time, which is a direct neighbour
+     * of the wanted one after a hit, so the lookup takes constant time.
+     * @param cache the entry to find the bucket for
+     * @return the linked bucket with the count of the given entry
+     */
+    private Bucket findBucket(LfuCache cache) {
+        int count = cache.getCount();
+        Bucket anchor = cache.bucket;
+        while (Objects.nonNull(anchor) && (anchor.isEmpty() || anchor.count > count)) {
+            anchor = anchor.previous;
+        }
+        Bucket next = Objects.isNull(anchor) ? lowest : anchor.next;
+        while (Objects.nonNull(next) && next.count <= count) {
+            anchor = next;
+            next = next.next;
+        }
+        if(Objects.nonNull(anchor) && anchor.count == count) {
+            return anchor;
+        }
+        return linkAfter(anchor, new Bucket(count));
+    }
+
+    /**
+     * Links the given bucket after the anchor, or as the lowest bucket if the anchor is null.
+     * @param anchor the bucket to link after
+     * @param bucket the bucket to link
+     * @return the linked bucket
+     */
+    private Bucket linkAfter(Bucket anchor, Bucket bucket) {
+        bucket.previous = anchor;
+        bucket.next = Objects.isNull(anchor) ? lowest : anchor.next;
+        if(Objects.nonNull(bucket.next)) {
+            bucket.next.previous = bucket;
+        }
+        if(Objects.isNull(anchor)) {
+            lowest = bucket;
+        } else {
+            anchor.next = bucket;
+        }
+        return bucket;
+    }
+
+    /**
+     * Unlinks the given entry from its bucket, and the bucket from the list if it becomes empty.
+     * An unlinked bucket keeps its neighbours, so it still serves as a starting point for {@link #findBucket(LfuCache)}.
+     * @param cache the entry to unlink
+     */
+    private void unlink(LfuCache cache) {
+        Bucket bucket = cache.bucket;
+        bucket.remove(cache);
+        weight -= cache.getWeight();
+        if(bucket.isEmpty()) {
+            if(Objects.isNull(bucket.previous)) {
+                lowest = bucket.next;
+            } else {
+                bucket.previous.next = bucket.next;
+            }
+            if(Objects.nonNull(bucket.next)) {
+                bucket.next.previous = bucket.previous;
+            }
+        }
+    }
+
+    /**
+     * Removes the least frequently used caches while the size of the list is greater than or equal to the maximum size allowed,
+     * or the new cache does not fit into the weight budget. Among the caches with the same count the oldest one is removed.
+     * This method is called when a new cache is added to the list to ensure that the list does not grow beyond its limits.
+     * @param added the weight of the cache being added
+     */
+    private void removeLastIfOutSize(int added) {
+        while (Objects.nonNull(lowest) && (index.size() >= size || weight + added > maxWeight)) {
+            evictLast();
+        }
+    }
+
+    private void evictLast() {
+        LfuCache last = lowest.tail;
+        unlink(last);
+        index.remove(last.getKey());
+        listener.onEviction(last);
+    }
+
+    /**
+     * A group of entries with the same count, linked from the newest to the oldest one.
+     */
+    static final class Bucket {
+
+        private final int count;
+        private LfuCache head;
+        private LfuCache tail;
+        private Bucket previous;
+        private Bucket next;
+
+        private Bucket(int count) {
+            this.count = count;
+        }
+
+        private boolean isEmpty() {
+            return Objects.isNull(head);
+        }
+
+        private void addFirst(LfuCache cache) {
+            cache.bucket = this;
+            cache.before = null;
+            cache.after = head;
+            if(Objects.isNull(head)) {
+                tail = cache;
+            } else {
+                head.before = cache;
+            }
+            head = cache;
+        }
+
+        private void remove(LfuCache cache) {
+            if(Objects.isNull(cache.before)) {
+                head = cache.after;
+            } else {
+                cache.before.after = cache.after;
+            }
+            if(Objects.isNull(cache.after)) {
+                tail = cache.before;
+            } else {
+                cache.after.before = cache.before;
+            }
+            cache.before = null;
+            cache.after = null;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.EvictionListener;
+import ru.clevertec.newsmanagement.newsservice.cache.Weigher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Implementation of CacheList with constant time operations.
+ * Entries are indexed by key in a {@link KeyIndex} and ordered from the most to the least recently used one
+ * by an intrusive doubly-linked list, so the least recently used entry is always the tail of the list.
+ * Besides the maximum number of entries the list keeps the total weight of the entries under a budget,
+ * evicting the least recently used entries until a new one fits.
+ * @author Dayanch
+ */
+public class HashLruCacheList implements CacheList {
+
+    private final KeyIndex<LruCache> index;
+    private final int fullSize;
+    private final long fullWeight;
+    private final Weigher weigher;
+    private final EvictionListener listener;
+
+    /**
+     * The current limits of the list, lowered by {@link #scale(double)}.
+     */
+    private int size;
+    private long maxWeight;
+
+    /**
+     * The total weight of the entries.
+     */
+    private long weight;
+
+    /**
+     * The most recently used entry.
+     */
+    private LruCache head;
+
+    /**
+     * The least recently used entry, the first one to be evicted.
+     */
+    private LruCache tail;
+
+    public HashLruCacheList(int size) {
+        this(size, Long.MAX_VALUE, Weigher.SINGLETON, EvictionListener.NONE);
+    }
+
+    /**
+     * Creates a list bounded by both the number and the total weight of the entries.
+     * @param size the maximum number of entries
+     * @param maxWeight the maximum total weight of the entries
+     * @param weigher the weigher of the values
+     */
+    public HashLruCacheList(int size, long maxWeight, Weigher weigher) {
+        this(size, maxWeight, weigher, EvictionListener.NONE);
+    }
+
+    /**
+     * Creates a list bounded by both the number and the total weight of the entries, notifying the given listener
+     * of the evicted entries, including the entries too heavy to be stored.
+     * @param size the maximum number of entries
+     * @param maxWeight the maximum total weight of the entries
+     * @param weigher the weigher of the values
+     * @param listener the listener of the evicted entries
+     */
+    public HashLruCacheList(int size, long maxWeight, Weigher weigher, EvictionListener listener) {
+        index = new KeyIndex<>();
+        this.fullSize = size;
+        this.fullWeight = maxWeight;
+        this.size = size;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.listener = listener;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Cache add(String key, Object value) {
+        return add(new LruCache(key, value));
+    }
+
+    /**
+     * {@inheritDoc}
+     * An entry already stored under the same key is replaced.
+     * An entry heavier than the whole budget is returned without being stored.
+     */
+    @Override
+    public Cache add(Cache lruCache) {
+        LruCache cache = (LruCache) lruCache;
+        LruCache existing = index.remove(cache.getKey());
+        if(Objects.nonNull(existing)) {
+            unlink(existing);
+        }
+        cache.setWeight(weigher.weigh(cache));
+        if(cache.getWeight() > maxWeight) {
+            listener.onEviction(cache);
+            return cache;
+        }
+        removeLastIfOutSize(cache.getWeight());
+        index.put(cache.getKey(), cache);
+        linkFirst(cache);
+        return cache;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The weight of the cache is updated, and a new value which does not fit into the budget is added
+     * the usual way, evicting other entries.
+     */
+    @Override
+    public Cache replace(String key, Object value) {
+        LruCache cache = index.get(key);
+        int replaced = weigher.weigh(value);
+        if(Objects.isNull(cache) || weight - cache.getWeight() + replaced > maxWeight) {
+            return add(key, value);
+        }
+        weight += replaced - cache.getWeight();
+        cache.setWeight(replaced);
+        cache.setValue(value);
+        return cache;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Cache> remove(String key) {
+        return unlinked(index.remove(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is found by the id in the primitive index, without building it.
+     */
+    @Override
+    public Optional<Cache> remove(long id) {
+        return unlinked(index.remove(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is found by the ids in the primitive index, without building it.
+     */
+    @Override
+    public Optional<Cache> remove(long first, long second) {
+        return unlinked(index.remove(first, second));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The cache is moved to the head of the list in place.
+     */
+    @Override
+    public Optional<Cache> hit(String key) {
+        return promoted(index.get(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is found by the id in the primitive index, without building it.
+     */
+    @Override
+    public Optional<Cache> hit(long id) {
+        return promoted(index.get(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is found by the ids in the primitive index, without building it.
+     */
+    @Override
+    public Optional<Cache> hit(long first, long second) {
+        return promoted(index.get(first, second));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reweigh(Cache cache) {
+        if(index.get(cache.getKey()) != cache) {
+            return;
+        }
+        int reweighed = weigher.weigh(cache);
+        weight += reweighed - cache.getWeight();
+        cache.setWeight(reweighed);
+        while (Objects.nonNull(tail) && weight > maxWeight) {
+            evictLast();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Cache> findByKey(String key) {
+        return Optional.ofNullable(index.get(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int removeIf(Predicate<Cache> filter) {
+        List<LruCache> removed = index.removeIf(filter);
+        for (LruCache cache : removed) {
+            unlink(cache);
+        }
+        return removed.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Cache> snapshot() {
+        List<Cache> snapshot = new ArrayList<>(index.size());
+        for (LruCache cache = tail; Objects.nonNull(cache); cache = cache.before) {
+            snapshot.add(cache);
+        }
+        return snapshot;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The least recently used caches are evicted first.
+     */
+    @Override
+    public void scale(double share) {
+        size = Math.max(1, (int) Math.ceil(fullSize * share));
+        maxWeight = fullWeight == Long.MAX_VALUE ? Long.MAX_VALUE : (long) Math.ceil(fullWeight * share);
+        while (Objects.nonNull(tail) && (index.size() > size || weight > maxWeight)) {
+            evictLast();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long weight() {
+        return weight;
+    }
+
+    /**
+     * Unlinks the given entry removed from the index.
+     * @param cache the removed entry, or null if no entry was removed
+     * @return an optional containing the removed entry
+     */
+    private Optional<Cache> unlinked(LruCache cache) {
+        if(Objects.isNull(cache)) {
+            return Optional.empty();
+        }
+        unlink(cache);
+        return Optional.of(cache);
+    }
+
+    /**
+     * Hits the given entry and moves it to the head of the list.
+     * @param cache the hit entry, or null if there is none
+     * @return an optional containing the hit entry
+     */
+    private Optional<Cache> promoted(LruCache cache) {
+        if(Objects.isNull(cache)) {
+            return Optional.empty();
+        }
+        cache.hit();
+        unlink(cache);
+        linkFirst(cache);
+        return Optional.of(cache);
+    }
+
+    /**
+     * Links the given entry as the head of the list.
+     * @param cache the entry to link
+     */
+    private void linkFirst(LruCache cache) {
+        cache.before = null;
+        cache.after = head;
+        if(Objects.isNull(head)) {
+            tail = cache;
+        } else {
+            head.before = cache;
+        }
+        head = cache;
+        weight += cache.getWeight();
+    }
+
+    /**
+     * Unlinks the given entry from the list, leaving the index untouched.
+     * @param cache the entry to unlink
+     */
+    private void unlink(LruCache cache) {
+        LruCache before = cache.before;
+        LruCache after = cache.after;
+        if(Objects.isNull(before)) {
+            head = after;
+        } else {
+            before.after = after;
+        }
+        if(Objects.isNull(after)) {
+            tail = before;
+        } else {
+            after.before = before;
+        }
+        cache.before = null;
+        cache.after = null;
+        weight -= cache.getWeight();
+    }
+
+    /**
+     * Removes the least recently used caches while the size of the list is greater than or equal to the maximum size allowed,
+     * or the new cache does not fit into the weight budget.
+     * This method is called when a new cache is added to the list to ensure that the list does not grow beyond its limits.
+     * @param added the weight of the cache being added
+     */
+    private void removeLastIfOutSize(int added) {
+        while (Objects.nonNull(tail) && (index.size() >= size || weight + added > maxWeight)) {
+            evictLast();
+        }
+    }
+
+    private void evictLast() {
+        LruCache last = tail;
+        unlink(last);
+        index.remove(last.getKey());
+        listener.onEviction(last);
+    }
+}
@@ -0,0 +1,296 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * The index of the entries of a cache list by key. The numeric keys, a single id or a pair of ids (see {@link NumericKey}),
+ * are kept in open-addressing tables of primitive longs, so they are found by the ids without building the key string
+ * and cost no map node per entry; the other keys are kept in a hash map.
+ * Like the lists using it, the index is not thread-safe.
+ * @param <V> the type of the entries
+ * @author Dayanch
+ */
+class KeyIndex<V extends Cache> {
+
+    private final Map<String, V> strings = new HashMap<>();
+    private final LongTable<V> singles = new LongTable<>();
+    private final LongTable<V> pairs = new LongTable<>();
+
+    /**
+     * The ids of the last parsed key.
+     */
+    private long first;
+    private long second;
+
+    /**
+     * Returns the entry with the given key.
+     * @param key the key
+     * @return the entry, or null if there is none
+     */
+    V get(String key) {
+        return switch (parse(key)) {
+            case 1 -> singles.get(first, 0);
+            case 2 -> pairs.get(first, second);
+            default -> strings.get(key);
+        };
+    }
+
+    /**
+     * Returns the entry with the key of the given id.
+     * @param id the id
+     * @return the entry, or null if there is none
+     */
+    V get(long id) {
+        return NumericKey.fits(id) ? singles.get(id, 0) : strings.get(Long.toString(id));
+    }
+
+    /**
+     * Returns the entry with the key of the given pair of ids.
+     * @param first the first id
+     * @param second the second id
+     * @return the entry, or null if there is none
+     */
+    V get(long first, long second) {
+        return NumericKey.fits(first) && NumericKey.fits(second)
+                ? pairs.get(first, second)
+                : strings.get(first + "," + second);
+    }
+
+    /**
+     * Puts the given entry under the given key.
+     * @param key the key
+     * @param value the entry
+     * @return the entry previously under the key, or null if there was none
+     */
+    V put(String key, V value) {
+        return switch (parse(key)) {
+            case 1 -> singles.put(first, 0, value);
+            case 2 -> pairs.put(first, second, value);
+            default -> strings.put(key, value);
+        };
+    }
+
+    /**
+     * Removes the entry with the given key.
+     * @param key the key
+     * @return the removed entry, or null if there was none
+     */
+    V remove(String key) {
+        return switch (parse(key)) {
+            case 1 -> singles.remove(first, 0);
+            case 2 -> pairs.remove(first, second);
+            default -> strings.remove(key);
+        };
+    }
+
+    /**
+     * Removes the entry with the key of the given id.
+     * @param id the id
+     * @return the removed entry, or null if there was none
+     */
+    V remove(long id) {
+        return NumericKey.fits(id) ? singles.remove(id, 0) : strings.remove(Long.toString(id));
+    }
+
+    /**
+     * Removes the entry with the key of the given pair of ids.
+     * @param first the first id
+     * @param second the second id
+     * @return the removed entry, or null if there was none
+     */
+    V remove(long first, long second) {
+        return NumericKey.fits(first) && NumericKey.fits(second)
+                ? pairs.remove(first, second)
+                : strings.remove(first + "," + second);
+    }
+
+    /**
+     * Removes the entries matching the given filter.
+     * @param filter the filter of the entries to remove
+     * @return the removed entries
+     */
+    List<V> removeIf(Predicate<? super V> filter) {
+        List<V> removed = new ArrayList<>();
+        Iterator<V> iterator = strings.values().iterator();
+        while (iterator.hasNext()) {
+            V value = iterator.next();
+            if(filter.test(value)) {
+                iterator.remove();
+                removed.add(value);
+            }
+        }
+        singles.removeIf(filter, removed);
+        pairs.removeIf(filter, removed);
+        return removed;
+    }
+
+    /**
+     * Returns the number of entries.
+     * @return the number of entries
+     */
+    int size() {
+        return strings.size() + singles.size + pairs.size;
+    }
+
+    /**
+     * Parses the given key into {@link #first} and {@link #second}.
+     * @param key the key
+     * @return the number of ids in the key, or 0 if it is not a numeric key
+     */
+    private int parse(String key) {
+        int comma = key.indexOf(',');
+        if(comma < 0) {
+            if(!NumericKey.isId(key, 0, key.length())) {
+                return 0;
+            }
+            first = Long.parseLong(key);
+            return 1;
+        }
+        if(key.indexOf(',', comma + 1) >= 0
+                || !NumericKey.isId(key, 0, comma) || !NumericKey.isId(key, comma + 1, key.length())) {
+            return 0;
+        }
+        first = Long.parseLong(key, 0, comma, 10);
+        second = Long.parseLong(key, comma + 1, key.length(), 10);
+        return 2;
+    }
+
+    /**
+     * An open-addressing hash table with linear probing, keyed by a pair of longs.
+     * Removed entries are not marked, the following entries of the probe sequence are shifted back instead.
+     * @param <V> the type of the entries
+     */
+    private static final class LongTable<V> {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private long[] firsts = new long[INITIAL_CAPACITY];
+        private long[] seconds = new long[INITIAL_CAPACITY];
+        private Object[] values = new Object[INITIAL_CAPACITY];
+        private int size;
+
+        private V get(long first, long second) {
+            int slot = find(first, second);
+            return slot < 0 ? null : value(slot);
+        }
+
+        private V put(long first, long second, V value) {
+            int slot = find(first, second);
+            if(slot >= 0) {
+                V previous = value(slot);
+                values[slot] = value;
+                return previous;
+            }
+            if(2 * (size + 1) > values.length) {
+                resize(2 * values.length);
+            }
+            insert(first, second, value);
+            size++;
+            return null;
+        }
+
+        private V remove(long first, long second) {
+            int slot = find(first, second);
+            if(slot < 0) {
+                return null;
+            }
+            V removed = value(slot);
+            delete(slot);
+            return removed;
+        }
+
+        /**
+         * Removes the entries matching the given filter, after the whole table is tested,
+         * as removing an entry may move the following ones.
+         */
+        private void removeIf(Predicate<? super V> filter, List<V> removed) {
+            long[] keys = new long[2 * size];
+            int count = 0;
+            for (int slot = 0; slot < values.length; slot++) {
+                if(Objects.nonNull(values[slot]) && filter.test(value(slot))) {
+                    keys[2 * count] = firsts[slot];
+                    keys[2 * count + 1] = seconds[slot];
+                    count++;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                removed.add(remove(keys[2 * i], keys[2 * i + 1]));
+            }
+        }
+
+        private int find(long first, long second) {
+            int mask = values.length - 1;
+            for (int slot = slotOf(first, second, mask); Objects.nonNull(values[slot]); slot = (slot + 1) & mask) {
+                if(firsts[slot] == first && seconds[slot] == second) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private void insert(long first, long second, Object value) {
+            int mask = values.length - 1;
+            int slot = slotOf(first, second, mask);
+            while (Objects.nonNull(values[slot])) {
+                slot = (slot + 1) & mask;
+            }
+            firsts[slot] = first;
+            seconds[slot] = second;
+            values[slot] = value;
+        }
+
+        /**
+         * Empties the given slot, moving back the following entries which could not be placed before it.
+         */
+        private void delete(int slot) {
+            int mask = values.length - 1;
+            int hole = slot;
+            values[hole] = null;
+            size--;
+            for (int next = (hole + 1) & mask; Objects.nonNull(values[next]); next = (next + 1) & mask) {
+                int home = slotOf(firsts[next], seconds[next], mask);
+                if(((next - home) & mask) >= ((next - hole) & mask)) {
+                    firsts[hole] = firsts[next];
+                    seconds[hole] = seconds[next];
+                    values[hole] = values[next];
+                    values[next] = null;
+                    hole = next;
+                }
+            }
+        }
+
+        private void resize(int capacity) {
+            long[] oldFirsts = firsts;
+            long[] oldSeconds = seconds;
+            Object[] oldValues = values;
+            firsts = new long[capacity];
+            seconds = new long[capacity];
+            values = new Object[capacity];
+            for (int slot = 0; slot < oldValues.length; slot++) {
+                if(Objects.nonNull(oldValues[slot])) {
+                    insert(oldFirsts[slot], oldSeconds[slot], oldValues[slot]);
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private V value(int slot) {
+            return (V) values[slot];
+        }
+
+        private static int slotOf(long first, long second, int mask) {
+            long h = first * 0x9E3779B97F4A7C15L + second;
+            h ^= h >>> 32;
+            h *= 0xBF58476D1CE4E5B9L;
+            return (int) (h ^ (h >>> 29)) & mask;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package ru.clevertec.newsmanagement.newsservice.cache.impl;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 import ru.clevertec.newsmanagement.newsservice.cache.Cache;
 
@@ -8,8 +10,30 @@ import ru.clevertec.newsmanagement.newsservice.cache.Cache;
 @Getter
 public class LfuCache extends Cache implements Comparable<LfuCache> {
 
+    /**
+     * The number of hits. Set directly only when the cache is restored, before it is added to a list.
+     */
+    @Setter
     private int count;
 
+    /**
+     * The neighbour entries inside the frequency bucket of {@link HashLfuCacheList}.
+     */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    LfuCache before;
+
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    LfuCache after;
+
+    /**
+     * The frequency bucket the entry belongs (or belonged last time) to.
+     */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    HashLfuCacheList.Bucket bucket;
+
     public LfuCache(String key, Object value) {
         super(key,value);
         count = 1;
@@ -1,5 +1,6 @@
 package ru.clevertec.newsmanagement.newsservice.cache.impl;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.ToString;
 import ru.clevertec.newsmanagement.newsservice.cache.Cache;
@@ -12,6 +13,17 @@ public class LruCache extends Cache implements Comparable<LruCache> {
 
     private long lastAccessedTime;
 
+    /**
+     * The neighbour entries of the intrusive list of {@link HashLruCacheList}.
+     */
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    LruCache before;
+
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    LruCache after;
+
     public LruCache(String key, Object value) {
         super(key,value);
         lastAccessedTime = System.currentTimeMillis();
@@ -3,8 +3,12 @@ package ru.clevertec.newsmanagement.newsservice.cache.impl;
 import ru.clevertec.newsmanagement.newsservice.cache.Cache;
 import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
  * Implementation of CacheList.
@@ -58,6 +62,43 @@ public class LruCacheList implements CacheList {
                 .findFirst();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int removeIf(Predicate<Cache> filter) {
+        int before = caches.size();
+        caches.removeIf(filter);
+        return before - caches.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Cache> snapshot() {
+        List<Cache> snapshot = new ArrayList<>(caches);
+        Collections.reverse(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return caches.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The caches are not weighed, so the weight is the number of caches.
+     */
+    @Override
+    public long weight() {
+        return caches.size();
+    }
+
     /**
      * Removes the last cache in the list if the size of the list is greater than or equal to the maximum size allowed.
      * This method is called when a new cache is added to the list to ensure that the list does not grow beyond the maximum size.
@@ -0,0 +1,86 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * This class works with the numeric keys of the caches: a single id, such as "42", or a pair of ids, such as "1,42",
+ * written the way {@link Long#toString(long)} writes them. Such keys are indexed by their values, so they are looked up
+ * without building the key string. The ids are limited to 18 digits, the longer ones are kept as strings.
+ * @author Dayanch
+ */
+@UtilityClass
+class NumericKey {
+
+    private static final long MAX_ID = 999_999_999_999_999_999L;
+    private static final int MAX_DIGITS = 18;
+
+    /**
+     * Checks if the given id is indexed by its value.
+     * @param id the id
+     * @return true if the id has at most 18 digits
+     */
+    boolean fits(long id) {
+        return id >= -MAX_ID && id <= MAX_ID;
+    }
+
+    /**
+     * Returns the hash code of the key of the given id, equal to the hash code of its string.
+     * @param id the id, which {@link #fits(long)}
+     * @return the hash code of the key
+     */
+    int hash(long id) {
+        return append(0, id);
+    }
+
+    /**
+     * Returns the hash code of the key of the given pair of ids, equal to the hash code of its string.
+     * @param first the first id, which {@link #fits(long)}
+     * @param second the second id, which {@link #fits(long)}
+     * @return the hash code of the key
+     */
+    int hash(long first, long second) {
+        return append(31 * append(0, first) + ',', second);
+    }
+
+    /**
+     * Checks if the given part of the key is an id written by {@link Long#toString(long)} with at most 18 digits.
+     * @param key the key
+     * @param begin the first character of the id
+     * @param end the character following the id
+     * @return true if the part is such an id
+     */
+    boolean isId(String key, int begin, int end) {
+        int start = begin < end && key.charAt(begin) == '-' ? begin + 1 : begin;
+        int digits = end - start;
+        if(digits < 1 || digits > MAX_DIGITS || key.charAt(start) == '0' && (digits > 1 || start > begin)) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = key.charAt(i);
+            if(c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Continues the string hash code with the characters of the given id.
+     */
+    private int append(int hash, long id) {
+        int h = hash;
+        long value = id;
+        if(value < 0) {
+            h = 31 * h + '-';
+            value = -value;
+        }
+        long divisor = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            h = 31 * h + (char) ('0' + value / divisor % 10);
+        }
+        return h;
+    }
+}
@@ -0,0 +1,360 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * Off-heap storage of serialized protobuf caches, the second tier behind a heap cache list.
+ * The serialized values are appended to direct byte buffers of a fixed size, the slabs, which are filled one by one
+ * in a ring. When the ring is full, the oldest slab is recycled together with all the caches written to it,
+ * so the eviction is first-in first-out by slab. Only the key index stays on the heap, and the values
+ * are deserialized on every read.
+ * @author Dayanch
+ */
+public class OffHeapTier {
+
+    private final ByteBuffer[] slabs;
+    private final List<List<String>> keys;
+    private final int slabSize;
+    private final Parser<? extends MessageLite> parser;
+    private final BiFunction<String, Object, Cache> factory;
+    private final Map<String, Slot> index = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The slab being written and the write position in it.
+     */
+    private int active;
+    private int position;
+
+    /**
+     * The number of bytes taken by the stored caches.
+     */
+    private long used;
+
+    /**
+     * Creates an off-heap tier. The slabs are allocated on the first write to them.
+     * @param capacity the maximum number of bytes of all slabs
+     * @param slabSize the wanted size of a slab, reduced to have at least two slabs
+     * @param parser the parser of the stored values
+     * @param factory creates the restored caches by key and value
+     */
+    public OffHeapTier(long capacity, int slabSize, Parser<? extends MessageLite> parser,
+                       BiFunction<String, Object, Cache> factory) {
+        this.slabSize = (int) Math.min(slabSize, Math.max(1, capacity / 2));
+        int count = (int) Math.min(Integer.MAX_VALUE, Math.max(2, capacity / this.slabSize));
+        this.slabs = new ByteBuffer[count];
+        this.keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add(new ArrayList<>());
+        }
+        this.parser = parser;
+        this.factory = factory;
+    }
+
+    /**
+     * Stores the given cache, replacing the cache stored under the same key.
+     * Values which are not protobuf messages or do not fit into a slab are not stored.
+     * @param cache the cache evicted from the heap
+     */
+    public void demote(Cache cache) {
+        if(!(cache.getValue() instanceof MessageLite message)) {
+            return;
+        }
+        byte[] bytes = message.toByteArray();
+        if(bytes.length > slabSize) {
+            return;
+        }
+        lock.lock();
+        try {
+            drop(index.remove(cache.getKey()));
+            if(position + bytes.length > slabSize) {
+                recycleNext();
+            }
+            slab(active).put(position, bytes);
+            index.put(cache.getKey(), new Slot(active, position, bytes.length, cache.getWriteTime(),
+                    cache.getExpireAfterWrite(), cache.getRefreshAfterWrite()));
+            keys.get(active).add(cache.getKey());
+            position += bytes.length;
+            used += bytes.length;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the cache with the given key from the tier, if it exists.
+     * @param key the key of the cache to remove
+     * @return an optional containing the restored cache, or an empty optional if no cache was removed
+     */
+    public Optional<Cache> remove(String key) {
+        Slot slot;
+        byte[] bytes;
+        lock.lock();
+        try {
+            slot = index.remove(key);
+            if(Objects.isNull(slot)) {
+                return Optional.empty();
+            }
+            drop(slot);
+            bytes = read(slot);
+        } finally {
+            lock.unlock();
+        }
+        return Optional.of(restore(key, slot, bytes));
+    }
+
+    /**
+     * Searches the tier for a cache with the given key.
+     * @param key the key to search for
+     * @return an optional containing the restored cache, or an empty optional if no such cache exists
+     */
+    public Optional<Cache> findByKey(String key) {
+        Slot slot;
+        byte[] bytes;
+        lock.lock();
+        try {
+            slot = index.get(key);
+            if(Objects.isNull(slot)) {
+                return Optional.empty();
+            }
+            bytes = read(slot);
+        } finally {
+            lock.unlock();
+        }
+        return Optional.of(restore(key, slot, bytes));
+    }
+
+    /**
+     * Checks if the tier stores a cache with the given key.
+     * @param key the key to search for
+     * @return true if the tier stores a cache with the given key
+     */
+    public boolean containsKey(String key) {
+        lock.lock();
+        try {
+            return index.containsKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the cache with the given key from the tier without restoring it.
+     * @param key the key of the cache to remove
+     */
+    public void discard(String key) {
+        lock.lock();
+        try {
+            drop(index.remove(key));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all caches matching the given filter from the tier. Every cache is restored to be tested,
+     * without holding the lock of the tier, so the writes wait only for the read of a single cache.
+     * @param filter the filter of the caches to remove
+     * @return the number of removed caches
+     */
+    public int removeIf(Predicate<Cache> filter) {
+        List<Map.Entry<String, Slot>> entries;
+        lock.lock();
+        try {
+            entries = index.entrySet().stream().map(entry -> Map.entry(entry.getKey(), entry.getValue())).toList();
+        } finally {
+            lock.unlock();
+        }
+        int removed = 0;
+        for (Map.Entry<String, Slot> entry : entries) {
+            byte[] bytes;
+            lock.lock();
+            try {
+                if(index.get(entry.getKey()) != entry.getValue()) {
+                    continue;
+                }
+                bytes = read(entry.getValue());
+            } finally {
+                lock.unlock();
+            }
+            if(filter.test(restore(entry.getKey(), entry.getValue(), bytes))) {
+                lock.lock();
+                try {
+                    if(index.get(entry.getKey()) == entry.getValue()) {
+                        index.remove(entry.getKey());
+                        drop(entry.getValue());
+                        removed++;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the caches expired at the given time from the tier. The expiration is kept with the place
+     * of every cache, so no cache is read or restored.
+     * @param now the current time in {@link System#nanoTime()} units
+     * @return the number of removed caches
+     */
+    public int removeExpired(long now) {
+        int removed = 0;
+        lock.lock();
+        try {
+            Iterator<Slot> iterator = index.values().iterator();
+            while (iterator.hasNext()) {
+                Slot slot = iterator.next();
+                if(slot.isExpired(now)) {
+                    iterator.remove();
+                    drop(slot);
+                    removed++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the restored caches of the tier, from the oldest to the newest slab.
+     * @return the caches of the tier
+     */
+    public List<Cache> snapshot() {
+        List<Cache> snapshot = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        lock.lock();
+        try {
+            for (int i = 1; i <= slabs.length; i++) {
+                int slab = (active + i) % slabs.length;
+                for (String key : keys.get(slab)) {
+                    Slot slot = index.get(key);
+                    if(Objects.nonNull(slot) && slot.slab() == slab && seen.add(key)) {
+                        snapshot.add(restore(key, slot, read(slot)));
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the number of stored caches.
+     * @return the number of stored caches
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes taken by the stored caches.
+     * @return the number of used bytes
+     */
+    public long used() {
+        lock.lock();
+        try {
+            return used;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the writing to the next slab of the ring, dropping the caches written to it before.
+     */
+    private void recycleNext() {
+        active = (active + 1) % slabs.length;
+        position = 0;
+        List<String> written = keys.get(active);
+        for (String key : written) {
+            Slot slot = index.get(key);
+            if(Objects.nonNull(slot) && slot.slab() == active) {
+                index.remove(key);
+                drop(slot);
+            }
+        }
+        written.clear();
+    }
+
+    /**
+     * Returns the slab with the given index, allocating it if necessary.
+     * @param slab the index of the slab
+     * @return the slab
+     */
+    private ByteBuffer slab(int slab) {
+        if(Objects.isNull(slabs[slab])) {
+            slabs[slab] = ByteBuffer.allocateDirect(slabSize);
+        }
+        return slabs[slab];
+    }
+
+    /**
+     * Accounts the removal of the given slot from the index. The bytes stay in the slab until it is recycled.
+     * @param slot the removed slot, or null
+     */
+    private void drop(Slot slot) {
+        if(Objects.nonNull(slot)) {
+            used -= slot.length();
+        }
+    }
+
+    private byte[] read(Slot slot) {
+        byte[] bytes = new byte[slot.length()];
+        slabs[slot.slab()].get(slot.offset(), bytes);
+        return bytes;
+    }
+
+    /**
+     * Deserializes the given bytes into a cache with the write time and the periods of the demoted cache.
+     * @param key the key of the cache
+     * @param slot the slot of the cache
+     * @param bytes the serialized value
+     * @return the restored cache
+     */
+    private Cache restore(String key, Slot slot, byte[] bytes) {
+        try {
+            Cache cache = factory.apply(key, parser.parseFrom(bytes));
+            cache.setWriteTime(slot.writeTime());
+            cache.expireAfter(slot.expireAfterWrite(), slot.refreshAfterWrite());
+            return cache;
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException("Corrupted off-heap cache " + key, e);
+        }
+    }
+
+    /**
+     * The place of a stored cache and the metadata of the demoted cache.
+     */
+    private record Slot(int slab, int offset, int length, long writeTime, long expireAfterWrite, long refreshAfterWrite) {
+
+        boolean isExpired(long now) {
+            return expireAfterWrite > 0 && now - writeTime >= expireAfterWrite;
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Implementation of CacheList whose underlying cache list can be replaced while it is in use, e.g. by a list
+ * of another type or size. The caches of the replaced list are then migrated into the new one while the traffic
+ * continues: until the migration ends a cache is looked up in both lists, and a cache hit in the replaced list
+ * is moved to the new list. The caches are adapted to the type of the new list by its adapter.
+ * Outside of a migration a change costs two volatile reads more than the change of the underlying list.
+ * A change that finds a migration running, or a replacement made while it ran, is repeated on both lists
+ * under the lock of its key, which the migration of the key holds too, so a migrated cache never undoes a later change.
+ * The removals by filter run on both lists under the locks of all keys while a migration runs, so they wait
+ * for the migration of a single cache at most, not for the whole migration.
+ * @author Dayanch
+ */
+public class ReconfigurableCacheList implements CacheList {
+
+    private static final int LOCKS = 64;
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCKS];
+
+    /**
+     * The current cache list together with the adapter of the caches added to it.
+     */
+    private volatile Target target;
+
+    /**
+     * The replaced cache list while its caches are migrated, otherwise null.
+     * Set before the target is replaced, so a change which reads the new target always sees it.
+     */
+    private volatile CacheList previous;
+
+    /**
+     * The share of the limits of the underlying list, given by {@link #scale(double)}.
+     */
+    private double share = 1;
+
+    /**
+     * Creates a reconfigurable cache list.
+     * @param list the underlying cache list
+     * @param adapter converts a cache of another type to the type of the caches of the list
+     */
+    public ReconfigurableCacheList(CacheList list, UnaryOperator<Cache> adapter) {
+        this.target = new Target(list, adapter);
+        for (int i = 0; i < LOCKS; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the current underlying cache list.
+     * @return the current cache list
+     */
+    public CacheList getList() {
+        return target.list();
+    }
+
+    /**
+     * Replaces the underlying cache list by the given one and migrates the caches of the replaced list into it
+     * in the calling thread. The caches are added in the order of their eviction, so a smaller list keeps
+     * the caches its policy values most. The new list is scaled by the current share first.
+     * The expired caches and the caches already added to the new list are dropped.
+     * @param list the new cache list
+     * @param adapter converts a cache of another type to the type of the caches of the new list
+     * @return the number of migrated caches
+     */
+    public synchronized int migrate(CacheList list, UnaryOperator<Cache> adapter) {
+        if(share < 1) {
+            list.scale(share);
+        }
+        CacheList replaced = target.list();
+        previous = replaced;
+        target = new Target(list, adapter);
+        int migrated = 0;
+        try {
+            long now = System.nanoTime();
+            for (Cache cache : replaced.snapshot()) {
+                ReentrantLock lock = lockOf(cache.getKey());
+                lock.lock();
+                try {
+                    Optional<Cache> moved = replaced.remove(cache.getKey());
+                    if(moved.isPresent() && !moved.get().isExpired(now) && !list.containsKey(cache.getKey())) {
+                        list.add(adapter.apply(moved.get()));
+                        migrated++;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } finally {
+            previous = null;
+        }
+        return migrated;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Cache add(String key, Object value) {
+        Target current = target;
+        if(Objects.isNull(previous)) {
+            Cache cache = current.list().add(key, value);
+            if(current == target) {
+                return cache;
+            }
+        }
+        ReentrantLock lock = lockOf(key);
+        lock.lock();
+        try {
+            discard(key);
+            return target.list().add(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * A cache of another type than the caches of the current list is adapted first.
+     */
+    @Override
+    public Cache add(Cache cache) {
+        Target current = target;
+        if(Objects.isNull(previous)) {
+            Cache added = current.list().add(current.adapter().apply(cache));
+            if(current == target) {
+                return added;
+            }
+        }
+        ReentrantLock lock = lockOf(cache.getKey());
+        lock.lock();
+        try {
+            discard(cache.getKey());
+            Target latest = target;
+            latest.list().remove(cache.getKey());
+            return latest.list().add(latest.adapter().apply(cache));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Cache replace(String key, Object value) {
+        Target current = target;
+        if(Objects.isNull(previous)) {
+            Cache cache = current.list().replace(key, value);
+            if(current == target) {
+                return cache;
+            }
+        }
+        ReentrantLock lock = lockOf(key);
+        lock.lock();
+        try {
+            discard(key);
+            return target.list().replace(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * A cache removed from the replaced list is returned in its old type.
+     */
+    @Override
+    public Optional<Cache> remove(String key) {
+        Target current = target;
+        if(Objects.isNull(previous)) {
+            Optional<Cache> cache = current.list().remove(key);
+            if(current == target) {
+                return cache;
+            }
+            return removeLocked(key).or(() -> cache);
+        }
+        return removeLocked(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Cache> remove(long id) {
+        Target current = target;
+        if(Objects.isNull(previous)) {
+            Optional<Cache> cache = current.list().remove(id);
+            if(current == target) {
+                return cache;
+            }
+            return removeLocked(Long.toString(id)).or(() -> cache);
+        }
+        return removeLocked(Long.toString(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Cache> remove(long first, long second) {
+        Target current = target;
+        if(Objects.isNull(previous)) {
+            Optional<Cache> cache = current.list().remove(first, second);
+            if(current == target) {
+                return cache;
+            }
+            return removeLocked(first + "," + second).or(() -> cache);
+        }
+        return removeLocked(first + "," + second);
+    }
+
+    /**
+     * {@inheritDoc}
+     * A cache not migrated yet is moved from the replaced list to the current one under the lock of its key.
+     */
+    @Override
+    public Optional<Cache> hit(String key) {
+        Target current = target;
+        if(Objects.isNull(previous)) {
+            Optional<Cache> cache = current.list().hit(key);
+            if(current == target) {
+                return cache;
+            }
+        }
+        return hitLocked(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Cache> hit(long id) {
+        Target current = target;
+        if(Objects.isNull(previous)) {
+            Optional<Cache> cache = current.list().hit(id);
+            if(current == target) {
+                return cache;
+            }
+        }
+        return hitLocked(Long.toString(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Cache> hit(long first, long second) {
+        Target current = target;
+        if(Objects.isNull(previous)) {
+            Optional<Cache> cache = current.list().hit(first, second);
+            if(current == target) {
+                return cache;
+            }
+        }
+        return hitLocked(first + "," + second);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Both lists are asked during a migration, only the one holding the cache weighs it.
+     */
+    @Override
+    public void reweigh(Cache cache) {
+        target.list().reweigh(cache);
+        CacheList replaced = previous;
+        if(Objects.nonNull(replaced)) {
+            replaced.reweigh(cache);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * A cache not migrated yet is found in the replaced list.
+     */
+    @Override
+    public Optional<Cache> findByKey(String key) {
+        Optional<Cache> cache = target.list().findByKey(key);
+        CacheList replaced = previous;
+        return cache.isPresent() || Objects.isNull(replaced) ? cache : replaced.findByKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(String key) {
+        if(target.list().containsKey(key)) {
+            return true;
+        }
+        CacheList replaced = previous;
+        return Objects.nonNull(replaced) && replaced.containsKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     * A filter which finds a migration running, or a replacement made while it ran, is repeated on both lists.
+     */
+    @Override
+    public int removeIf(Predicate<Cache> filter) {
+        return removeAll(list -> list.removeIf(filter));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Repeated on both lists like {@link #removeIf(Predicate)}.
+     */
+    @Override
+    public int removeExpired(long now) {
+        return removeAll(list -> list.removeExpired(now));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The caches not migrated yet go first.
+     */
+    @Override
+    public List<Cache> snapshot() {
+        CacheList replaced = previous;
+        List<Cache> snapshot = new ArrayList<>();
+        if(Objects.nonNull(replaced)) {
+            snapshot.addAll(replaced.snapshot());
+        }
+        snapshot.addAll(target.list().snapshot());
+        return snapshot;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The share is kept for the lists replacing the current one. Waits for a running migration.
+     */
+    @Override
+    public synchronized void scale(double share) {
+        this.share = share;
+        target.list().scale(share);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Both lists are counted during a migration.
+     */
+    @Override
+    public int size() {
+        CacheList replaced = previous;
+        return target.list().size() + (Objects.isNull(replaced) ? 0 : replaced.size());
+    }
+
+    /**
+     * {@inheritDoc}
+     * Both lists are weighed during a migration.
+     */
+    @Override
+    public long weight() {
+        CacheList replaced = previous;
+        return target.list().weight() + (Objects.isNull(replaced) ? 0 : replaced.weight());
+    }
+
+    /**
+     * Removes the cache with the given key from both lists under the lock of the key.
+     */
+    private Optional<Cache> removeLocked(String key) {
+        ReentrantLock lock = lockOf(key);
+        lock.lock();
+        try {
+            Optional<Cache> cache = target.list().remove(key);
+            Optional<Cache> replaced = discard(key);
+            return cache.isPresent() ? cache : replaced;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hits the cache with the given key in the current list under the lock of the key,
+     * or moves it there from the replaced list if it is not migrated yet.
+     */
+    private Optional<Cache> hitLocked(String key) {
+        ReentrantLock lock = lockOf(key);
+        lock.lock();
+        try {
+            Target latest = target;
+            Optional<Cache> cache = latest.list().hit(key);
+            if(cache.isPresent()) {
+                return cache;
+            }
+            Optional<Cache> moved = discard(key);
+            if(moved.isEmpty()) {
+                return moved;
+            }
+            moved.get().hit();
+            return Optional.of(latest.list().add(latest.adapter().apply(moved.get())));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the given removal on the current list, or on both lists if a migration is running or ran meanwhile.
+     * @param removal removes caches from a list and returns their number
+     * @return the number of removed caches
+     */
+    private int removeAll(ToIntFunction<CacheList> removal) {
+        Target current = target;
+        if(Objects.isNull(previous)) {
+            int removed = removal.applyAsInt(current.list());
+            if(current == target) {
+                return removed;
+            }
+            return removed + removeAllLocked(removal);
+        }
+        return removeAllLocked(removal);
+    }
+
+    /**
+     * Runs the given removal on both lists under the locks of all keys,
+     * so no cache is moved between the lists while they are filtered.
+     */
+    private int removeAllLocked(ToIntFunction<CacheList> removal) {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        try {
+            CacheList replaced = previous;
+            int removed = Objects.isNull(replaced) ? 0 : removal.applyAsInt(replaced);
+            return removed + removal.applyAsInt(target.list());
+        } finally {
+            for (int i = LOCKS - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Removes the cache with the given key from the replaced list, if a migration is running.
+     */
+    private Optional<Cache> discard(String key) {
+        CacheList replaced = previous;
+        return Objects.isNull(replaced) ? Optional.empty() : replaced.remove(key);
+    }
+
+    private ReentrantLock lockOf(String key) {
+        int hash = key.hashCode();
+        return locks[(hash ^ hash >>> 16) & (LOCKS - 1)];
+    }
+
+    /**
+     * A cache list with the adapter of the caches added to it, replaced together.
+     */
+    private record Target(CacheList list, UnaryOperator<Cache> adapter) {
+    }
+}
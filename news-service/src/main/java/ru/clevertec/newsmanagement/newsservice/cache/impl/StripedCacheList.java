@@ -0,0 +1,357 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe implementation of CacheList.
+ * The keys are spread by hash over a power of two number of stripes, every stripe is an independent cache list
+ * guarded by its own lock, so threads working with different stripes never wait for each other.
+ * The maximum size and the weight budget are divided between the stripes, and every stripe evicts by its own policy.
+ * Every stripe holds at least {@value #MIN_STRIPE_SIZE} caches, so a small list stays a single stripe
+ * and evicts in the global order of its policy within the whole budget.
+ * @author Dayanch
+ */
+public class StripedCacheList implements CacheList {
+
+    /**
+     * The minimum maximum size of a single stripe.
+     */
+    static final int MIN_STRIPE_SIZE = 64;
+
+    private final CacheList[] stripes;
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    /**
+     * Creates a striped cache list.
+     * @param stripes the wanted number of stripes, rounded up to a power of two and limited by the size
+     * @param size the maximum size of the whole list
+     * @param factory creates the cache list of a single stripe by its maximum size
+     */
+    public StripedCacheList(int stripes, int size, IntFunction<CacheList> factory) {
+        this(stripes, size, Long.MAX_VALUE, (stripeSize, stripeWeight) -> factory.apply(stripeSize));
+    }
+
+    /**
+     * Creates a striped cache list bounded by both the number and the total weight of the caches.
+     * @param stripes the wanted number of stripes, rounded up to a power of two and limited by the size
+     * @param size the maximum size of the whole list
+     * @param maxWeight the maximum total weight of the whole list, or {@link Long#MAX_VALUE} if it is unbounded
+     * @param factory creates the cache list of a single stripe by its maximum size and weight
+     */
+    public StripedCacheList(int stripes, int size, long maxWeight, StripeFactory factory) {
+        int count = stripeCount(stripes, size);
+        this.stripes = new CacheList[count];
+        this.locks = new ReentrantLock[count];
+        this.mask = count - 1;
+        for (int i = 0; i < count; i++) {
+            long stripeWeight = maxWeight == Long.MAX_VALUE
+                    ? Long.MAX_VALUE
+                    : maxWeight / count + (i < maxWeight % count ? 1 : 0);
+            this.stripes[i] = factory.create(size / count + (i < size % count ? 1 : 0), stripeWeight);
+            this.locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Cache add(String key, Object value) {
+        int stripe = stripeOf(key);
+        locks[stripe].lock();
+        try {
+            return stripes[stripe].add(key, value);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Cache add(Cache cache) {
+        int stripe = stripeOf(cache.getKey());
+        locks[stripe].lock();
+        try {
+            return stripes[stripe].add(cache);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Cache replace(String key, Object value) {
+        int stripe = stripeOf(key);
+        locks[stripe].lock();
+        try {
+            return stripes[stripe].replace(key, value);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Cache> remove(String key) {
+        int stripe = stripeOf(key);
+        locks[stripe].lock();
+        try {
+            return stripes[stripe].remove(key);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The stripe is found by the hash code of the key computed from the id.
+     */
+    @Override
+    public Optional<Cache> remove(long id) {
+        if(!NumericKey.fits(id)) {
+            return remove(Long.toString(id));
+        }
+        int stripe = stripeOf(NumericKey.hash(id));
+        locks[stripe].lock();
+        try {
+            return stripes[stripe].remove(id);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The stripe is found by the hash code of the key computed from the ids.
+     */
+    @Override
+    public Optional<Cache> remove(long first, long second) {
+        if(!NumericKey.fits(first) || !NumericKey.fits(second)) {
+            return remove(first + "," + second);
+        }
+        int stripe = stripeOf(NumericKey.hash(first, second));
+        locks[stripe].lock();
+        try {
+            return stripes[stripe].remove(first, second);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The cache is promoted under the lock of its stripe, so it never leaves the list.
+     */
+    @Override
+    public Optional<Cache> hit(String key) {
+        int stripe = stripeOf(key);
+        locks[stripe].lock();
+        try {
+            return stripes[stripe].hit(key);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The stripe is found by the hash code of the key computed from the id.
+     */
+    @Override
+    public Optional<Cache> hit(long id) {
+        if(!NumericKey.fits(id)) {
+            return hit(Long.toString(id));
+        }
+        int stripe = stripeOf(NumericKey.hash(id));
+        locks[stripe].lock();
+        try {
+            return stripes[stripe].hit(id);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The stripe is found by the hash code of the key computed from the ids.
+     */
+    @Override
+    public Optional<Cache> hit(long first, long second) {
+        if(!NumericKey.fits(first) || !NumericKey.fits(second)) {
+            return hit(first + "," + second);
+        }
+        int stripe = stripeOf(NumericKey.hash(first, second));
+        locks[stripe].lock();
+        try {
+            return stripes[stripe].hit(first, second);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reweigh(Cache cache) {
+        int stripe = stripeOf(cache.getKey());
+        locks[stripe].lock();
+        try {
+            stripes[stripe].reweigh(cache);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Cache> findByKey(String key) {
+        int stripe = stripeOf(key);
+        locks[stripe].lock();
+        try {
+            return stripes[stripe].findByKey(key);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The stripes are processed one by one, so only a single stripe is locked at a time.
+     */
+    @Override
+    public int removeIf(Predicate<Cache> filter) {
+        int removed = 0;
+        for (int stripe = 0; stripe < stripes.length; stripe++) {
+            locks[stripe].lock();
+            try {
+                removed += stripes[stripe].removeIf(filter);
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The stripes are processed one by one, so only a single stripe is locked at a time.
+     */
+    @Override
+    public List<Cache> snapshot() {
+        List<Cache> snapshot = new ArrayList<>();
+        for (int stripe = 0; stripe < stripes.length; stripe++) {
+            locks[stripe].lock();
+            try {
+                snapshot.addAll(stripes[stripe].snapshot());
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Every stripe is scaled under its own lock, one by one.
+     */
+    @Override
+    public void scale(double share) {
+        for (int stripe = 0; stripe < stripes.length; stripe++) {
+            locks[stripe].lock();
+            try {
+                stripes[stripe].scale(share);
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The sizes of the stripes are read without locking, so the result may miss concurrent changes.
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (CacheList stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The weights of the stripes are read without locking, so the result may miss concurrent changes.
+     */
+    @Override
+    public long weight() {
+        long weight = 0;
+        for (CacheList stripe : stripes) {
+            weight += stripe.weight();
+        }
+        return weight;
+    }
+
+    /**
+     * Returns the index of the stripe the given key belongs to.
+     * @param key the key of the cache
+     * @return the index of the stripe
+     */
+    private int stripeOf(String key) {
+        return stripeOf(key.hashCode());
+    }
+
+    /**
+     * Returns the index of the stripe of the key with the given hash code.
+     * @param hash the hash code of the key
+     * @return the index of the stripe
+     */
+    private int stripeOf(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the number of stripes: the wanted number rounded up to a power of two,
+     * but not more than fits the size, so that every stripe holds at least {@value #MIN_STRIPE_SIZE} caches.
+     * @param stripes the wanted number of stripes
+     * @param size the maximum size of the whole list
+     * @return the number of stripes
+     */
+    private static int stripeCount(int stripes, int size) {
+        int wanted = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        return Math.min(wanted, Integer.highestOneBit(Math.max(1, size / MIN_STRIPE_SIZE)));
+    }
+
+    /**
+     * Creates the cache list of a single stripe.
+     */
+    @FunctionalInterface
+    public interface StripeFactory {
+
+        /**
+         * Creates the cache list of a single stripe.
+         * @param size the maximum size of the stripe
+         * @param maxWeight the maximum total weight of the stripe
+         * @return the cache list of the stripe
+         */
+        CacheList create(int size, long maxWeight);
+    }
+}
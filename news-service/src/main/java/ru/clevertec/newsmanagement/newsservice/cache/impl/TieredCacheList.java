@@ -0,0 +1,222 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Implementation of CacheList with two tiers: a heap cache list in front of an off-heap tier.
+ * The caches evicted from the heap are demoted to the off-heap tier by the eviction listener of the heap list,
+ * and a cache found only in the off-heap tier is deserialized and moved back to the heap on the next hit.
+ * @author Dayanch
+ */
+public class TieredCacheList implements CacheList {
+
+    private final CacheList heap;
+    private final OffHeapTier offHeap;
+
+    /**
+     * Creates a tiered cache list.
+     * @param heap the heap cache list, notifying the off-heap tier of its evictions
+     * @param offHeap the off-heap tier
+     */
+    public TieredCacheList(CacheList heap, OffHeapTier offHeap) {
+        this.heap = heap;
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The older copy in the off-heap tier is discarded.
+     */
+    @Override
+    public Cache add(String key, Object value) {
+        offHeap.discard(key);
+        return heap.add(key, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The older copy in the off-heap tier is discarded.
+     */
+    @Override
+    public Cache add(Cache cache) {
+        offHeap.discard(cache.getKey());
+        return heap.add(cache);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The older copy in the off-heap tier is discarded, the new value is kept on the heap.
+     */
+    @Override
+    public Cache replace(String key, Object value) {
+        offHeap.discard(key);
+        return heap.replace(key, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Cache> remove(String key) {
+        Optional<Cache> cache = heap.remove(key);
+        return cache.isPresent() ? cache : offHeap.remove(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is built only if the cache is not found in the heap tier.
+     */
+    @Override
+    public Optional<Cache> remove(long id) {
+        Optional<Cache> cache = heap.remove(id);
+        return cache.isPresent() ? cache : offHeap.remove(Long.toString(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is built only if the cache is not found in the heap tier.
+     */
+    @Override
+    public Optional<Cache> remove(long first, long second) {
+        Optional<Cache> cache = heap.remove(first, second);
+        return cache.isPresent() ? cache : offHeap.remove(first + "," + second);
+    }
+
+    /**
+     * {@inheritDoc}
+     * A cache found only in the off-heap tier is restored and moved to the heap.
+     */
+    @Override
+    public Optional<Cache> hit(String key) {
+        Optional<Cache> cache = heap.hit(key);
+        return cache.isPresent() ? cache : restored(offHeap.remove(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is built only if the cache is not found in the heap tier.
+     */
+    @Override
+    public Optional<Cache> hit(long id) {
+        Optional<Cache> cache = heap.hit(id);
+        return cache.isPresent() ? cache : restored(offHeap.remove(Long.toString(id)));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is built only if the cache is not found in the heap tier.
+     */
+    @Override
+    public Optional<Cache> hit(long first, long second) {
+        Optional<Cache> cache = heap.hit(first, second);
+        return cache.isPresent() ? cache : restored(offHeap.remove(first + "," + second));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Only the heap tier holds the caches which are weighed.
+     */
+    @Override
+    public void reweigh(Cache cache) {
+        heap.reweigh(cache);
+    }
+
+    /**
+     * {@inheritDoc}
+     * A cache found in the off-heap tier is a restored copy, its changes are not stored.
+     */
+    @Override
+    public Optional<Cache> findByKey(String key) {
+        Optional<Cache> cache = heap.findByKey(key);
+        return cache.isPresent() ? cache : offHeap.findByKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The off-heap tier is checked without restoring the cache.
+     */
+    @Override
+    public boolean containsKey(String key) {
+        return heap.containsKey(key) || offHeap.containsKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int removeIf(Predicate<Cache> filter) {
+        return heap.removeIf(filter) + offHeap.removeIf(filter);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The caches of the off-heap tier are not restored.
+     */
+    @Override
+    public int removeExpired(long now) {
+        return heap.removeExpired(now) + offHeap.removeExpired(now);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The caches of the off-heap tier go first, as they were evicted from the heap.
+     */
+    @Override
+    public List<Cache> snapshot() {
+        List<Cache> snapshot = new ArrayList<>(offHeap.snapshot());
+        snapshot.addAll(heap.snapshot());
+        return snapshot;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Only the heap tier is scaled, its evicted caches are demoted to the off-heap tier.
+     */
+    @Override
+    public void scale(double share) {
+        heap.scale(share);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Both tiers are counted.
+     */
+    @Override
+    public int size() {
+        return heap.size() + offHeap.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Only the heap tier is weighed.
+     */
+    @Override
+    public long weight() {
+        return heap.weight();
+    }
+
+    /**
+     * Hits the given cache restored from the off-heap tier and adds it to the heap tier,
+     * unless a newer cache of the key was added to the heap meanwhile, which is hit instead.
+     * @param cache the restored cache, if any
+     * @return the hit cache
+     */
+    private Optional<Cache> restored(Optional<Cache> cache) {
+        if(cache.isEmpty()) {
+            return cache;
+        }
+        Optional<Cache> newer = heap.hit(cache.get().getKey());
+        if(newer.isPresent()) {
+            return newer;
+        }
+        cache.get().hit();
+        heap.add(cache.get());
+        return cache;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+import lombok.ToString;
+
+import java.util.Objects;
+
+/**
+ * An entry of {@link TinyLfuCacheList}, remembering the segment of the list it belongs to,
+ * so an entry removed for a hit and added back is promoted instead of being admitted again.
+ * @author Dayanch
+ */
+@ToString(callSuper = true)
+public class TinyLfuCache extends LruCache {
+
+    /**
+     * The segment of the entry, kept when the entry is unlinked.
+     */
+    @ToString.Exclude
+    TinyLfuCacheList.Segment segment;
+
+    public TinyLfuCache(String key, Object value) {
+        super(key, value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode());
+    }
+}
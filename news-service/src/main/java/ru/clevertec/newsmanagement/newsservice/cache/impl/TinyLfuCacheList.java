@@ -0,0 +1,435 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.EvictionListener;
+import ru.clevertec.newsmanagement.newsservice.cache.Weigher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Implementation of CacheList with the W-TinyLFU policy, resisting both scans and bursts of new keys.
+ * New entries enter a small LRU window, 1% of the list. The entries leaving the window are candidates
+ * for the main segmented LRU: a candidate is admitted only if its key was used more often than the key
+ * of the entry it would evict, as estimated by a {@link FrequencySketch} of the recent uses of all keys,
+ * cached or not. The main list is split into a probation segment, where the admitted entries start,
+ * and a protected segment of 80% of the main list, where the entries used again are promoted;
+ * the entries leaving the protected segment get back on probation.
+ * A hit promotes the entry in place; an entry removed and added back is a use of the entry too and keeps its segment.
+ * Like {@link HashLruCacheList} the list keeps the total weight of the entries under a budget.
+ * @author Dayanch
+ */
+public class TinyLfuCacheList implements CacheList {
+
+    /**
+     * The segments of the list.
+     */
+    enum Segment {WINDOW, PROBATION, PROTECTED}
+
+    private final KeyIndex<TinyLfuCache> index;
+    private final FrequencySketch sketch;
+    private final int fullSize;
+    private final long fullWeight;
+    private final Weigher weigher;
+    private final EvictionListener listener;
+
+    /**
+     * The current limits of the segments and of the weight, lowered by {@link #scale(double)}.
+     */
+    private int windowSize;
+    private int mainSize;
+    private int protectedSize;
+    private long maxWeight;
+
+    private final Queue window = new Queue();
+    private final Queue probation = new Queue();
+    private final Queue protectedQueue = new Queue();
+
+    public TinyLfuCacheList(int size) {
+        this(size, Long.MAX_VALUE, Weigher.SINGLETON, EvictionListener.NONE);
+    }
+
+    /**
+     * Creates a list bounded by both the number and the total weight of the entries, notifying the given listener
+     * of the evicted entries, including the entries too heavy to be stored and the rejected candidates.
+     * @param size the maximum number of entries
+     * @param maxWeight the maximum total weight of the entries
+     * @param weigher the weigher of the values
+     * @param listener the listener of the evicted entries
+     */
+    public TinyLfuCacheList(int size, long maxWeight, Weigher weigher, EvictionListener listener) {
+        index = new KeyIndex<>();
+        sketch = new FrequencySketch(size);
+        this.fullSize = size;
+        this.fullWeight = maxWeight;
+        this.maxWeight = maxWeight;
+        resize(size);
+        this.weigher = weigher;
+        this.listener = listener;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Cache add(String key, Object value) {
+        return add(new TinyLfuCache(key, value));
+    }
+
+    /**
+     * {@inheritDoc}
+     * An entry already stored under the same key is replaced, taking its segment.
+     * An entry heavier than the whole budget is returned without being stored.
+     */
+    @Override
+    public Cache add(Cache tinyLfuCache) {
+        TinyLfuCache cache = (TinyLfuCache) tinyLfuCache;
+        TinyLfuCache existing = index.remove(cache.getKey());
+        if(Objects.nonNull(existing)) {
+            queueOf(existing).unlink(existing);
+            if(Objects.isNull(cache.segment)) {
+                cache.segment = existing.segment;
+            }
+        }
+        sketch.increment(cache.getKey().hashCode());
+        cache.setWeight(weigher.weigh(cache));
+        if(cache.getWeight() > maxWeight) {
+            listener.onEviction(cache);
+            return cache;
+        }
+        index.put(cache.getKey(), cache);
+        if(Objects.isNull(cache.segment) || cache.segment == Segment.WINDOW) {
+            cache.segment = Segment.WINDOW;
+            window.linkFirst(cache);
+        } else {
+            cache.segment = Segment.PROTECTED;
+            protectedQueue.linkFirst(cache);
+            demoteProtected();
+        }
+        evict();
+        return cache;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The weight of the cache is updated, and a new value which does not fit into the budget is added
+     * the usual way, evicting other entries.
+     */
+    @Override
+    public Cache replace(String key, Object value) {
+        TinyLfuCache cache = index.get(key);
+        int replaced = weigher.weigh(value);
+        if(Objects.isNull(cache) || weight() - cache.getWeight() + replaced > maxWeight) {
+            return add(key, value);
+        }
+        Queue queue = queueOf(cache);
+        queue.weight += replaced - cache.getWeight();
+        cache.setWeight(replaced);
+        cache.setValue(value);
+        return cache;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Cache> remove(String key) {
+        return unlinked(index.remove(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is found by the id in the primitive index, without building it.
+     */
+    @Override
+    public Optional<Cache> remove(long id) {
+        return unlinked(index.remove(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is found by the ids in the primitive index, without building it.
+     */
+    @Override
+    public Optional<Cache> remove(long first, long second) {
+        return unlinked(index.remove(first, second));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The cache is promoted in place: to the head of the window, or to the protected segment from the main list.
+     */
+    @Override
+    public Optional<Cache> hit(String key) {
+        return promoted(index.get(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is found by the id in the primitive index, without building it.
+     */
+    @Override
+    public Optional<Cache> hit(long id) {
+        return promoted(index.get(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is found by the ids in the primitive index, without building it.
+     */
+    @Override
+    public Optional<Cache> hit(long first, long second) {
+        return promoted(index.get(first, second));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reweigh(Cache cache) {
+        TinyLfuCache held = index.get(cache.getKey());
+        if(held != cache) {
+            return;
+        }
+        int reweighed = weigher.weigh(cache);
+        queueOf(held).weight += reweighed - cache.getWeight();
+        cache.setWeight(reweighed);
+        evict();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Cache> findByKey(String key) {
+        return Optional.ofNullable(index.get(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int removeIf(Predicate<Cache> filter) {
+        List<TinyLfuCache> removed = index.removeIf(filter);
+        for (TinyLfuCache cache : removed) {
+            queueOf(cache).unlink(cache);
+        }
+        return removed.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The entries on probation come first, then the window, then the protected entries.
+     */
+    @Override
+    public List<Cache> snapshot() {
+        List<Cache> snapshot = new ArrayList<>(index.size());
+        probation.addTo(snapshot);
+        window.addTo(snapshot);
+        protectedQueue.addTo(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The segments shrink in proportion: the main list evicts from probation first,
+     * the window moves its entries to the main list through the admission.
+     * The frequency sketch keeps its size, so the frequencies survive the shrinking.
+     */
+    @Override
+    public void scale(double share) {
+        resize(Math.max(1, (int) Math.ceil(fullSize * share)));
+        maxWeight = fullWeight == Long.MAX_VALUE ? Long.MAX_VALUE : (long) Math.ceil(fullWeight * share);
+        while (probation.size + protectedQueue.size > mainSize) {
+            evict(Objects.nonNull(probation.tail) ? probation.tail : protectedQueue.tail);
+        }
+        demoteProtected();
+        evict();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long weight() {
+        return window.weight + probation.weight + protectedQueue.weight;
+    }
+
+    /**
+     * Unlinks the given entry removed from the index.
+     * @param cache the removed entry, or null if no entry was removed
+     * @return an optional containing the removed entry
+     */
+    private Optional<Cache> unlinked(TinyLfuCache cache) {
+        if(Objects.isNull(cache)) {
+            return Optional.empty();
+        }
+        queueOf(cache).unlink(cache);
+        return Optional.of(cache);
+    }
+
+    /**
+     * Hits the given entry and promotes it: an entry of the window moves to its head,
+     * an entry of the main list to the head of the protected segment.
+     * @param cache the hit entry, or null if there is none
+     * @return an optional containing the hit entry
+     */
+    private Optional<Cache> promoted(TinyLfuCache cache) {
+        if(Objects.isNull(cache)) {
+            return Optional.empty();
+        }
+        cache.hit();
+        sketch.increment(cache.getKey().hashCode());
+        queueOf(cache).unlink(cache);
+        if(cache.segment == Segment.WINDOW) {
+            window.linkFirst(cache);
+        } else {
+            cache.segment = Segment.PROTECTED;
+            protectedQueue.linkFirst(cache);
+            demoteProtected();
+        }
+        return Optional.of(cache);
+    }
+
+    /**
+     * Returns the estimated number of recent uses of the given key.
+     * @param key the key
+     * @return the estimated frequency, from 0 to 15
+     */
+    public int frequency(String key) {
+        return sketch.frequency(key.hashCode());
+    }
+
+    private Queue queueOf(TinyLfuCache cache) {
+        return switch (cache.segment) {
+            case WINDOW -> window;
+            case PROBATION -> probation;
+            case PROTECTED -> protectedQueue;
+        };
+    }
+
+    /**
+     * Divides the given size between the window, of 1%, and the main list, of which 80% is protected.
+     * A list of a single entry has no window, so every new entry goes through the admission,
+     * and a main list of more than one entry keeps at least one entry both protected and on probation.
+     */
+    private void resize(int size) {
+        windowSize = size < 2 ? 0 : Math.max(1, size / 100);
+        mainSize = Math.max(0, size - windowSize);
+        protectedSize = Math.max(0, Math.min(mainSize - 1, Math.max(1, mainSize * 80 / 100)));
+    }
+
+    /**
+     * Moves the least recently used protected entries on probation while the protected segment is too large.
+     */
+    private void demoteProtected() {
+        while (protectedQueue.size > protectedSize) {
+            TinyLfuCache demoted = protectedQueue.tail;
+            protectedQueue.unlink(demoted);
+            demoted.segment = Segment.PROBATION;
+            probation.linkFirst(demoted);
+        }
+    }
+
+    /**
+     * Moves the entries leaving the window to the main list, evicting either the candidate or the victim
+     * of the main list, whichever was used less often, while the main list is too large.
+     * Then evicts the entries on probation, in the window and protected, in this order,
+     * while the list is over the weight budget.
+     */
+    private void evict() {
+        while (window.size > windowSize) {
+            TinyLfuCache candidate = window.tail;
+            window.unlink(candidate);
+            candidate.segment = Segment.PROBATION;
+            if(probation.size + protectedQueue.size < mainSize) {
+                probation.linkFirst(candidate);
+                continue;
+            }
+            TinyLfuCache victim = Objects.nonNull(probation.tail) ? probation.tail : protectedQueue.tail;
+            if(Objects.isNull(victim)
+                    || sketch.frequency(candidate.getKey().hashCode()) <= sketch.frequency(victim.getKey().hashCode())) {
+                index.remove(candidate.getKey());
+                listener.onEviction(candidate);
+                continue;
+            }
+            evict(victim);
+            probation.linkFirst(candidate);
+        }
+        while (weight() > maxWeight) {
+            TinyLfuCache victim = Objects.nonNull(probation.tail) ? probation.tail
+                    : Objects.nonNull(window.tail) ? window.tail : protectedQueue.tail;
+            evict(victim);
+        }
+    }
+
+    private void evict(TinyLfuCache victim) {
+        queueOf(victim).unlink(victim);
+        index.remove(victim.getKey());
+        listener.onEviction(victim);
+    }
+
+    /**
+     * An intrusive doubly-linked list of the entries of a segment, from the most to the least recently used one.
+     */
+    private static final class Queue {
+
+        private TinyLfuCache head;
+        private TinyLfuCache tail;
+        private int size;
+        private long weight;
+
+        private void linkFirst(TinyLfuCache cache) {
+            cache.before = null;
+            cache.after = head;
+            if(Objects.isNull(head)) {
+                tail = cache;
+            } else {
+                head.before = cache;
+            }
+            head = cache;
+            size++;
+            weight += cache.getWeight();
+        }
+
+        private void unlink(TinyLfuCache cache) {
+            TinyLfuCache before = (TinyLfuCache) cache.before;
+            TinyLfuCache after = (TinyLfuCache) cache.after;
+            if(Objects.isNull(before)) {
+                head = after;
+            } else {
+                before.after = after;
+            }
+            if(Objects.isNull(after)) {
+                tail = before;
+            } else {
+                after.before = before;
+            }
+            cache.before = null;
+            cache.after = null;
+            size--;
+            weight -= cache.getWeight();
+        }
+
+        /**
+         * Adds the entries to the given list from the least to the most recently used one.
+         */
+        private void addTo(List<Cache> snapshot) {
+            for (LruCache cache = tail; Objects.nonNull(cache); cache = cache.before) {
+                snapshot.add(cache);
+            }
+        }
+    }
+}
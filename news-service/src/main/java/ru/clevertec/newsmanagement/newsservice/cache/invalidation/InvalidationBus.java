@@ -0,0 +1,182 @@
+package ru.clevertec.newsmanagement.newsservice.cache.invalidation;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheEvictor;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheProperties;
+import ru.clevertec.newsmanagement.newsservice.cache.CustomCacheManager;
+import ru.clevertec.newsmanagement.newsservice.cache.EvictCache;
+import ru.clevertec.newsmanagement.newsservice.cache.NegativeCache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class broadcasts the cache keys invalidated by this instance to the other instances of the service,
+ * and removes the keys invalidated by the other instances from the local caches. An invalidated key is also forgotten
+ * by the {@link NegativeCache}, as its entity may have been created by the other instance.
+ * A scoped eviction, such as the pages holding a news, is broadcast as its scope and repeated by every instance
+ * on its own caches, so the caches of the other instances are evicted even if this one had none of them.
+ * The published keys are collected for the debounce period and sent as a single message, so repeated
+ * invalidations of the same key are sent once; the message is sent earlier when the batch is full.
+ * @author Dayanch
+ */
+@Slf4j
+@Component
+public class InvalidationBus {
+
+    private final String origin = UUID.randomUUID().toString();
+    private final InvalidationTransport transport;
+    private final CustomCacheManager customCacheManager;
+    private final CacheEvictor cacheEvictor;
+    private final NegativeCache negativeCache;
+    private final long debounce;
+    private final int maxBatch;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * The keys waiting to be sent, by the name of the cached class.
+     */
+    private Map<String, Set<String>> pending = new HashMap<>();
+    private Set<InvalidationMessage.Eviction> pendingEvictions = new LinkedHashSet<>();
+    private int pendingCount;
+    private boolean scheduled;
+
+    public InvalidationBus(InvalidationTransport transport, CustomCacheManager customCacheManager,
+                           CacheEvictor cacheEvictor, NegativeCache negativeCache, CacheProperties properties) {
+        this.transport = transport;
+        this.customCacheManager = customCacheManager;
+        this.cacheEvictor = cacheEvictor;
+        this.negativeCache = negativeCache;
+        this.debounce = properties.getInvalidation().getDebounce().toNanos();
+        this.maxBatch = properties.getInvalidation().getMaxBatch();
+        CustomizableThreadFactory threads = new CustomizableThreadFactory("cache-invalidation-bus-");
+        threads.setDaemon(true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threads);
+    }
+
+    @PostConstruct
+    public void start() {
+        transport.start(this::receive);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        flush();
+        transport.stop();
+    }
+
+    /**
+     * Publishes the invalidation of the given key to the other instances.
+     * @param type the cached class
+     * @param key the invalidated key
+     */
+    public void publish(Class<?> type, String key) {
+        boolean added;
+        synchronized (this) {
+            added = pending.computeIfAbsent(type.getName(), t -> new LinkedHashSet<>()).add(key);
+        }
+        schedule(added, key);
+    }
+
+    /**
+     * Publishes the eviction of the caches selected by the given scope to the other instances.
+     * @param type the cached class
+     * @param scope the scope of the removed caches
+     * @param key the key the scope is applied to
+     * @param fieldName the field of the cached elements compared with the key
+     */
+    public void publishEviction(Class<?> type, EvictCache.Scope scope, String key, String fieldName) {
+        InvalidationMessage.Eviction eviction = new InvalidationMessage.Eviction(type.getName(), scope, key, fieldName);
+        boolean added;
+        synchronized (this) {
+            added = pendingEvictions.add(eviction);
+        }
+        schedule(added, eviction);
+    }
+
+    /**
+     * Counts the published invalidation and schedules the sending of the pending ones.
+     * @param added true if the invalidation was not pending yet
+     * @param invalidation the published invalidation, for the log
+     */
+    private void schedule(boolean added, Object invalidation) {
+        boolean schedule;
+        boolean full;
+        synchronized (this) {
+            if(added) {
+                pendingCount++;
+            }
+            schedule = !scheduled;
+            scheduled = true;
+            full = pendingCount >= maxBatch;
+        }
+        try {
+            if(full) {
+                scheduler.execute(this::flush);
+            } else if(schedule) {
+                scheduler.schedule(this::flush, debounce, TimeUnit.NANOSECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            log.debug("Cache invalidation of {} is sent on shutdown", invalidation);
+        }
+    }
+
+    /**
+     * Sends the pending keys and evictions as a single message.
+     */
+    void flush() {
+        Map<String, Set<String>> batch;
+        List<InvalidationMessage.Eviction> evictions;
+        synchronized (this) {
+            batch = pending;
+            evictions = new ArrayList<>(pendingEvictions);
+            pending = new HashMap<>();
+            pendingEvictions = new LinkedHashSet<>();
+            pendingCount = 0;
+            scheduled = false;
+        }
+        if(batch.isEmpty() && evictions.isEmpty()) {
+            return;
+        }
+        try {
+            transport.send(new InvalidationMessage(origin, batch, evictions));
+        } catch (RuntimeException e) {
+            log.warn("Cache invalidation of {} types and {} evictions was not sent", batch.size(), evictions.size(), e);
+        }
+    }
+
+    /**
+     * Removes the keys of the given message from the local caches and from the negative cache,
+     * and repeats its evictions on the local caches, unless this instance sent it.
+     * @param message the received message
+     */
+    void receive(InvalidationMessage message) {
+        if(origin.equals(message.origin())) {
+            return;
+        }
+        message.keys().forEach((type, keys) -> {
+            customCacheManager.findCache(type).ifPresent(cache -> keys.forEach(cache::remove));
+            keys.forEach(key -> negativeCache.forget(type, key));
+        });
+        for (InvalidationMessage.Eviction eviction : message.evictions()) {
+            customCacheManager.getCaches().keySet().stream()
+                    .filter(type -> type.getName().equals(eviction.type()))
+                    .findFirst()
+                    .ifPresent(type -> cacheEvictor.evict(type, eviction.scope(), eviction.key(), eviction.fieldName()));
+        }
+    }
+}
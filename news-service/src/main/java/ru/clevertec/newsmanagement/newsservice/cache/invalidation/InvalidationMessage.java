@@ -0,0 +1,154 @@
+package ru.clevertec.newsmanagement.newsservice.cache.invalidation;
+
+import ru.clevertec.newsmanagement.newsservice.cache.EvictCache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A batch of invalidated cache keys, grouped by the name of the cached class, and of scoped evictions.
+ * A scoped eviction is sent as is, not as the keys it removed here, as every instance caches its own keys.
+ * @param origin the id of the instance which sent the batch
+ * @param keys the invalidated keys by the name of the cached class
+ * @param evictions the scoped evictions
+ * @author Dayanch
+ */
+public record InvalidationMessage(String origin, Map<String, Set<String>> keys, List<Eviction> evictions) {
+
+    /**
+     * The maximum length of a frame in bytes.
+     */
+    public static final int MAX_FRAME = 16 * 1024 * 1024;
+
+    /**
+     * Creates a message of invalidated keys only.
+     * @param origin the id of the instance which sent the batch
+     * @param keys the invalidated keys by the name of the cached class
+     */
+    public InvalidationMessage(String origin, Map<String, Set<String>> keys) {
+        this(origin, keys, List.of());
+    }
+
+    /**
+     * Writes the message as a frame: its length, then the origin, the number of types, every type with its keys,
+     * the number of scoped evictions and every eviction.
+     * @param output the output to write to
+     * @throws IOException if the write fails or the frame is longer than {@link #MAX_FRAME}
+     */
+    public void write(DataOutput output) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream body = new DataOutputStream(bytes);
+        body.writeUTF(origin);
+        body.writeInt(keys.size());
+        for (Map.Entry<String, Set<String>> type : keys.entrySet()) {
+            body.writeUTF(type.getKey());
+            body.writeInt(type.getValue().size());
+            for (String key : type.getValue()) {
+                body.writeUTF(key);
+            }
+        }
+        body.writeInt(evictions.size());
+        for (Eviction eviction : evictions) {
+            body.writeUTF(eviction.type());
+            body.writeUTF(eviction.scope().name());
+            body.writeUTF(eviction.key());
+            body.writeUTF(eviction.fieldName());
+        }
+        if(bytes.size() > MAX_FRAME) {
+            throw new IOException("Cache invalidation frame of " + bytes.size() + " bytes is too long");
+        }
+        output.writeInt(bytes.size());
+        output.write(bytes.toByteArray());
+    }
+
+    /**
+     * Reads a message written by {@link #write(DataOutput)}. The whole frame is read before it is parsed,
+     * so a malformed frame leaves the input at the start of the next one.
+     * @param input the input to read from
+     * @return the read message
+     * @throws IOException if the read fails or the length of the frame is invalid
+     * @throws IllegalArgumentException if the frame is malformed
+     */
+    public static InvalidationMessage read(DataInput input) throws IOException {
+        int length = input.readInt();
+        if(length < 0 || length > MAX_FRAME) {
+            throw new IOException("Invalid cache invalidation frame length " + length);
+        }
+        byte[] frame = new byte[length];
+        input.readFully(frame);
+        try {
+            return parse(new DataInputStream(new ByteArrayInputStream(frame)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed cache invalidation frame", e);
+        }
+    }
+
+    private static InvalidationMessage parse(DataInputStream body) throws IOException {
+        String origin = body.readUTF();
+        int types = readCount(body, 6);
+        Map<String, Set<String>> keys = new HashMap<>(types * 2);
+        for (int i = 0; i < types; i++) {
+            String type = body.readUTF();
+            int count = readCount(body, 2);
+            Set<String> typeKeys = new HashSet<>(count * 2);
+            for (int j = 0; j < count; j++) {
+                typeKeys.add(body.readUTF());
+            }
+            keys.put(type, typeKeys);
+        }
+        int count = readCount(body, 8);
+        List<Eviction> evictions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            evictions.add(new Eviction(body.readUTF(), EvictCache.Scope.valueOf(body.readUTF()),
+                    body.readUTF(), body.readUTF()));
+        }
+        if(body.available() > 0) {
+            throw new IllegalArgumentException("Cache invalidation frame has " + body.available() + " extra bytes");
+        }
+        return new InvalidationMessage(origin, keys, evictions);
+    }
+
+    /**
+     * Reads the number of the following elements, checked against the remaining length of the frame.
+     * @param body the rest of the frame
+     * @param minSize the minimum size of an element in bytes
+     * @return the number of the elements
+     * @throws IOException if the read fails
+     * @throws IllegalArgumentException if the elements cannot fit into the rest of the frame
+     */
+    private static int readCount(DataInputStream body, int minSize) throws IOException {
+        int count = body.readInt();
+        if(count < 0 || count > body.available() / minSize) {
+            throw new IllegalArgumentException("Invalid cache invalidation count " + count);
+        }
+        return count;
+    }
+
+    /**
+     * An eviction of the caches selected by a scope of {@link EvictCache}, repeated by every receiver
+     * on its own caches.
+     * @param type the name of the cached class
+     * @param scope the scope of the removed caches
+     * @param key the key the scope is applied to, empty if not used
+     * @param fieldName the field of the cached elements compared with the key, empty if not used
+     */
+    public record Eviction(String type, EvictCache.Scope scope, String key, String fieldName) {
+
+        public Eviction {
+            key = Objects.requireNonNullElse(key, "");
+            fieldName = Objects.requireNonNullElse(fieldName, "");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ru.clevertec.newsmanagement.newsservice.cache.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * This interface defines the delivery of invalidation messages between the instances of the service.
+ * The delivery is best effort: a lost message leaves a stale cache until it expires.
+ * @author Dayanch
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Starts receiving messages. A transport may deliver the own messages of the instance back to it.
+     * @param receiver the receiver of the messages from the other instances
+     */
+    void start(Consumer<InvalidationMessage> receiver);
+
+    /**
+     * Sends the given message to the other instances.
+     * @param message the message to send
+     */
+    void send(InvalidationMessage message);
+
+    /**
+     * Stops receiving messages and releases the resources of the transport.
+     */
+    void stop();
+}
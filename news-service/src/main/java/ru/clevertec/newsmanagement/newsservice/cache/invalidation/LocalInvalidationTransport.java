@@ -0,0 +1,48 @@
+package ru.clevertec.newsmanagement.newsservice.cache.invalidation;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of InvalidationTransport delivering the messages to the instances running in the same JVM.
+ * It needs no network, so it is the default for a single instance and for tests.
+ * @author Dayanch
+ */
+public class LocalInvalidationTransport implements InvalidationTransport {
+
+    /**
+     * The receivers of all started transports of the JVM.
+     */
+    private static final List<Consumer<InvalidationMessage>> RECEIVERS = new CopyOnWriteArrayList<>();
+
+    private Consumer<InvalidationMessage> receiver;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start(Consumer<InvalidationMessage> receiver) {
+        this.receiver = receiver;
+        RECEIVERS.add(receiver);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void send(InvalidationMessage message) {
+        RECEIVERS.forEach(r -> r.accept(message));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stop() {
+        if(Objects.nonNull(receiver)) {
+            RECEIVERS.remove(receiver);
+        }
+    }
+}
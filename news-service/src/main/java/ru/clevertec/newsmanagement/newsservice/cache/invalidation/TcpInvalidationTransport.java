@@ -0,0 +1,303 @@
+package ru.clevertec.newsmanagement.newsservice.cache.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of InvalidationTransport sending the messages over plain TCP connections, with no broker.
+ * Every instance listens on its own address and port and keeps one connection to every peer, opened on the first send
+ * and reopened on the next send after a failure. The messages are framed by {@link InvalidationMessage#write}.
+ * Every peer is sent to by its own thread from a bounded queue, and a write taking longer than the write timeout
+ * closes the connection, so a slow or unreachable peer delays neither the caller nor the other peers.
+ * The failed and the dropped messages are logged and counted by the "cache.invalidation.failures" counter.
+ * Only the connections from the hosts of the registered peers are accepted, and a malformed frame is dropped
+ * without closing the connection.
+ * @author Dayanch
+ */
+@Slf4j
+public class TcpInvalidationTransport implements InvalidationTransport {
+
+    private static final int CONNECT_TIMEOUT = 1000;
+    private static final int WRITE_TIMEOUT = 1000;
+
+    /**
+     * The number of messages waiting to be sent to a single peer; further messages to the peer are dropped.
+     */
+    private static final int QUEUE_CAPACITY = 1000;
+
+    private final String address;
+    private final int port;
+    private final Supplier<Collection<InetSocketAddress>> peers;
+    private final Map<InetSocketAddress, Sender> senders = new HashMap<>();
+    private final Counter failures;
+    private final CustomizableThreadFactory threads;
+
+    /**
+     * Closes the connections of the writes not completed in time.
+     */
+    private final ScheduledExecutorService timeouts;
+
+    /**
+     * The connections accepted from the peers.
+     */
+    private final Set<Socket> accepted = ConcurrentHashMap.newKeySet();
+    private final ExecutorService readers;
+    private ServerSocket server;
+
+    /**
+     * Creates a TCP transport.
+     * @param address the address to listen on
+     * @param port the port to listen on, or 0 for any free port
+     * @param peers supplies the current addresses of the instances, this one included
+     * @param registry the registry of the failure counter
+     */
+    public TcpInvalidationTransport(String address, int port, Supplier<Collection<InetSocketAddress>> peers,
+                                    MeterRegistry registry) {
+        this.address = address;
+        this.port = port;
+        this.peers = peers;
+        this.failures = Counter.builder("cache.invalidation.failures")
+                .description("The cache invalidations not delivered to a peer")
+                .register(registry);
+        this.threads = new CustomizableThreadFactory("cache-invalidation-");
+        threads.setDaemon(true);
+        this.readers = Executors.newCachedThreadPool(threads);
+        this.timeouts = Executors.newSingleThreadScheduledExecutor(threads);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start(Consumer<InvalidationMessage> receiver) {
+        try {
+            server = new ServerSocket();
+            server.bind(new InetSocketAddress(address, port));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot listen for cache invalidations on " + address + ":" + port, e);
+        }
+        readers.execute(() -> accept(receiver));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The message is only queued for every peer. A peer which cannot be reached in time,
+     * or whose queue is full, misses the message.
+     */
+    @Override
+    public synchronized void send(InvalidationMessage message) {
+        Collection<InetSocketAddress> current = peers.get();
+        closeGone(current);
+        for (InetSocketAddress peer : current) {
+            senders.computeIfAbsent(peer, Sender::new).send(message);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void stop() {
+        close(server);
+        readers.shutdownNow();
+        accepted.forEach(this::close);
+        accepted.clear();
+        senders.values().forEach(Sender::stop);
+        senders.clear();
+        timeouts.shutdownNow();
+    }
+
+    /**
+     * Returns the port the transport listens on.
+     * @return the local port, or -1 if the transport is not started
+     */
+    public int getLocalPort() {
+        return Objects.isNull(server) ? -1 : server.getLocalPort();
+    }
+
+    private void accept(Consumer<InvalidationMessage> receiver) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                if(!isPeer(socket.getInetAddress())) {
+                    log.warn("Cache invalidation connection from {} refused, it is not a registered peer",
+                            socket.getRemoteSocketAddress());
+                    close(socket);
+                    continue;
+                }
+                accepted.add(socket);
+                readers.execute(() -> read(socket, receiver));
+            } catch (IOException e) {
+                if(!server.isClosed()) {
+                    log.warn("Accept of a cache invalidation connection failed", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if the given address is the host of a registered peer.
+     * @param remote the address of the connecting host
+     * @return true if a peer is registered on the host
+     */
+    private boolean isPeer(InetAddress remote) {
+        return peers.get().stream()
+                .map(InetSocketAddress::getAddress)
+                .anyMatch(remote::equals);
+    }
+
+    /**
+     * Reads the messages of the given connection until it is closed. A message which is malformed
+     * or fails in the receiver is skipped, as every frame is read whole.
+     */
+    private void read(Socket socket, Consumer<InvalidationMessage> receiver) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    receiver.accept(InvalidationMessage.read(input));
+                } catch (RuntimeException e) {
+                    log.warn("Cache invalidation from {} dropped", socket.getRemoteSocketAddress(), e);
+                }
+            }
+        } catch (EOFException e) {
+            log.debug("Cache invalidation connection from {} closed", socket.getRemoteSocketAddress());
+        } catch (IOException e) {
+            log.debug("Cache invalidation connection from {} failed", socket.getRemoteSocketAddress(), e);
+        } finally {
+            accepted.remove(socket);
+        }
+    }
+
+    /**
+     * Stops the senders to the peers which are no longer registered.
+     * @param current the current peers
+     */
+    private void closeGone(Collection<InetSocketAddress> current) {
+        Iterator<Map.Entry<InetSocketAddress, Sender>> iterator = senders.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<InetSocketAddress, Sender> sender = iterator.next();
+            if(!current.contains(sender.getKey())) {
+                sender.getValue().stop();
+                iterator.remove();
+            }
+        }
+    }
+
+    private void close(AutoCloseable closeable) {
+        if(Objects.isNull(closeable)) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            log.debug("Close of a cache invalidation connection failed", e);
+        }
+    }
+
+    /**
+     * The sender of the messages to a single peer, writing them one by one by its own thread.
+     */
+    private final class Sender {
+
+        private final InetSocketAddress peer;
+        private final ThreadPoolExecutor executor;
+        private volatile Socket socket;
+        private DataOutputStream output;
+
+        private Sender(InetSocketAddress peer) {
+            this.peer = peer;
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(QUEUE_CAPACITY), threads, (task, pool) -> {
+                        if(!pool.isShutdown()) {
+                            failures.increment();
+                            log.warn("Cache invalidation to {} dropped, {} invalidations are waiting", peer, QUEUE_CAPACITY);
+                        }
+                    });
+        }
+
+        private void send(InvalidationMessage message) {
+            executor.execute(() -> write(message));
+        }
+
+        /**
+         * Writes the given message, connecting first if there is no connection.
+         * The connection is closed if the write does not complete within the write timeout.
+         */
+        private void write(InvalidationMessage message) {
+            try {
+                if(Objects.isNull(output)) {
+                    connect();
+                }
+                Socket connection = socket;
+                ScheduledFuture<?> timeout = timeouts.schedule(() -> close(connection), WRITE_TIMEOUT, TimeUnit.MILLISECONDS);
+                try {
+                    message.write(output);
+                    output.flush();
+                } finally {
+                    timeout.cancel(false);
+                }
+            } catch (IOException e) {
+                disconnect();
+                failures.increment();
+                log.warn("Cache invalidation to {} failed", peer, e);
+            }
+        }
+
+        private void connect() throws IOException {
+            Socket connection = new Socket();
+            try {
+                connection.connect(peer, CONNECT_TIMEOUT);
+                connection.setTcpNoDelay(true);
+                output = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+                socket = connection;
+            } catch (IOException e) {
+                connection.close();
+                throw e;
+            }
+        }
+
+        private void disconnect() {
+            close(socket);
+            socket = null;
+            output = null;
+        }
+
+        /**
+         * Drops the waiting messages and closes the connection, failing a write in progress.
+         */
+        private void stop() {
+            executor.shutdownNow();
+            close(socket);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package ru.clevertec.newsmanagement.newsservice.cache.trace;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.clevertec.newsmanagement.newsservice.model.Trace;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A trace of the accesses of the cached values, recorded by {@link AccessTraceRecorder} and replayed by
+ * {@link CacheSimulator}. The trace file is a sequence of length-delimited {@link Trace.TraceEvent} messages:
+ * a header with the sample rate, the definitions of the cached types, and the accesses,
+ * every one holding the time since the previous access, the id of its type and its key.
+ * @author Dayanch
+ */
+@Getter
+@RequiredArgsConstructor
+public class AccessTrace {
+
+    /**
+     * The share of the keys whose accesses were recorded.
+     */
+    private final double sampleRate;
+
+    /**
+     * The recorded accesses, in the order of their time.
+     */
+    private final List<Access> accesses;
+
+    /**
+     * Reads the trace from the given file.
+     * @param path the path of the trace file
+     * @return the trace
+     * @throws IOException if the file cannot be read
+     */
+    public static AccessTrace read(Path path) throws IOException {
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(path))) {
+            double sampleRate = 1;
+            long time = 0;
+            Map<Integer, String> types = new HashMap<>();
+            List<Access> accesses = new ArrayList<>();
+            Trace.TraceEvent event = Trace.TraceEvent.parseDelimitedFrom(input);
+            while (Objects.nonNull(event)) {
+                switch (event.getEventCase()) {
+                    case HEADER -> {
+                        sampleRate = event.getHeader().getSampleRate();
+                        time = event.getHeader().getStartedAt();
+                    }
+                    case TYPE -> types.put(event.getType().getId(), event.getType().getName());
+                    case ACCESS -> {
+                        Trace.TraceAccess access = event.getAccess();
+                        time += access.getDelay();
+                        accesses.add(new Access(time, types.get(access.getType()), access.getKey()));
+                    }
+                    default -> {
+                    }
+                }
+                event = Trace.TraceEvent.parseDelimitedFrom(input);
+            }
+            return new AccessTrace(sampleRate, accesses);
+        }
+    }
+
+    /**
+     * An access of a cached value.
+     * @param timestamp the time of the access, in milliseconds since the epoch
+     * @param type the name of the cached class
+     * @param key the key of the cache
+     */
+    public record Access(long timestamp, String type, String key) {
+    }
+
+    /**
+     * Writes the events of a trace to a stream. The writer is not thread-safe.
+     */
+    public static class Writer implements Closeable {
+
+        private final OutputStream output;
+
+        /**
+         * The ids of the defined types, by the name of the cached class.
+         */
+        private final Map<String, Integer> types = new HashMap<>();
+
+        /**
+         * The time of the previous access.
+         */
+        private long last;
+
+        /**
+         * Creates a writer, writing the header of the trace.
+         * @param output the stream of the trace
+         * @param sampleRate the share of the keys whose accesses are recorded
+         * @param startedAt the time the trace starts, in milliseconds since the epoch
+         * @throws IOException if the header cannot be written
+         */
+        public Writer(OutputStream output, double sampleRate, long startedAt) throws IOException {
+            this.output = output;
+            this.last = startedAt;
+            Trace.TraceEvent.newBuilder()
+                    .setHeader(Trace.TraceHeader.newBuilder().setSampleRate(sampleRate).setStartedAt(startedAt))
+                    .build()
+                    .writeDelimitedTo(output);
+        }
+
+        /**
+         * Writes an access, preceded by the definition of its type on the first access of the type.
+         * @param timestamp the time of the access, in milliseconds since the epoch
+         * @param type the name of the cached class
+         * @param key the key of the cache
+         * @throws IOException if the access cannot be written
+         */
+        public void write(long timestamp, String type, String key) throws IOException {
+            Integer id = types.get(type);
+            if(Objects.isNull(id)) {
+                id = types.size();
+                types.put(type, id);
+                Trace.TraceEvent.newBuilder()
+                        .setType(Trace.TraceType.newBuilder().setId(id).setName(type))
+                        .build()
+                        .writeDelimitedTo(output);
+            }
+            Trace.TraceEvent.newBuilder()
+                    .setAccess(Trace.TraceAccess.newBuilder()
+                            .setDelay(Math.max(0, timestamp - last))
+                            .setType(id)
+                            .setKey(key))
+                    .build()
+                    .writeDelimitedTo(output);
+            last = Math.max(last, timestamp);
+        }
+
+        @Override
+        public void close() throws IOException {
+            output.close();
+        }
+    }
+}
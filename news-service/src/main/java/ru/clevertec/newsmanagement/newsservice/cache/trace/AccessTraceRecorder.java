@@ -0,0 +1,178 @@
+package ru.clevertec.newsmanagement.newsservice.cache.trace;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheProperties;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class records the accesses of the cached values to the trace file, if "cache.trace.enabled" is set.
+ * Only the accesses of a sample of the keys are recorded, chosen by the hash of the key, so a sampled key
+ * has all its accesses in the trace, and a cache of the size scaled down by the sample rate sees the same hit ratio.
+ * The accesses of the keys not sampled cost a hash, and nothing at all while the recording is off.
+ * The sampled accesses are put into a bounded queue and written by a separate thread, so the requests never wait
+ * for the disk; the accesses recorded while the queue is full are dropped and counted.
+ * @author Dayanch
+ */
+@Slf4j
+@Component
+public class AccessTraceRecorder {
+
+    /**
+     * The number of the hash buckets the sample rate is applied to.
+     */
+    private static final int SAMPLE_SPACE = 1 << 24;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long POLL_TIMEOUT = 100;
+    private static final long STOP_TIMEOUT = 5;
+
+    private final CacheProperties.Trace settings;
+    private final int threshold;
+    private final BlockingQueue<Access> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean recording;
+    private AccessTrace.Writer writer;
+    private ExecutorService writerThread;
+
+    public AccessTraceRecorder(CacheProperties properties) {
+        this.settings = properties.getTrace();
+        this.threshold = (int) Math.round(Math.min(1, Math.max(0, settings.getSampleRate())) * SAMPLE_SPACE);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, settings.getQueueCapacity()));
+    }
+
+    /**
+     * Opens the trace file and starts the writing thread, if the recording is enabled. An existing file is replaced.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if(!settings.isEnabled()) {
+            return;
+        }
+        Path path = Path.of(settings.getPath());
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if(Objects.nonNull(parent)) {
+                Files.createDirectories(parent);
+            }
+            writer = new AccessTrace.Writer(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE),
+                    settings.getSampleRate(), System.currentTimeMillis());
+        } catch (IOException e) {
+            log.warn("Access trace {} was not opened", path, e);
+            return;
+        }
+        CustomizableThreadFactory threads = new CustomizableThreadFactory("cache-access-trace-");
+        threads.setDaemon(true);
+        writerThread = Executors.newSingleThreadExecutor(threads);
+        dropped.set(0);
+        recording = true;
+        writerThread.execute(this::drain);
+    }
+
+    /**
+     * Records an access of the cache with the given class and key, if the key is sampled.
+     * The access is dropped if the queue of the accesses is full.
+     * @param type the cached class
+     * @param key the key of the cache
+     */
+    public void record(Class<?> type, String key) {
+        if(!recording || !isSampled(key)) {
+            return;
+        }
+        if(!queue.offer(new Access(System.currentTimeMillis(), type.getName(), key))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Checks if the accesses of the given key are recorded.
+     * @param key the key of the cache
+     * @return true if the key is sampled
+     */
+    public boolean isSampled(String key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return ((hash ^ (hash >>> 16)) & (SAMPLE_SPACE - 1)) < threshold;
+    }
+
+    /**
+     * Returns the number of the accesses dropped because the queue was full since the recording was started.
+     * @return the number of dropped accesses
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops the recording, waits for the queued accesses to be written and closes the trace file.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        recording = false;
+        if(Objects.isNull(writerThread)) {
+            return;
+        }
+        writerThread.shutdown();
+        try {
+            if(!writerThread.awaitTermination(STOP_TIMEOUT, TimeUnit.SECONDS)) {
+                log.warn("Access trace {} was not written in time", settings.getPath());
+                writerThread.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+        if(dropped.get() > 0) {
+            log.info("Access trace {} dropped {} accesses", settings.getPath(), dropped.get());
+        }
+    }
+
+    /**
+     * Writes the queued accesses until the recording stops and the queue is empty, then closes the trace file.
+     * A failed write stops the recording.
+     */
+    private void drain() {
+        try {
+            while (recording || !queue.isEmpty()) {
+                Access access = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                if(Objects.nonNull(access)) {
+                    writer.write(access.timestamp(), access.type(), access.key());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Access trace {} is stopped", settings.getPath(), e);
+            recording = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            queue.clear();
+            close();
+        }
+    }
+
+    private void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Access trace {} was not closed", settings.getPath(), e);
+        }
+    }
+
+    /**
+     * A recorded access waiting to be written.
+     */
+    private record Access(long timestamp, String type, String key) {
+    }
+}
@@ -0,0 +1,132 @@
+package ru.clevertec.newsmanagement.newsservice.cache.trace;
+
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.HashLfuCacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.HashLruCacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.TinyLfuCacheList;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+/**
+ * This class replays an {@link AccessTrace} against cache lists of several policies and sizes, and reports
+ * the hit ratio of every cached type for every policy and size, so the "cache.type" and "cache.size"
+ * of a type can be chosen from the recorded traffic. Every access is looked up the way {@code CacheAspect} does it,
+ * and a miss adds the key. As the trace holds a sample of the keys, a size is simulated by a list scaled down
+ * by the sample rate; the sizes too small for the sample are simulated by a list of a single entry.
+ * The policies are named like the "cache.type" values; any other {@link CacheList} can be compared by its factory.
+ * <p>
+ * Run with the classes of the service on the class path:
+ * {@code java CacheSimulator <trace file> [sizes, e.g. 100,1000] [policies, e.g. lru,lfu,tinylfu]};
+ * the results are printed as CSV.
+ * @author Dayanch
+ */
+public class CacheSimulator {
+
+    /**
+     * The policies of the cache lists created by {@code CustomCacheManager}, by the "cache.type" value.
+     */
+    public static final Map<String, IntFunction<CacheList>> POLICIES = policies();
+
+    /**
+     * The simulated sizes, if no sizes are given.
+     */
+    private static final int[] SIZES = {10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 20000, 50000, 100000};
+
+    private final Map<String, IntFunction<CacheList>> policies;
+
+    public CacheSimulator(Map<String, IntFunction<CacheList>> policies) {
+        this.policies = policies;
+    }
+
+    /**
+     * Replays the accesses of every type of the given trace against every policy and size.
+     * @param trace the access trace
+     * @param sizes the simulated sizes of the cache lists
+     * @return the hit ratios, by type, policy and size
+     */
+    public List<Result> simulate(AccessTrace trace, int[] sizes) {
+        Map<String, List<String>> keys = new LinkedHashMap<>();
+        for (AccessTrace.Access access : trace.getAccesses()) {
+            keys.computeIfAbsent(access.type(), type -> new ArrayList<>()).add(access.key());
+        }
+        List<Result> results = new ArrayList<>();
+        keys.forEach((type, typeKeys) -> policies.forEach((policy, factory) -> {
+            for (int size : sizes) {
+                int scaled = Math.max(1, (int) Math.round(size * trace.getSampleRate()));
+                results.add(new Result(type, policy, size, typeKeys.size(), replay(factory.apply(scaled), typeKeys)));
+            }
+        }));
+        return results;
+    }
+
+    /**
+     * Looks up the given keys in the given list, adding the missing ones.
+     * @param list the cache list
+     * @param keys the accessed keys
+     * @return the share of the hits
+     */
+    static double replay(CacheList list, List<String> keys) {
+        long hits = 0;
+        for (String key : keys) {
+            Optional<Cache> cache = list.remove(key);
+            if(cache.isPresent()) {
+                hits++;
+                cache.get().hit();
+                list.add(cache.get());
+            } else {
+                list.add(key, Boolean.TRUE);
+            }
+        }
+        return keys.isEmpty() ? 0 : (double) hits / keys.size();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length == 0) {
+            System.err.println("Usage: CacheSimulator <trace file> [sizes, e.g. 100,1000] [policies, e.g. lru,lfu,tinylfu]");
+            return;
+        }
+        AccessTrace trace = AccessTrace.read(Path.of(args[0]));
+        int[] sizes = args.length > 1
+                ? Arrays.stream(args[1].split(",")).mapToInt(size -> Integer.parseInt(size.trim())).toArray()
+                : SIZES;
+        Map<String, IntFunction<CacheList>> policies = new LinkedHashMap<>(POLICIES);
+        if(args.length > 2) {
+            policies.keySet().retainAll(Arrays.stream(args[2].split(",")).map(String::trim).toList());
+        }
+        System.out.println("type,policy,size,accesses,hitRatio");
+        for (Result result : new CacheSimulator(policies).simulate(trace, sizes)) {
+            System.out.printf(Locale.ROOT, "%s,%s,%d,%d,%.4f%n", result.type(), result.policy(), result.size(),
+                    result.accesses(), result.hitRatio());
+        }
+    }
+
+    private static Map<String, IntFunction<CacheList>> policies() {
+        Map<String, IntFunction<CacheList>> policies = new LinkedHashMap<>();
+        policies.put("lru", HashLruCacheList::new);
+        policies.put("lfu", HashLfuCacheList::new);
+        policies.put("tinylfu", TinyLfuCacheList::new);
+        return Collections.unmodifiableMap(policies);
+    }
+
+    /**
+     * The hit ratio of a policy and size for a cached type.
+     * @param type the name of the cached class
+     * @param policy the name of the policy
+     * @param size the simulated size
+     * @param accesses the number of the replayed accesses
+     * @param hitRatio the share of the hits
+     */
+    public record Result(String type, String policy, int size, int accesses, double hitRatio) {
+    }
+}
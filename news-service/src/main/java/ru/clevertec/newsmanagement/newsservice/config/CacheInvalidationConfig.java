@@ -0,0 +1,52 @@
+package ru.clevertec.newsmanagement.newsservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheProperties;
+import ru.clevertec.newsmanagement.newsservice.cache.invalidation.InvalidationTransport;
+import ru.clevertec.newsmanagement.newsservice.cache.invalidation.LocalInvalidationTransport;
+import ru.clevertec.newsmanagement.newsservice.cache.invalidation.TcpInvalidationTransport;
+
+import java.net.InetSocketAddress;
+
+/**
+ * This class configures the transport of the cache invalidations between the instances of the service,
+ * selected by the "cache.invalidation.transport" property.
+ * The "tcp" transport finds the peers in the discovery registry by the "cache-invalidation-port" metadata,
+ * and accepts the connections from their hosts only.
+ * @author Dayanch
+ */
+@Configuration
+public class CacheInvalidationConfig {
+
+    /**
+     * The name of the instance metadata holding the port of the "tcp" transport.
+     */
+    public static final String PORT_METADATA = "cache-invalidation-port";
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cache.invalidation", name = "transport", havingValue = "tcp")
+    public InvalidationTransport tcpInvalidationTransport(CacheProperties properties, DiscoveryClient discoveryClient,
+                                                          @Value("${spring.application.name}") String application,
+                                                          MeterRegistry registry) {
+        return new TcpInvalidationTransport(properties.getInvalidation().getAddress(),
+                properties.getInvalidation().getPort(),
+                () -> discoveryClient.getInstances(application).stream()
+                        .filter(instance -> instance.getMetadata().containsKey(PORT_METADATA))
+                        .map(instance -> new InetSocketAddress(instance.getHost(),
+                                Integer.parseInt(instance.getMetadata().get(PORT_METADATA))))
+                        .toList(),
+                registry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(InvalidationTransport.class)
+    public InvalidationTransport localInvalidationTransport() {
+        return new LocalInvalidationTransport();
+    }
+}
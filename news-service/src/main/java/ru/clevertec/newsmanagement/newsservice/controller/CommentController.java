@@ -20,6 +20,8 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheResponse;
+import ru.clevertec.newsmanagement.newsservice.model.CommentPage;
 import ru.clevertec.newsmanagement.newsservice.model.DTO;
 import ru.clevertec.newsmanagement.newsservice.service.CommentService;
 import ru.clevertec.newsmanagement.newsservice.util.QueryParameterUtil;
@@ -56,6 +58,7 @@ public class CommentController {
             responseCode = "200",
             description = "Comments found"
     )
+    @CacheResponse(key = "{#news,#page.pageNumber,#page.pageSize,#page.sort}", type = CommentPage.class, gzip = true)
     public String getNewsComment(@Parameter(description = "News ID")
                                      @PathVariable long news,
                                  @Parameter(description = "Pageable")
@@ -79,6 +82,7 @@ public class CommentController {
             responseCode = "200",
             description = "Comments found"
     )
+    @CacheResponse(key = "{#news,#id}", type = DTO.Comment.class, gzip = true)
     public String getComment(@Parameter(description = "News ID") @PathVariable @Min(1) long news,
                                   @Parameter(description = "Comment ID") @PathVariable @Min(1) long id) {
         return toJson(service.findComments(news,id));
@@ -20,7 +20,9 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheResponse;
 import ru.clevertec.newsmanagement.newsservice.model.DTO;
+import ru.clevertec.newsmanagement.newsservice.model.NewsPage;
 import ru.clevertec.newsmanagement.newsservice.service.NewsService;
 
 import static ru.clevertec.newsmanagement.exceptionservice.util.JsonUtil.toJson;
@@ -53,6 +55,7 @@ public class NewsController {
             responseCode = "200",
             description = "News found"
     )
+    @CacheResponse(key = "{#page.pageNumber,#page.pageSize,#page.sort}", type = NewsPage.class, gzip = true)
     public String findNews(@Parameter(description = "Pageable") @Valid Pageable page) {
         return toJson(service.findNews(page));
     }
@@ -73,6 +76,7 @@ public class NewsController {
             responseCode = "200",
             description = "News found"
     )
+    @CacheResponse(key = "#id", type = DTO.News.class, gzip = true)
     public String findNews(@PathVariable @Min(1) long id) {
         return toJson(service.findNews(id));
     }
@@ -0,0 +1,12 @@
+package ru.clevertec.newsmanagement.newsservice.model;
+
+/**
+ * The cached type of the pages of comments, keyed by "news,page,size,sort". It is never instantiated,
+ * the cached values are the lists of {@link DTO.Comment}.
+ * @author Dayanch
+ */
+public final class CommentPage {
+
+    private CommentPage() {
+    }
+}
@@ -0,0 +1,12 @@
+package ru.clevertec.newsmanagement.newsservice.model;
+
+/**
+ * The cached type of the pages of news, keyed by "page,size,sort". It is never instantiated,
+ * the cached values are the lists of {@link DTO.News}.
+ * @author Dayanch
+ */
+public final class NewsPage {
+
+    private NewsPage() {
+    }
+}
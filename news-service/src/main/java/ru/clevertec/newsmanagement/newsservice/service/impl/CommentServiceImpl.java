@@ -9,10 +9,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.clevertec.newsmanagement.exceptionservice.exception.CustomException;
 import ru.clevertec.newsmanagement.newsservice.cache.DeleteCache;
+import ru.clevertec.newsmanagement.newsservice.cache.EvictCache;
 import ru.clevertec.newsmanagement.newsservice.cache.GetCache;
 import ru.clevertec.newsmanagement.newsservice.cache.PostCache;
 import ru.clevertec.newsmanagement.newsservice.cache.UpdateCache;
 import ru.clevertec.newsmanagement.newsservice.entity.Comment;
+import ru.clevertec.newsmanagement.newsservice.model.CommentPage;
 import ru.clevertec.newsmanagement.newsservice.model.DTO;
 import ru.clevertec.newsmanagement.newsservice.model.UserDTO;
 import ru.clevertec.newsmanagement.newsservice.persistence.CommentRepository;
@@ -53,6 +55,8 @@ public class CommentServiceImpl implements CommentService {
      * {@inheritDoc}
      */
     @Override
+    @GetCache(key = "{#news,#page.pageNumber,#page.pageSize,#page.sort}", type = CommentPage.class,
+            tags = "'news:' + #news", singleFlight = true, expireAfterWrite = 60)
     public List<DTO.Comment> findComments(long news, Pageable page) {
         return repository.findCommentsByNews_Id(news, page)
                 .stream()
@@ -64,7 +68,8 @@ public class CommentServiceImpl implements CommentService {
      * {@inheritDoc}
      */
     @Override
-    @GetCache(key = "{#news,#id}", type = DTO.Comment.class)
+    @GetCache(key = "{#news,#id}", type = DTO.Comment.class, tags = "'news:' + #news",
+            singleFlight = true, negative = true, expireAfterWrite = 600, refreshAfterWrite = 300)
     public DTO.Comment findComments(long news, long id) throws CustomException {
         return mapper.toDTO(findCommentEntity(news,id));
     }
@@ -87,7 +92,8 @@ public class CommentServiceImpl implements CommentService {
      * {@inheritDoc}
      */
     @Override
-    @PostCache(fieldName = "id", type = DTO.Comment.class)
+    @PostCache(key = "{#news,#result.id}", type = DTO.Comment.class, tags = "'news:' + #news")
+    @EvictCache(key = "'news:' + #news", type = CommentPage.class, scope = EvictCache.Scope.TAG)
     public DTO.Comment saveComment(long news, DTO.Comment comment, UserDTO user) throws CustomException {
         return mapper.toDTO(repository.save(setDefaultComment(news, comment, user)));
     }
@@ -97,7 +103,8 @@ public class CommentServiceImpl implements CommentService {
      * {@inheritDoc}
      */
     @Override
-    @UpdateCache(key = "#id", type = DTO.Comment.class)
+    @UpdateCache(key = "{#news,#id}", type = DTO.Comment.class, tags = "'news:' + #news")
+    @EvictCache(key = "'news:' + #news", type = CommentPage.class, scope = EvictCache.Scope.TAG)
     public DTO.Comment updateComment(long news, long id, DTO.Comment comment, UserDTO user) throws CustomException {
         return mapper.toDTO(repository.save(updateCommentField(news,id, comment, user)));
     }
@@ -107,7 +114,8 @@ public class CommentServiceImpl implements CommentService {
      * {@inheritDoc}
      */
     @Override
-    @DeleteCache(key = "#id", type = DTO.Comment.class)
+    @DeleteCache(key = "{#news,#id}", type = DTO.Comment.class)
+    @EvictCache(key = "'news:' + #news", type = CommentPage.class, scope = EvictCache.Scope.TAG)
     public void deleteComment(long id, long news, UserDTO user) throws CustomException {
         findValidEntity(news, id, user);
         repository.deleteById(id);
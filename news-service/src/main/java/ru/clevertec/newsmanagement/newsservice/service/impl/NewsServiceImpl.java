@@ -11,11 +11,14 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.transaction.annotation.Transactional;
 import ru.clevertec.newsmanagement.exceptionservice.exception.CustomException;
 import ru.clevertec.newsmanagement.newsservice.cache.DeleteCache;
+import ru.clevertec.newsmanagement.newsservice.cache.EvictCache;
 import ru.clevertec.newsmanagement.newsservice.cache.GetCache;
 import ru.clevertec.newsmanagement.newsservice.cache.PostCache;
 import ru.clevertec.newsmanagement.newsservice.cache.UpdateCache;
 import ru.clevertec.newsmanagement.newsservice.entity.News;
+import ru.clevertec.newsmanagement.newsservice.model.CommentPage;
 import ru.clevertec.newsmanagement.newsservice.model.DTO;
+import ru.clevertec.newsmanagement.newsservice.model.NewsPage;
 import ru.clevertec.newsmanagement.newsservice.model.UserDTO;
 import ru.clevertec.newsmanagement.newsservice.persistence.NewsRepository;
 import ru.clevertec.newsmanagement.newsservice.service.CommentService;
@@ -57,6 +60,8 @@ public class NewsServiceImpl implements NewsService {
      * {@inheritDoc}
      */
     @Override
+    @GetCache(key = "{#page.pageNumber,#page.pageSize,#page.sort}", type = NewsPage.class, singleFlight = true,
+            expireAfterWrite = 60)
     public List<DTO.News> findNews(Pageable page) {
         return repository.findAll(page)
                 .stream()
@@ -68,7 +73,8 @@ public class NewsServiceImpl implements NewsService {
      * {@inheritDoc}
      */
     @Override
-    @GetCache(key = "#id", type = DTO.News.class)
+    @GetCache(key = "#id", type = DTO.News.class, singleFlight = true, negative = true,
+            expireAfterWrite = 600, refreshAfterWrite = 300)
     public DTO.News findNews(long id) {
         return mapper.toDTO(findNewsEntity(id));
     }
@@ -101,6 +107,7 @@ public class NewsServiceImpl implements NewsService {
      */
     @Override
     @PostCache(fieldName = "id", type = DTO.News.class)
+    @EvictCache(type = NewsPage.class)
     public DTO.News saveNews(DTO.News news, UserDTO user) throws CustomException {
         return mapper.toDTO(repository.save(setDefaultNews(news, user)));
     }
@@ -111,6 +118,7 @@ public class NewsServiceImpl implements NewsService {
      */
     @Override
     @UpdateCache(key = "#id", type = DTO.News.class)
+    @EvictCache(key = "#id", type = NewsPage.class, scope = EvictCache.Scope.CONTAINING)
     public DTO.News updateNews(long id,
                                DTO.News news, UserDTO user) throws CustomException {
         return mapper.toDTO(repository.save(updateNewsField(id, news, user)));
@@ -122,6 +130,9 @@ public class NewsServiceImpl implements NewsService {
      */
     @Override
     @DeleteCache(key = "#id", type = DTO.News.class)
+    @EvictCache(key = "#id", type = NewsPage.class, scope = EvictCache.Scope.FOLLOWING)
+    @EvictCache(key = "'news:' + #id", type = CommentPage.class, scope = EvictCache.Scope.TAG)
+    @EvictCache(key = "'news:' + #id", type = DTO.Comment.class, scope = EvictCache.Scope.TAG)
     @Transactional
     public void deleteNews(long id, UserDTO user) throws CustomException {
         checkBeforeOperation(id, user);
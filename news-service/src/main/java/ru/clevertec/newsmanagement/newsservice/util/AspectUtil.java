@@ -2,34 +2,102 @@ package ru.clevertec.newsmanagement.newsservice.util;
 
 import lombok.experimental.UtilityClass;
 
-import java.lang.reflect.Field;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * This class provides utility methods for aspect-oriented programming.
- * It has a private constant DTO_POSTFIX and a public method getFieldValue.
+ * It has a private constant GETTER_PREFIX and a public method getFieldValue.
  * @author Dayanch
  */
 @UtilityClass
 public class AspectUtil {
 
     /**
-     * A constant string representing the postfix used to identify DTO fields.
+     * A constant string representing the prefix of the public getters of DTO fields.
      */
-    private static final String DTO_POSTFIX = "_";
+    private static final String GETTER_PREFIX = "get";
 
     /**
-     * Returns the value of the field with the given name in the given object, by reflecting on its class.
-     * The field name is expected to have a DTO_POSTFIX appended to it.
+     * The field accessors, by class and field name. Every accessor is a lambda calling the public getter of the field.
+     */
+    private static final ClassValue<Map<String, Function<Object, Object>>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Map<String, Function<Object, Object>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * Returns the value of the field with the given name in the given object, by calling its public getter.
+     * The accessor of the getter is created once per class and field, so no reflection is done after the first call.
      * @param result the object whose field value is to be returned
      * @param field the name of the field whose value is to be returned
      * @return the value of the field with the given name in the given object
-     * @throws NoSuchFieldException if the field with the given name does not exist in the object's class
-     * @throws IllegalAccessException if the field with the given name is not accessible in the object's class
+     * @throws NoSuchFieldException if the object's class has no public getter of the field with the given name
+     * @throws IllegalAccessException if the getter of the field with the given name is not accessible
+     */
+    public String getFieldValue(Object result, String field) throws NoSuchFieldException, IllegalAccessException {
+        Map<String, Function<Object, Object>> accessors = ACCESSORS.get(result.getClass());
+        Function<Object, Object> accessor = accessors.get(field);
+        if(Objects.isNull(accessor)) {
+            accessor = createAccessor(result.getClass(), field);
+            accessors.putIfAbsent(field, accessor);
+        }
+        return String.valueOf(accessor.apply(result));
+    }
+
+    /**
+     * Creates an accessor of the given field, a lambda calling the public getter of the field.
+     * @param type the class declaring the field
+     * @param field the name of the field
+     * @return the accessor of the field
+     * @throws NoSuchFieldException if the class has no public getter of the field
+     * @throws IllegalAccessException if the getter is not accessible
+     */
+    @SuppressWarnings("unchecked")
+    private Function<Object, Object> createAccessor(Class<?> type, String field)
+            throws NoSuchFieldException, IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle getter;
+        try {
+            getter = lookup.unreflect(type.getMethod(getterName(field)));
+        } catch (NoSuchMethodException e) {
+            NoSuchFieldException exception = new NoSuchFieldException(field);
+            exception.initCause(e);
+            throw exception;
+        }
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup,
+                    "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    getter,
+                    MethodType.methodType(getter.type().wrap().returnType(), type));
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        } catch (LambdaConversionException e) {
+            IllegalAccessException exception = new IllegalAccessException(e.getMessage());
+            exception.initCause(e);
+            throw exception;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the name of the public getter of the given field.
+     * @param field the name of the field
+     * @return the name of the getter
      */
-    public String getFieldValue(Object result,String field) throws NoSuchFieldException, IllegalAccessException {
-        Field idField = result.getClass()
-                .getDeclaredField(field + DTO_POSTFIX);
-        idField.setAccessible(true);
-        return idField.get(result).toString();
+    private String getterName(String field) {
+        return GETTER_PREFIX + Character.toUpperCase(field.charAt(0)) + field.substring(1);
     }
 }
@@ -3,23 +3,63 @@ package ru.clevertec.newsmanagement.newsservice.util;
 import lombok.experimental.UtilityClass;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
-import java.util.HashMap;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.IntStream;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * This class provides utility methods for evaluating SpEL expressions.
  * It has a public method getKeyValue that takes a JoinPoint and a String key as input.
  * The method returns the value of the SpEL expression corresponding to the given key, using the
  * arguments of the join point as variables in the SpEL expression evaluation.
+ * Every key is compiled once per method: trivial keys referencing parameters only, such as "#id" or "{#news,#id}",
+ * are read from the arguments directly, other keys are parsed once and evaluated in the SpEL mixed compiler mode.
+ * Keys evaluated after the method execution may also reference its result as "#result".
  * @author Dayanch
  */
 @UtilityClass
 public class SpelExpression {
 
+    /**
+     * A pattern of a key referencing a single parameter, e.g. "#id".
+     */
+    private static final Pattern VARIABLE = Pattern.compile("#([A-Za-z_$][\\w$]*)");
+
+    /**
+     * A pattern of a key listing parameters only, e.g. "{#news,#id}".
+     */
+    private static final Pattern VARIABLE_LIST = Pattern.compile("\\{\\s*#[A-Za-z_$][\\w$]*(\\s*,\\s*#[A-Za-z_$][\\w$]*)*\\s*}");
+
+    /**
+     * The name of the variable holding the result of the method.
+     */
+    private static final String RESULT = "result";
+
+    /**
+     * The separator of the values of a key listing parameters, as SpEL converts an inline list to a string.
+     */
+    private static final String LIST_SEPARATOR = ",";
+
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, SpelExpression.class.getClassLoader()));
+
+    /**
+     * The compiled keys, by method and key.
+     */
+    private static final Map<KeyDefinition, KeyExpression> EXPRESSIONS = new ConcurrentHashMap<>();
+
     /**
      * Returns the value of the SpEL expression corresponding to the given key,
      * using the arguments of the join point as variables in the SpEL expression evaluation.
@@ -28,23 +68,175 @@ public class SpelExpression {
      * @return the value of the SpEL expression corresponding to the given key
      */
     public String getKeyValue(JoinPoint joinPoint, String key) {
-        StandardEvaluationContext context = new StandardEvaluationContext();
-        context.setVariables(getVariableMap(joinPoint));
-        return new SpelExpressionParser().parseExpression(key).getValue(context, String.class);
+        return getKeyValue(joinPoint, key, null);
     }
 
     /**
-     * Returns a map of variable names to their corresponding values in the join point arguments.
+     * Returns the value of the SpEL expression corresponding to the given key,
+     * using the arguments of the join point and the result of the method as variables in the SpEL expression evaluation.
      * @param joinPoint the join point whose arguments are used as variables in SpEL evaluation
-     * @return a map of variable names to their corresponding values in the join point arguments
+     * @param key the SpEL expression key whose value is to be returned
+     * @param result the result of the method, available as "#result", or null
+     * @return the value of the SpEL expression corresponding to the given key
+     */
+    public String getKeyValue(JoinPoint joinPoint, String key, Object result) {
+        return compile(joinPoint, key).evaluate(joinPoint.getArgs(), result);
+    }
+
+    /**
+     * Returns the value of the given SpEL expression without converting it to a string,
+     * using the arguments of the join point and the given result as variables in the SpEL expression evaluation.
+     * @param joinPoint the join point whose arguments are used as variables in SpEL evaluation
+     * @param expression the SpEL expression whose value is to be returned
+     * @param result the value available as "#result", or null
+     * @return the value of the SpEL expression
+     */
+    public Object getValue(JoinPoint joinPoint, String expression, Object result) {
+        return compile(joinPoint, expression).value(joinPoint.getArgs(), result);
+    }
+
+    /**
+     * Returns the key listing the given values, equal to the value of a key listing parameters such as "{#news,#id}"
+     * with these values, so the caches can be put under the keys the methods look them up by.
+     * @param values the values of the listed parameters
+     * @return the key
+     */
+    public String listKey(Object... values) {
+        StringJoiner joiner = new StringJoiner(LIST_SEPARATOR);
+        for (Object value : values) {
+            joiner.add(String.valueOf(value));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Returns the indexes of the parameters of the given key if it consists of one or two {@code Long} parameters,
+     * e.g. "#id" or "{#news,#id}", so the cache can be found by their values without evaluating the key.
+     * The returned array is shared and must not be modified.
+     * @param joinPoint the intercepted join point
+     * @param key the SpEL expression key
+     * @return the indexes of the parameters, or null if the key is of another kind
+     */
+    public int[] getIdParameters(JoinPoint joinPoint, String key) {
+        KeyExpression expression = compile(joinPoint, key);
+        return expression.ids() ? expression.indexes() : null;
+    }
+
+    /**
+     * Returns the compiled key of the method of the given join point.
+     * @param joinPoint the intercepted join point
+     * @param key the SpEL expression key
+     * @return the compiled key
      */
-    private Map<String, Object> getVariableMap(JoinPoint joinPoint) {
-        Map<String, Object> variableMap = new HashMap<>();
-        Object[] args = joinPoint.getArgs();
+    private KeyExpression compile(JoinPoint joinPoint, String key) {
         MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        String[] parameterNames = signature.getParameterNames();
-        IntStream.range(0, args.length)
-                .forEach(i -> variableMap.put(parameterNames[i], args[i]));
-        return variableMap;
+        KeyDefinition definition = new KeyDefinition(signature.getMethod(), key);
+        KeyExpression expression = EXPRESSIONS.get(definition);
+        if(Objects.isNull(expression)) {
+            expression = EXPRESSIONS.computeIfAbsent(definition, d -> compile(d.key(), signature.getParameterNames(), d.method().getParameterTypes()));
+        }
+        return expression;
+    }
+
+    /**
+     * Compiles the given key for a method with the given parameters.
+     * @param key the SpEL expression key
+     * @param parameterNames the parameter names of the method
+     * @param parameterTypes the parameter types of the method
+     * @return the compiled key
+     */
+    private KeyExpression compile(String key, String[] parameterNames, Class<?>[] parameterTypes) {
+        String trimmed = key.trim();
+        List<String> names = Arrays.asList(parameterNames);
+        Matcher variable = VARIABLE.matcher(trimmed);
+        if(variable.matches() && names.contains(variable.group(1))) {
+            int index = names.indexOf(variable.group(1));
+            return new KeyExpression(parameterNames, new int[]{index}, false, isId(parameterTypes[index]), null);
+        }
+        if(VARIABLE_LIST.matcher(trimmed).matches()) {
+            int[] indexes = VARIABLE.matcher(trimmed).results()
+                    .mapToInt(result -> names.indexOf(result.group(1)))
+                    .toArray();
+            if(Arrays.stream(indexes).allMatch(index -> index >= 0)) {
+                boolean ids = indexes.length <= 2
+                        && Arrays.stream(indexes).allMatch(index -> isId(parameterTypes[index]));
+                return new KeyExpression(parameterNames, indexes, true, ids, null);
+            }
+        }
+        return new KeyExpression(parameterNames, null, false, false, PARSER.parseExpression(key));
+    }
+
+    private boolean isId(Class<?> type) {
+        return type == Long.class || type == long.class;
+    }
+
+    /**
+     * A key of the compiled key cache.
+     * @param method the intercepted method
+     * @param key the SpEL expression key
+     */
+    private record KeyDefinition(Method method, String key) {
+    }
+
+    /**
+     * A key compiled for a single method.
+     * @param parameterNames the parameter names of the method
+     * @param indexes the indexes of the referenced parameters, or null if the key is evaluated by SpEL
+     * @param list whether the key is a list of parameters
+     * @param ids whether the key is one or two {@code Long} parameters, so the caches can be found by their values
+     * @param expression the parsed SpEL expression, or null if the key is read from the arguments directly
+     */
+    private record KeyExpression(String[] parameterNames, int[] indexes, boolean list, boolean ids,
+                                 Expression expression) {
+
+        /**
+         * Evaluates the key with the given arguments.
+         * @param args the arguments of the method
+         * @param result the result of the method, or null
+         * @return the value of the key
+         */
+        private String evaluate(Object[] args, Object result) {
+            if(Objects.isNull(expression)) {
+                return list ? join(args) : Objects.toString(args[indexes[0]], null);
+            }
+            return expression.getValue(context(args, result), String.class);
+        }
+
+        /**
+         * Evaluates the key with the given arguments without converting it to a string.
+         * @param args the arguments of the method
+         * @param result the result of the method, or null
+         * @return the value of the key
+         */
+        private Object value(Object[] args, Object result) {
+            if(Objects.isNull(expression)) {
+                return list ? Arrays.stream(indexes).mapToObj(index -> args[index]).toList() : args[indexes[0]];
+            }
+            return expression.getValue(context(args, result));
+        }
+
+        private StandardEvaluationContext context(Object[] args, Object result) {
+            StandardEvaluationContext context = new StandardEvaluationContext();
+            for (int i = 0; i < args.length; i++) {
+                context.setVariable(parameterNames[i], args[i]);
+            }
+            if(Objects.nonNull(result)) {
+                context.setVariable(RESULT, result);
+            }
+            return context;
+        }
+
+        /**
+         * Joins the referenced arguments the same way SpEL converts an inline list to a string.
+         * @param args the arguments of the method
+         * @return the joined arguments
+         */
+        private String join(Object[] args) {
+            StringJoiner joiner = new StringJoiner(LIST_SEPARATOR);
+            for (int index : indexes) {
+                joiner.add(String.valueOf(args[index]));
+            }
+            return joiner.toString();
+        }
     }
 }
@@ -0,0 +1,102 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.newsmanagement.exceptionservice.exception.CustomException;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.HashLruCacheList;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class CacheAsyncLoaderTest {
+
+    private CacheAsyncLoader asyncLoader;
+    private CacheList cache;
+    private CountDownLatch release;
+
+    @BeforeEach
+    public void setUp() {
+        CacheProperties properties = new CacheProperties();
+        properties.getAsync().setTimeout(Duration.ofMillis(100));
+        asyncLoader = new CacheAsyncLoader(properties);
+        cache = new HashLruCacheList(10);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        asyncLoader.shutdown();
+    }
+
+    @Test
+    void loadShouldCacheFutureUntilValueIsLoaded() throws Throwable {
+        CompletableFuture<Object> future = asyncLoader.load(String.class, cache, "1", () -> {
+            release.await();
+            return cache.add("1", "value").getValue();
+        });
+
+        Assertions.assertThat(cache.findByKey("1")).map(Cache::getValue).containsSame(future);
+        release.countDown();
+
+        Assertions.assertThat(asyncLoader.await("1", future, Optional.empty())).isEqualTo("value");
+        Assertions.assertThat(cache.findByKey("1")).map(Cache::getValue).contains("value");
+    }
+
+    @Test
+    void concurrentLoadsOfSameKeyShouldShareFuture() {
+        AtomicInteger loads = new AtomicInteger();
+        CacheLoader loader = () -> {
+            loads.incrementAndGet();
+            release.await();
+            return "value";
+        };
+
+        CompletableFuture<Object> first = asyncLoader.load(String.class, cache, "1", loader);
+        CompletableFuture<Object> second = asyncLoader.load(String.class, cache, "1", loader);
+
+        Assertions.assertThat(second).isSameAs(first);
+        release.countDown();
+        Assertions.assertThat(first.join()).isEqualTo("value");
+        Assertions.assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void awaitShouldReturnStaleValueOnTimeout() throws Throwable {
+        CompletableFuture<Object> future = asyncLoader.load(String.class, cache, "1", () -> {
+            release.await();
+            return "value";
+        });
+
+        Object actual = asyncLoader.await("1", future, Optional.of("stale"));
+
+        Assertions.assertThat(actual).isEqualTo("stale");
+    }
+
+    @Test
+    void awaitShouldFailOnTimeoutWithoutStaleValue() {
+        CompletableFuture<Object> future = asyncLoader.load(String.class, cache, "1", () -> {
+            release.await();
+            return "value";
+        });
+
+        Assertions.assertThatThrownBy(() -> asyncLoader.await("1", future, Optional.empty()))
+                .isInstanceOf(CustomException.class);
+    }
+
+    @Test
+    void failedLoadShouldRethrowCauseAndRemoveFuture() {
+        CompletableFuture<Object> future = asyncLoader.load(String.class, cache, "1", () -> {
+            throw new IllegalStateException("load failed");
+        });
+
+        Assertions.assertThatThrownBy(() -> asyncLoader.await("1", future, Optional.empty()))
+                .isInstanceOf(IllegalStateException.class);
+        Assertions.assertThat(cache.findByKey("1")).isEmpty();
+    }
+}
@@ -0,0 +1,81 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.newsmanagement.newsservice.model.CommentPage;
+import ru.clevertec.newsmanagement.newsservice.model.DTO;
+import ru.clevertec.newsmanagement.newsservice.model.NewsPage;
+
+import java.util.List;
+
+import static ru.clevertec.newsmanagement.newsservice.builder.impl.NewsBuilder.aNews;
+
+class CacheEvictorTest {
+
+    private CustomCacheManager customCacheManager;
+    private CacheEvictor cacheEvictor;
+    private CacheList newsPages;
+
+    @BeforeEach
+    public void setUp() {
+        customCacheManager = new CustomCacheManager(new CacheProperties(), new SimpleMeterRegistry());
+        cacheEvictor = new CacheEvictor(customCacheManager);
+        newsPages = customCacheManager.getCache(NewsPage.class);
+        newsPages.add("0,2,UNSORTED", List.of(news(1L), news(2L)));
+        newsPages.add("1,2,UNSORTED", List.of(news(3L), news(4L)));
+        newsPages.add("2,2,UNSORTED", List.of(news(5L)));
+        newsPages.add("0,3,createdDate: DESC", List.of(news(5L), news(4L), news(3L)));
+        newsPages.add("1,3,createdDate: DESC", List.of(news(2L), news(1L)));
+    }
+
+    @Test
+    void evictAllShouldRemoveEveryPage() {
+        List<String> removed = cacheEvictor.evict(NewsPage.class, EvictCache.Scope.ALL, "", "id");
+
+        Assertions.assertThat(removed).hasSize(5);
+        Assertions.assertThat(newsPages.size()).isZero();
+    }
+
+    @Test
+    void evictContainingShouldRemovePagesWithElement() {
+        List<String> removed = cacheEvictor.evict(NewsPage.class, EvictCache.Scope.CONTAINING, "4", "id");
+
+        Assertions.assertThat(removed).containsExactlyInAnyOrder("1,2,UNSORTED", "0,3,createdDate: DESC");
+        Assertions.assertThat(newsPages.size()).isEqualTo(3);
+    }
+
+    @Test
+    void evictFollowingShouldRemoveShiftedPagesOfSameOrder() {
+        List<String> removed = cacheEvictor.evict(NewsPage.class, EvictCache.Scope.FOLLOWING, "3", "id");
+
+        Assertions.assertThat(removed).containsExactlyInAnyOrder("1,2,UNSORTED", "2,2,UNSORTED",
+                "0,3,createdDate: DESC", "1,3,createdDate: DESC");
+        Assertions.assertThat(newsPages.findByKey("0,2,UNSORTED")).isPresent();
+    }
+
+    @Test
+    void evictFollowingShouldRemoveAllPagesIfElementIsNotCached() {
+        List<String> removed = cacheEvictor.evict(NewsPage.class, EvictCache.Scope.FOLLOWING, "42", "id");
+
+        Assertions.assertThat(removed).hasSize(5);
+    }
+
+    @Test
+    void evictPrefixShouldRemovePagesOfOwnerOnly() {
+        CacheList commentPages = customCacheManager.getCache(CommentPage.class);
+        commentPages.add("1,0,20,UNSORTED", List.of());
+        commentPages.add("1,1,20,UNSORTED", List.of());
+        commentPages.add("11,0,20,UNSORTED", List.of());
+
+        List<String> removed = cacheEvictor.evict(CommentPage.class, EvictCache.Scope.PREFIX, "1", "id");
+
+        Assertions.assertThat(removed).containsExactlyInAnyOrder("1,0,20,UNSORTED", "1,1,20,UNSORTED");
+        Assertions.assertThat(commentPages.findByKey("11,0,20,UNSORTED")).isPresent();
+    }
+
+    private static DTO.News news(Long id) {
+        return aNews().setId(id).buildToDTO();
+    }
+}
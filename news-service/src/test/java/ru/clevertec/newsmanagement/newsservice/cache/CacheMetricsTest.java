@@ -0,0 +1,59 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.newsmanagement.newsservice.model.DTO;
+
+import java.util.stream.IntStream;
+
+class CacheMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private CustomCacheManager customCacheManager;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        CacheProperties properties = new CacheProperties();
+        properties.setSize(10);
+        properties.setStripes(1);
+        customCacheManager = new CustomCacheManager(properties, registry);
+    }
+
+    @Test
+    void hitRatioShouldCountHitsAndMisses() {
+        CacheMetrics metrics = customCacheManager.getMetrics(DTO.News.class);
+
+        metrics.hit();
+        metrics.hit();
+        metrics.hit();
+        metrics.miss();
+
+        Assertions.assertThat(registry.get("cache.gets").tags("type", "News", "result", "hit")
+                .functionCounter().count()).isEqualTo(3);
+        Assertions.assertThat(registry.get("cache.hit.ratio").tag("type", "News").gauge().value()).isEqualTo(0.75);
+    }
+
+    @Test
+    void cacheListShouldCountEvictionsAndSize() {
+        CacheList cache = customCacheManager.getCache(DTO.News.class);
+
+        IntStream.range(0, 15)
+                .forEach(i -> cache.add(String.valueOf(i), i));
+
+        Assertions.assertThat(registry.get("cache.evictions").tag("type", "News")
+                .functionCounter().count()).isEqualTo(5);
+        Assertions.assertThat(registry.get("cache.size").tag("type", "News").gauge().value()).isEqualTo(10);
+    }
+
+    @Test
+    void loadedShouldRecordLoadTime() {
+        CacheMetrics metrics = customCacheManager.getMetrics(DTO.Comment.class);
+
+        metrics.loaded(1_000_000);
+
+        Assertions.assertThat(registry.get("cache.load").tag("type", "Comment").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,115 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.HashLruCacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.LruCache;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class CacheRefresherTest {
+
+    private CacheRefresher refresher;
+    private CacheList cacheList;
+
+    @BeforeEach
+    public void setUp() {
+        refresher = new CacheRefresher(new CacheProperties());
+        cacheList = new HashLruCacheList(10, Long.MAX_VALUE, value -> ((String) value).length());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        refresher.shutdown();
+    }
+
+    @Test
+    void refreshShouldReplaceValue() throws InterruptedException {
+        Cache cache = cacheList.add("1", "old");
+
+        refresher.refresh(cacheList, cache, () -> "new");
+
+        awaitRefreshEnd(cache);
+        Assertions.assertThat(cache.getValue()).isEqualTo("new");
+    }
+
+    @Test
+    void refreshShouldUpdateWeight() throws InterruptedException {
+        Cache cache = cacheList.add("1", "old");
+
+        refresher.refresh(cacheList, cache, () -> "updated");
+
+        awaitRefreshEnd(cache);
+        Assertions.assertThat(cacheList.weight()).isEqualTo(7);
+    }
+
+    @Test
+    void refreshShouldNotRestoreRemovedCache() throws InterruptedException {
+        Cache cache = cacheList.add("1", "old");
+        CountDownLatch release = new CountDownLatch(1);
+
+        refresher.refresh(cacheList, cache, () -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "new";
+        });
+        cacheList.remove("1");
+        release.countDown();
+
+        awaitRefreshEnd(cache);
+        Assertions.assertThat(cacheList.findByKey("1")).isEmpty();
+        Assertions.assertThat(cacheList.weight()).isZero();
+    }
+
+    @Test
+    void refreshShouldRunOnceAtTime() throws InterruptedException {
+        Cache cache = cacheList.add("1", "old");
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CacheLoader loader = () -> {
+            executions.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return "new";
+        };
+
+        refresher.refresh(cacheList, cache, loader);
+        refresher.refresh(cacheList, cache, loader);
+        release.countDown();
+
+        awaitRefreshEnd(cache);
+        Assertions.assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void failedRefreshShouldKeepValue() throws InterruptedException {
+        Cache cache = cacheList.add("1", "old");
+
+        refresher.refresh(cacheList, cache, () -> {
+            throw new IllegalStateException("failed");
+        });
+
+        awaitRefreshEnd(cache);
+        Assertions.assertThat(cache.getValue()).isEqualTo("old");
+    }
+
+    @Test
+    void cacheShouldExpireAfterWrite() {
+        Cache cache = new LruCache("1", "old");
+        cache.expireAfter(TimeUnit.SECONDS.toNanos(10), TimeUnit.SECONDS.toNanos(5));
+        long now = System.nanoTime();
+
+        Assertions.assertThat(cache.isExpired(now)).isFalse();
+        Assertions.assertThat(cache.isRefreshNeeded(now + TimeUnit.SECONDS.toNanos(6))).isTrue();
+        Assertions.assertThat(cache.isExpired(now + TimeUnit.SECONDS.toNanos(11))).isTrue();
+    }
+
+    private void awaitRefreshEnd(Cache cache) throws InterruptedException {
+        while (!cache.startRefresh()) {
+            Thread.sleep(10);
+        }
+        cache.endRefresh();
+    }
+}
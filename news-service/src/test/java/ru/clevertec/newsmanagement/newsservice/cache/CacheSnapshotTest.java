@@ -0,0 +1,79 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.LfuCache;
+import ru.clevertec.newsmanagement.newsservice.model.DTO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static ru.clevertec.newsmanagement.newsservice.builder.impl.NewsBuilder.aNews;
+
+class CacheSnapshotTest {
+
+    @TempDir
+    private Path directory;
+
+    private CacheProperties properties;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new CacheProperties();
+        properties.setStripes(1);
+    }
+
+    @Test
+    void restoreShouldKeepValuesAndCounts() throws IOException {
+        CustomCacheManager before = new CustomCacheManager(properties, new SimpleMeterRegistry());
+        CacheList cache = before.getCache(DTO.News.class);
+        DTO.News news = aNews().setId(1L).buildToDTO();
+        cache.add("1", news);
+        cache.add("2", aNews().setId(2L).buildToDTO());
+        cache.hit("1");
+        Path path = directory.resolve("cache.snapshot");
+        new CacheSnapshot(before, properties).save(path);
+
+        CustomCacheManager after = new CustomCacheManager(properties, new SimpleMeterRegistry());
+        int restored = new CacheSnapshot(after, properties).restore(path);
+
+        Cache actual = after.getCache(DTO.News.class).findByKey("1").orElseThrow();
+        Assertions.assertThat(restored).isEqualTo(2);
+        Assertions.assertThat(actual.getValue()).isEqualTo(news);
+        Assertions.assertThat(((LfuCache) actual).getCount()).isEqualTo(2);
+        Assertions.assertThat(after.getCache(DTO.News.class).snapshot())
+                .extracting(Cache::getKey)
+                .containsExactly("2", "1");
+        Assertions.assertThat(Files.exists(path)).isFalse();
+    }
+
+    @Test
+    void restoreShouldSkipExpiredCaches() throws IOException {
+        CustomCacheManager before = new CustomCacheManager(properties, new SimpleMeterRegistry());
+        Cache cache = before.getCache(DTO.News.class).add("1", aNews().setId(1L).buildToDTO());
+        cache.expireAfter(1, 0);
+        cache.setWriteTime(System.nanoTime() - TimeUnit.SECONDS.toNanos(1));
+        Path path = directory.resolve("cache.snapshot");
+        new CacheSnapshot(before, properties).save(path);
+
+        CustomCacheManager after = new CustomCacheManager(properties, new SimpleMeterRegistry());
+        int restored = new CacheSnapshot(after, properties).restore(path);
+
+        Assertions.assertThat(restored).isZero();
+        Assertions.assertThat(after.getCache(DTO.News.class).findByKey("1")).isEmpty();
+    }
+
+    @Test
+    void restoreShouldIgnoreMissingFile() throws IOException {
+        CustomCacheManager manager = new CustomCacheManager(properties, new SimpleMeterRegistry());
+
+        int restored = new CacheSnapshot(manager, properties).restore(directory.resolve("missing"));
+
+        Assertions.assertThat(restored).isZero();
+    }
+}
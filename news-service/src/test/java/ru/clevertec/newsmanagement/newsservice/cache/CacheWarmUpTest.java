@@ -0,0 +1,81 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.clevertec.newsmanagement.newsservice.model.DTO;
+import ru.clevertec.newsmanagement.newsservice.persistence.CommentRepository;
+import ru.clevertec.newsmanagement.newsservice.persistence.NewsRepository;
+import ru.clevertec.newsmanagement.newsservice.util.impl.CommentMapper;
+import ru.clevertec.newsmanagement.newsservice.util.impl.NewsMapper;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static ru.clevertec.newsmanagement.newsservice.builder.impl.NewsBuilder.aNews;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmUpTest {
+
+    private static final Sort RECENT = Sort.by(Sort.Direction.DESC, "createdDate");
+
+    @Mock
+    private NewsRepository newsRepository;
+    @Mock
+    private CommentRepository commentRepository;
+
+    private CacheProperties properties;
+    private CustomCacheManager customCacheManager;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new CacheProperties();
+        properties.getWarmUp().setEnabled(true);
+        properties.getWarmUp().setNews(3);
+        properties.getWarmUp().setBatchSize(2);
+        registry = new SimpleMeterRegistry();
+        customCacheManager = new CustomCacheManager(properties, registry);
+    }
+
+    @Test
+    void startShouldLoadMostRecentNews() {
+        doReturn(new PageImpl<>(List.of(aNews().setId(3L).buildToEntity(), aNews().setId(2L).buildToEntity())))
+                .when(newsRepository).findAll(PageRequest.of(0, 2, RECENT));
+        doReturn(new PageImpl<>(List.of(aNews().setId(1L).buildToEntity(), aNews().setId(0L).buildToEntity())))
+                .when(newsRepository).findAll(PageRequest.of(1, 2, RECENT));
+
+        warmUp().start();
+
+        CacheList cache = customCacheManager.getCache(DTO.News.class);
+        Assertions.assertThat(cache.findByKey("3")).isPresent();
+        Assertions.assertThat(cache.findByKey("1")).isPresent();
+        Assertions.assertThat(cache.findByKey("0")).isEmpty();
+        Assertions.assertThat(registry.get("cache.warmup.progress").gauge().value()).isEqualTo(1);
+        verify(commentRepository, never()).findCommentsByNews_Id(any(), any());
+    }
+
+    @Test
+    void startShouldDoNothingIfDisabled() {
+        properties.getWarmUp().setEnabled(false);
+
+        warmUp().start();
+
+        verify(newsRepository, never()).findAll(any(PageRequest.class));
+    }
+
+    private CacheWarmUp warmUp() {
+        return new CacheWarmUp(newsRepository, commentRepository, new NewsMapper(), new CommentMapper(),
+                customCacheManager, properties, registry);
+    }
+}
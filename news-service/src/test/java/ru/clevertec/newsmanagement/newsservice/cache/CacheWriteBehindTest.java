@@ -0,0 +1,90 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+class CacheWriteBehindTest {
+
+    private CacheWriteBehind writeBehind;
+
+    @BeforeEach
+    public void setUp() {
+        writeBehind = new CacheWriteBehind(new CacheProperties());
+    }
+
+    @Test
+    void writeShouldPassWrittenValue() throws Exception {
+        CompletableFuture<Object> written = new CompletableFuture<>();
+
+        writeBehind.write("1", () -> "value", written::complete, () -> written.complete(null));
+
+        Assertions.assertThat(written.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+    }
+
+    @Test
+    void writeShouldRunFailureAction() throws Exception {
+        CompletableFuture<Boolean> failed = new CompletableFuture<>();
+
+        writeBehind.write("1", () -> {
+            throw new IllegalStateException("write failed");
+        }, value -> failed.complete(false), () -> failed.complete(true));
+
+        Assertions.assertThat(failed.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void shutdownShouldCompletePendingWrites() throws InterruptedException {
+        AtomicBoolean written = new AtomicBoolean();
+
+        writeBehind.write("1", () -> {
+            Thread.sleep(50);
+            return "value";
+        }, value -> written.set(true), () -> {});
+        writeBehind.shutdown();
+
+        Assertions.assertThat(written).isTrue();
+    }
+
+    @Test
+    void writeAfterShutdownShouldRunInCallingThread() throws InterruptedException {
+        List<Object> written = new CopyOnWriteArrayList<>();
+        writeBehind.shutdown();
+
+        writeBehind.write("1", () -> "first", written::add, () -> {});
+        writeBehind.write("1", () -> "second", written::add, () -> {});
+
+        Assertions.assertThat(written).containsExactly("first", "second");
+        Assertions.assertThat(writeBehind.pending()).isZero();
+    }
+
+    @Test
+    void writesOfSameKeyShouldRunInOrder() throws InterruptedException {
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        writeBehind.write("1", () -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 0;
+        }, value -> written.add((Integer) value), () -> {});
+        started.await(5, TimeUnit.SECONDS);
+
+        IntStream.rangeClosed(1, 10).forEach(i -> writeBehind.write("1", () -> i,
+                value -> written.add((Integer) value), () -> {}));
+        int pending = writeBehind.pending();
+        release.countDown();
+        writeBehind.shutdown();
+
+        Assertions.assertThat(pending).isEqualTo(10);
+        Assertions.assertThat(written).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.newsmanagement.newsservice.model.DTO;
+
+import java.util.stream.IntStream;
+
+class MemoryPressureControllerTest {
+
+    private CustomCacheManager customCacheManager;
+    private MemoryPressureController controller;
+    private CacheList cache;
+
+    @BeforeEach
+    public void setUp() {
+        CacheProperties properties = new CacheProperties();
+        properties.setSize(100);
+        properties.setStripes(1);
+        properties.getMemory().setEnabled(false);
+        customCacheManager = new CustomCacheManager(properties, new SimpleMeterRegistry());
+        controller = new MemoryPressureController(customCacheManager, properties, new SimpleMeterRegistry());
+        cache = customCacheManager.getCache(DTO.News.class);
+        IntStream.range(0, 100).forEach(i -> cache.add(String.valueOf(i), i));
+    }
+
+    @Test
+    void shrinkShouldEvictCachesDownToMinShare() {
+        controller.shrink();
+        Assertions.assertThat(cache.size()).isEqualTo(80);
+
+        IntStream.range(0, 10).forEach(i -> controller.shrink());
+
+        Assertions.assertThat(controller.getShare()).isCloseTo(0.2, Assertions.within(1e-9));
+        Assertions.assertThat(cache.size()).isEqualTo(20);
+    }
+
+    @Test
+    void growShouldWaitForCalmChecks() {
+        controller.shrink();
+        controller.shrink();
+
+        controller.grow();
+        controller.grow();
+        Assertions.assertThat(controller.getShare()).isCloseTo(0.6, Assertions.within(1e-9));
+
+        controller.grow();
+        Assertions.assertThat(controller.getShare()).isCloseTo(0.65, Assertions.within(1e-9));
+    }
+
+    @Test
+    void cacheListCreatedUnderPressureShouldBeShrunk() {
+        controller.shrink();
+
+        CacheList comments = customCacheManager.getCache(DTO.Comment.class);
+        IntStream.range(0, 100).forEach(i -> comments.add(String.valueOf(i), i));
+
+        Assertions.assertThat(comments.size()).isEqualTo(80);
+    }
+}
@@ -0,0 +1,74 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.newsmanagement.exceptionservice.exception.CustomException;
+
+import java.time.Duration;
+
+import static ru.clevertec.newsmanagement.exceptionservice.exception.ExceptionStatus.ENTITY_NOT_FOUND;
+
+class NegativeCacheTest {
+
+    private CacheProperties properties;
+    private NegativeCache negativeCache;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new CacheProperties();
+        negativeCache = new NegativeCache(properties);
+    }
+
+    @Test
+    void rememberShouldKeepNotFoundKey() {
+        boolean remembered = negativeCache.remember(String.class, "1",
+                new CustomException(ENTITY_NOT_FOUND.toString()));
+
+        Assertions.assertThat(remembered).isTrue();
+        Assertions.assertThat(negativeCache.find(String.class, "1")).contains(ENTITY_NOT_FOUND.toString());
+        Assertions.assertThat(negativeCache.find(Integer.class, "1")).isEmpty();
+    }
+
+    @Test
+    void rememberShouldIgnoreOtherExceptions() {
+        boolean remembered = negativeCache.remember(String.class, "1", new CustomException("other"));
+
+        Assertions.assertThat(remembered).isFalse();
+        Assertions.assertThat(negativeCache.find(String.class, "1")).isEmpty();
+    }
+
+    @Test
+    void forgetShouldRemoveKey() {
+        negativeCache.remember(String.class, "1", new CustomException(ENTITY_NOT_FOUND.toString()));
+
+        negativeCache.forget(String.class, "1");
+
+        Assertions.assertThat(negativeCache.find(String.class, "1")).isEmpty();
+    }
+
+    @Test
+    void findShouldDropExpiredKey() throws InterruptedException {
+        properties.getNegative().setExpireAfterWrite(Duration.ofMillis(1));
+        negativeCache = new NegativeCache(properties);
+        negativeCache.remember(String.class, "1", new CustomException(ENTITY_NOT_FOUND.toString()));
+
+        Thread.sleep(5);
+
+        Assertions.assertThat(negativeCache.find(String.class, "1")).isEmpty();
+        Assertions.assertThat(negativeCache.size(String.class)).isZero();
+    }
+
+    @Test
+    void rememberShouldBeBounded() {
+        properties.getNegative().setSize(10);
+        negativeCache = new NegativeCache(properties);
+
+        for (int i = 0; i < 100; i++) {
+            negativeCache.remember(String.class, String.valueOf(i), new CustomException(ENTITY_NOT_FOUND.toString()));
+        }
+
+        Assertions.assertThat(negativeCache.size(String.class)).isLessThanOrEqualTo(10);
+        Assertions.assertThat(negativeCache.find(String.class, "99")).isPresent();
+    }
+}
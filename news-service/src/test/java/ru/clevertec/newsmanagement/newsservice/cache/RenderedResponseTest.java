@@ -0,0 +1,62 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.newsmanagement.newsservice.cache.impl.LruCache;
+import ru.clevertec.newsmanagement.newsservice.model.DTO;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static ru.clevertec.newsmanagement.exceptionservice.util.JsonUtil.toJson;
+import static ru.clevertec.newsmanagement.newsservice.builder.impl.NewsBuilder.aNews;
+
+class RenderedResponseTest {
+
+    @Test
+    void ofShouldRenderJsonOnce() {
+        DTO.News news = aNews().buildToDTO();
+        Cache cache = new LruCache("1", news);
+
+        RenderedResponse first = RenderedResponse.of(cache, -1).orElseThrow();
+        RenderedResponse second = RenderedResponse.of(cache, -1).orElseThrow();
+
+        Assertions.assertThat(new String(first.json(), StandardCharsets.UTF_8)).isEqualTo(toJson(news));
+        Assertions.assertThat(first.gzip()).isNull();
+        Assertions.assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void ofShouldRenderReplacedValueAgain() {
+        Cache cache = new LruCache("1", aNews().setTitle("old").buildToDTO());
+        RenderedResponse first = RenderedResponse.of(cache, -1).orElseThrow();
+        DTO.News updated = aNews().setTitle("new").buildToDTO();
+
+        cache.setValue(updated);
+        RenderedResponse actual = RenderedResponse.of(cache, -1).orElseThrow();
+
+        Assertions.assertThat(actual).isNotSameAs(first);
+        Assertions.assertThat(new String(actual.json(), StandardCharsets.UTF_8)).isEqualTo(toJson(updated));
+    }
+
+    @Test
+    void ofShouldKeepGzipVariantOfLargeJson() throws IOException {
+        List<DTO.News> page = List.of(aNews().setId(1L).buildToDTO(), aNews().setId(2L).buildToDTO());
+        Cache cache = new LruCache("0,20,UNSORTED", page);
+
+        RenderedResponse actual = RenderedResponse.of(cache, 0).orElseThrow();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(actual.gzip()))) {
+            Assertions.assertThat(gzip.readAllBytes()).isEqualTo(actual.json());
+        }
+        Assertions.assertThat(new String(actual.json(), StandardCharsets.UTF_8)).isEqualTo(toJson(page));
+    }
+
+    @Test
+    void ofShouldSkipOtherValues() {
+        Assertions.assertThat(RenderedResponse.of(new LruCache("1", "value"), 0)).isEmpty();
+    }
+}
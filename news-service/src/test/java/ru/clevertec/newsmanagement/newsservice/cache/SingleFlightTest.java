@@ -0,0 +1,132 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.newsmanagement.exceptionservice.exception.CustomException;
+import ru.clevertec.newsmanagement.newsservice.model.DTO;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry registry;
+    private SingleFlight singleFlight;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(registry);
+    }
+
+    @Test
+    void concurrentLoadsShouldRunOnce() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CacheLoader loader = () -> {
+            executions.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return "news";
+        };
+
+        List<CompletableFuture<Object>> callers = IntStream.range(0, 4)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> load(loader), executor))
+                .toList();
+        while (registry.counter("cache.singleflight.collapsed", "type", "News").count() < 3) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        Assertions.assertThat(callers)
+                .allSatisfy(caller -> Assertions.assertThat(caller.join()).isEqualTo("news"));
+        Assertions.assertThat(executions.get()).isEqualTo(1);
+        executor.shutdown();
+    }
+
+    @Test
+    void interruptedCallerShouldFailAndKeepInterruptStatus() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> load(() -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "news";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Throwable> failure = new CompletableFuture<>();
+        CompletableFuture<Boolean> interrupted = new CompletableFuture<>();
+        Thread caller = new Thread(() -> {
+            try {
+                singleFlight.load(DTO.News.class, "1", Optional::empty, () -> "other");
+            } catch (Throwable e) {
+                failure.complete(e);
+            }
+            interrupted.complete(Thread.currentThread().isInterrupted());
+        });
+        caller.start();
+        while (registry.counter("cache.singleflight.collapsed", "type", "News").count() < 1) {
+            Thread.sleep(10);
+        }
+
+        caller.interrupt();
+        caller.join(5000);
+        release.countDown();
+
+        Assertions.assertThat(failure.join()).isInstanceOf(CustomException.class);
+        Assertions.assertThat(interrupted.join()).isTrue();
+        Assertions.assertThat(leader.join()).isEqualTo("news");
+    }
+
+    @Test
+    void loadShouldRethrowException() {
+        CacheLoader loader = () -> {
+            throw new CustomException("not found");
+        };
+
+        Assertions.assertThatThrownBy(() -> singleFlight.load(DTO.News.class, "1", loader))
+                .isInstanceOf(CustomException.class)
+                .hasMessage("not found");
+    }
+
+    @Test
+    void sequentialLoadsShouldNotBeCollapsed() throws Throwable {
+        singleFlight.load(DTO.News.class, "1", () -> "first");
+        Object actual = singleFlight.load(DTO.News.class, "1", () -> "second");
+
+        Assertions.assertThat(actual).isEqualTo("second");
+        Assertions.assertThat(registry.counter("cache.singleflight.loads", "type", "News").count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void loadShouldReturnValueCachedByPreviousFlight() throws Throwable {
+        AtomicInteger executions = new AtomicInteger();
+
+        Object actual = singleFlight.load(DTO.News.class, "1", () -> Optional.of("cached"), () -> {
+            executions.incrementAndGet();
+            return "loaded";
+        });
+
+        Assertions.assertThat(actual).isEqualTo("cached");
+        Assertions.assertThat(executions.get()).isZero();
+        Assertions.assertThat(registry.counter("cache.singleflight.loads", "type", "News").count()).isZero();
+    }
+
+    private Object load(CacheLoader loader) {
+        try {
+            return singleFlight.load(DTO.News.class, "1", loader);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.clevertec.newsmanagement.newsservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+class TagIndexTest {
+
+    private TagIndex tagIndex;
+
+    @BeforeEach
+    public void setUp() {
+        tagIndex = new TagIndex();
+    }
+
+    @Test
+    void removeShouldReturnKeysOfTypeOnly() {
+        tagIndex.tag(String.class, "1,1", List.of("news:1"));
+        tagIndex.tag(String.class, "1,2", List.of("news:1"));
+        tagIndex.tag(Integer.class, "1,0", List.of("news:1"));
+        tagIndex.tag(String.class, "2,3", List.of("news:2"));
+
+        Set<String> actual = tagIndex.remove("news:1", String.class);
+
+        Assertions.assertThat(actual).containsExactlyInAnyOrder("1,1", "1,2");
+        Assertions.assertThat(tagIndex.remove("news:1", String.class)).isEmpty();
+        Assertions.assertThat(tagIndex.remove("news:1")).containsOnlyKeys(Integer.class);
+        Assertions.assertThat(tagIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void tagsOfShouldReturnTagsByKey() {
+        tagIndex.tag(String.class, "1", List.of("news:1", "user:a"));
+        tagIndex.tag(Integer.class, "1", List.of("news:2"));
+
+        Assertions.assertThat(tagIndex.tagsOf(String.class).get("1")).containsExactlyInAnyOrder("news:1", "user:a");
+    }
+
+    @Test
+    void purgeShouldRemoveKeysNoLongerCached() {
+        tagIndex.tag(String.class, "1", List.of("news:1"));
+        tagIndex.tag(String.class, "2", List.of("news:1", "news:2"));
+
+        int actual = tagIndex.purge((type, key) -> key.equals("1"));
+
+        Assertions.assertThat(actual).isEqualTo(2);
+        Assertions.assertThat(tagIndex.size()).isEqualTo(1);
+        Assertions.assertThat(tagIndex.remove("news:1", String.class)).containsExactly("1");
+    }
+
+    @Test
+    void purgeShouldKeepKeyCachedAgainOnSecondCheck() {
+        tagIndex.tag(String.class, "1", List.of("news:1"));
+        Set<String> checked = new HashSet<>();
+
+        int actual = tagIndex.purge((type, key) -> !checked.add(key));
+
+        Assertions.assertThat(actual).isZero();
+        Assertions.assertThat(tagIndex.remove("news:1", String.class)).containsExactly("1");
+    }
+
+    @Test
+    void evictTagShouldRemoveTaggedCaches() {
+        CustomCacheManager customCacheManager = new CustomCacheManager(new CacheProperties(), new SimpleMeterRegistry());
+        CacheList comments = customCacheManager.getCache(String.class);
+        comments.add("1,1", "first");
+        comments.add("1,2", "second");
+        comments.add("2,3", "third");
+        customCacheManager.tag(String.class, "1,1", List.of("news:1"));
+        customCacheManager.tag(String.class, "1,2", List.of("news:1"));
+        customCacheManager.tag(String.class, "2,3", List.of("news:2"));
+
+        Set<String> actual = customCacheManager.evictTag("news:1", String.class);
+
+        Assertions.assertThat(actual).containsExactlyInAnyOrder("1,1", "1,2");
+        Assertions.assertThat(comments.findByKey("1,1")).isEmpty();
+        Assertions.assertThat(comments.findByKey("2,3")).isPresent();
+    }
+}
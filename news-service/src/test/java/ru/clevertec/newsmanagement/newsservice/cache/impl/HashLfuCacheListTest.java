@@ -0,0 +1,156 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.Weigher;
+
+import java.util.Optional;
+
+class HashLfuCacheListTest {
+
+    private CacheList cacheList;
+
+    @BeforeEach
+    public void setUp() {
+        cacheList = new HashLfuCacheList(3);
+    }
+
+    @Test
+    void findByKeyShouldReturnAddedValue() {
+        cacheList.add("1", "first");
+
+        Optional<Cache> actual = cacheList.findByKey("1");
+
+        Assertions.assertThat(actual)
+                .map(Cache::getValue)
+                .contains("first");
+    }
+
+    @Test
+    void addShouldRemoveLeastFrequentlyUsed() {
+        cacheList.add("1", "first");
+        cacheList.add("2", "second");
+        cacheList.add("3", "third");
+        hit("1");
+        hit("1");
+        hit("3");
+
+        cacheList.add("4", "fourth");
+
+        Assertions.assertThat(cacheList.findByKey("2")).isEmpty();
+        Assertions.assertThat(cacheList.findByKey("1")).isPresent();
+        Assertions.assertThat(cacheList.findByKey("3")).isPresent();
+        Assertions.assertThat(cacheList.findByKey("4")).isPresent();
+    }
+
+    @Test
+    void addShouldRemoveOldestAmongSameCount() {
+        cacheList.add("1", "first");
+        cacheList.add("2", "second");
+        cacheList.add("3", "third");
+        hit("1");
+        hit("2");
+
+        cacheList.add("4", "fourth");
+        cacheList.add("5", "fifth");
+
+        Assertions.assertThat(cacheList.findByKey("3")).isEmpty();
+        Assertions.assertThat(cacheList.findByKey("4")).isEmpty();
+        Assertions.assertThat(cacheList.findByKey("5")).isPresent();
+    }
+
+    @Test
+    void removeShouldReturnRemovedCache() {
+        cacheList.add("1", "first");
+
+        Optional<Cache> actual = cacheList.remove("1");
+
+        Assertions.assertThat(actual)
+                .map(Cache::getKey)
+                .contains("1");
+        Assertions.assertThat(cacheList.findByKey("1")).isEmpty();
+    }
+
+    private void hit(String key) {
+        Cache cache = cacheList.remove(key).orElseThrow();
+        cache.hit();
+        cacheList.add(cache);
+    }
+
+    @Test
+    void hitShouldCountUseInPlace() {
+        cacheList.add("1", "first");
+        cacheList.add("2", "second");
+
+        Optional<Cache> actual = cacheList.hit("1");
+        cacheList.add("3", "third");
+
+        Assertions.assertThat(actual)
+                .map(Cache::getKey)
+                .contains("1");
+        Assertions.assertThat(cacheList.findByKey("1")).isPresent();
+        Assertions.assertThat(cacheList.findByKey("2")).isEmpty();
+    }
+
+    @Test
+    void addShouldKeepWeightUnderBudget() {
+        Weigher weigher = value -> ((String) value).length();
+        CacheList weighted = new HashLfuCacheList(10, 10, weigher);
+
+        weighted.add("1", "first");
+        weighted.add("2", "second");
+        weighted.add("3", "third");
+
+        Assertions.assertThat(weighted.weight()).isEqualTo(5);
+        Assertions.assertThat(weighted.findByKey("3")).isPresent();
+        Assertions.assertThat(weighted.findByKey("1")).isEmpty();
+    }
+
+    @Test
+    void addShouldNotStoreValueHeavierThanBudget() {
+        Weigher weigher = value -> ((String) value).length();
+        CacheList weighted = new HashLfuCacheList(10, 4, weigher);
+
+        Cache actual = weighted.add("1", "first");
+
+        Assertions.assertThat(actual.getValue()).isEqualTo("first");
+        Assertions.assertThat(weighted.findByKey("1")).isEmpty();
+        Assertions.assertThat(weighted.weight()).isZero();
+    }
+
+    @Test
+    void replaceShouldKeepCount() {
+        cacheList.add("1", "first");
+        cacheList.add("2", "second");
+        hit("1");
+
+        cacheList.replace("1", "updated");
+        cacheList.add("3", "third");
+        cacheList.add("4", "fourth");
+
+        Assertions.assertThat(cacheList.findByKey("1"))
+                .map(Cache::getValue)
+                .contains("updated");
+        Assertions.assertThat(cacheList.findByKey("2")).isEmpty();
+    }
+
+    @Test
+    void scaleShouldEvictLeastFrequentlyUsedAndGrowBack() {
+        cacheList.add("1", "first");
+        cacheList.add("2", "second");
+        cacheList.add("3", "third");
+        hit("1");
+        hit("3");
+
+        cacheList.scale(0.5);
+        Assertions.assertThat(cacheList.size()).isEqualTo(2);
+        Assertions.assertThat(cacheList.findByKey("2")).isEmpty();
+
+        cacheList.scale(1);
+        cacheList.add("4", "fourth");
+        Assertions.assertThat(cacheList.size()).isEqualTo(3);
+    }
+}
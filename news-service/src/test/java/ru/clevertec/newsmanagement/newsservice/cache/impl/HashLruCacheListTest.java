@@ -0,0 +1,182 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.RenderedResponse;
+import ru.clevertec.newsmanagement.newsservice.cache.Weigher;
+import ru.clevertec.newsmanagement.newsservice.model.DTO;
+
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static ru.clevertec.newsmanagement.newsservice.builder.impl.NewsBuilder.aNews;
+
+class HashLruCacheListTest {
+
+    private CacheList cacheList;
+
+    @BeforeEach
+    public void setUp() {
+        cacheList = new HashLruCacheList(2);
+    }
+
+    @Test
+    void findByKeyShouldReturnAddedValue() {
+        cacheList.add("1", "first");
+
+        Optional<Cache> actual = cacheList.findByKey("1");
+
+        Assertions.assertThat(actual)
+                .map(Cache::getValue)
+                .contains("first");
+    }
+
+    @Test
+    void addShouldRemoveLeastRecentlyUsed() {
+        cacheList.add("1", "first");
+        cacheList.add("2", "second");
+        Cache hit = cacheList.remove("1").orElseThrow();
+        hit.hit();
+        cacheList.add(hit);
+
+        cacheList.add("3", "third");
+
+        Assertions.assertThat(cacheList.findByKey("2")).isEmpty();
+        Assertions.assertThat(cacheList.findByKey("1")).isPresent();
+        Assertions.assertThat(cacheList.findByKey("3")).isPresent();
+    }
+
+    @Test
+    void hitShouldPromoteInPlace() {
+        cacheList.add("1", "first");
+        cacheList.add("2", "second");
+
+        Optional<Cache> actual = cacheList.hit("1");
+        cacheList.add("3", "third");
+
+        Assertions.assertThat(actual)
+                .map(Cache::getValue)
+                .contains("first");
+        Assertions.assertThat(cacheList.findByKey("2")).isEmpty();
+        Assertions.assertThat(cacheList.findByKey("1")).isPresent();
+        Assertions.assertThat(cacheList.hit("2")).isEmpty();
+    }
+
+    @Test
+    void addWithSameKeyShouldReplaceWithoutRemoving() {
+        cacheList.add("1", "first");
+        cacheList.add("2", "second");
+
+        cacheList.add("1", "updated");
+
+        Assertions.assertThat(cacheList.findByKey("1"))
+                .map(Cache::getValue)
+                .contains("updated");
+        Assertions.assertThat(cacheList.findByKey("2")).isPresent();
+    }
+
+    @Test
+    void removeShouldReturnEmptyForUnknownKey() {
+        Assertions.assertThat(cacheList.remove("1")).isEmpty();
+    }
+
+    @Test
+    void addShouldKeepWeightUnderBudget() {
+        Weigher weigher = value -> ((String) value).length();
+        CacheList weighted = new HashLruCacheList(10, 10, weigher);
+
+        weighted.add("1", "first");
+        weighted.add("2", "second");
+        weighted.add("3", "third");
+
+        Assertions.assertThat(weighted.weight()).isEqualTo(5);
+        Assertions.assertThat(weighted.findByKey("3")).isPresent();
+        Assertions.assertThat(weighted.findByKey("1")).isEmpty();
+    }
+
+    @Test
+    void addShouldNotStoreValueHeavierThanBudget() {
+        Weigher weigher = value -> ((String) value).length();
+        CacheList weighted = new HashLruCacheList(10, 4, weigher);
+
+        Cache actual = weighted.add("1", "first");
+
+        Assertions.assertThat(actual.getValue()).isEqualTo("first");
+        Assertions.assertThat(weighted.findByKey("1")).isEmpty();
+        Assertions.assertThat(weighted.weight()).isZero();
+    }
+
+    @Test
+    void replaceShouldKeepRecencyOrder() {
+        cacheList.add("1", "first");
+        cacheList.add("2", "second");
+        Cache existing = cacheList.findByKey("1").orElseThrow();
+
+        Cache actual = cacheList.replace("1", "updated");
+        cacheList.add("3", "third");
+
+        Assertions.assertThat(actual).isSameAs(existing);
+        Assertions.assertThat(actual.getValue()).isEqualTo("updated");
+        Assertions.assertThat(cacheList.findByKey("1")).isEmpty();
+        Assertions.assertThat(cacheList.findByKey("2")).isPresent();
+    }
+
+    @Test
+    void replaceShouldUpdateWeight() {
+        Weigher weigher = value -> ((String) value).length();
+        CacheList weighted = new HashLruCacheList(10, 10, weigher);
+        weighted.add("1", "first");
+
+        weighted.replace("1", "up");
+        weighted.replace("2", "second");
+
+        Assertions.assertThat(weighted.weight()).isEqualTo(8);
+    }
+
+    @Test
+    void addShouldWeighRenderedValueUntilReplaced() {
+        DTO.News news = aNews().setId(1L).buildToDTO();
+        DTO.News updated = aNews().setId(1L).setTitle("updated").buildToDTO();
+        CacheList weighted = new HashLruCacheList(10, Long.MAX_VALUE, Weigher.SERIALIZED_SIZE);
+        weighted.add("1", news);
+        Cache hit = weighted.remove("1").orElseThrow();
+        RenderedResponse rendered = RenderedResponse.of(hit, 0).orElseThrow();
+
+        weighted.add(hit);
+        long renderedWeight = weighted.weight();
+        weighted.replace("1", updated);
+
+        Assertions.assertThat(renderedWeight).isEqualTo(news.getSerializedSize() + rendered.size());
+        Assertions.assertThat(weighted.weight()).isEqualTo(updated.getSerializedSize());
+    }
+
+    @Test
+    void reweighShouldCountRenderedValueOfHeldCache() {
+        DTO.News news = aNews().setId(1L).buildToDTO();
+        CacheList weighted = new HashLruCacheList(10, Long.MAX_VALUE, Weigher.SERIALIZED_SIZE);
+        weighted.add("1", news);
+        Cache hit = weighted.hit("1").orElseThrow();
+        RenderedResponse rendered = RenderedResponse.of(hit, 0).orElseThrow();
+
+        weighted.reweigh(hit);
+
+        Assertions.assertThat(weighted.weight()).isEqualTo(news.getSerializedSize() + rendered.size());
+        Assertions.assertThat(weighted.findByKey("1")).containsSame(hit);
+    }
+
+    @Test
+    void scaleShouldEvictLeastRecentlyUsedUntilListFits() {
+        CacheList list = new HashLruCacheList(10);
+        IntStream.range(0, 10).forEach(i -> list.add(String.valueOf(i), i));
+
+        list.scale(0.3);
+        list.add("10", 10);
+
+        Assertions.assertThat(list.snapshot())
+                .map(Cache::getKey)
+                .containsExactly("8", "9", "10");
+    }
+}
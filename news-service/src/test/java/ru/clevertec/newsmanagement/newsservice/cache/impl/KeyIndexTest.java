@@ -0,0 +1,97 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+class KeyIndexTest {
+
+    private KeyIndex<Cache> index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new KeyIndex<>();
+    }
+
+    @Test
+    void removeByIdShouldFindEntryOfNumericKey() {
+        Cache cache = new LruCache("42", "value");
+        index.put("42", cache);
+
+        Assertions.assertThat(index.remove(42L)).isSameAs(cache);
+        Assertions.assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void removeByIdsShouldFindEntryOfPairKey() {
+        Cache cache = new LruCache("1,42", "value");
+        index.put("1,42", cache);
+
+        Assertions.assertThat(index.remove(1L, 42L)).isSameAs(cache);
+        Assertions.assertThat(index.get("1,42")).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"007", "-0", "1,2,3", "news:1", "0,20,UNSORTED", "12345678901234567890"})
+    void otherKeysShouldBeFoundByString(String key) {
+        Cache cache = new LruCache(key, "value");
+        index.put(key, cache);
+
+        Assertions.assertThat(index.get(key)).isSameAs(cache);
+        Assertions.assertThat(index.remove(key)).isSameAs(cache);
+    }
+
+    @Test
+    void removeIfShouldRemoveMatchingEntriesOfAllKinds() {
+        IntStream.range(0, 100).forEach(i -> {
+            index.put(String.valueOf(i), new LruCache(String.valueOf(i), i));
+            index.put(i + ",1", new LruCache(i + ",1", i));
+            index.put("news:" + i, new LruCache("news:" + i, i));
+        });
+
+        List<Cache> removed = index.removeIf(cache -> (Integer) cache.getValue() % 2 == 0);
+
+        Assertions.assertThat(removed).hasSize(150);
+        Assertions.assertThat(index.size()).isEqualTo(150);
+        Assertions.assertThat(index.get("3")).isNotNull();
+        Assertions.assertThat(index.get("3,1")).isNotNull();
+        Assertions.assertThat(index.get("4,1")).isNull();
+    }
+
+    @Nested
+    class NumericKeyTest {
+
+        @ParameterizedTest
+        @ValueSource(longs = {0, 7, -7, 42, 1_000_000_007L, -999_999_999_999_999_999L})
+        void hashShouldEqualHashOfKeyString(long id) {
+            Assertions.assertThat(NumericKey.hash(id)).isEqualTo(Long.toString(id).hashCode());
+            Assertions.assertThat(NumericKey.hash(id, 42L)).isEqualTo((id + ",42").hashCode());
+        }
+    }
+
+    @Nested
+    class StripedTest {
+
+        @Test
+        void removeByIdsShouldFindStripeOfKey() {
+            StripedCacheList list = new StripedCacheList(16, 1000, HashLruCacheList::new);
+            IntStream.range(0, 100).forEach(i -> {
+                list.add(String.valueOf(i), i);
+                list.add(i + "," + (i + 1), i);
+            });
+
+            IntStream.range(0, 100).forEach(i -> {
+                Assertions.assertThat(list.remove((long) i)).isPresent();
+                Assertions.assertThat(list.remove(i, i + 1L)).isPresent();
+            });
+            Assertions.assertThat(list.size()).isZero();
+        }
+    }
+}
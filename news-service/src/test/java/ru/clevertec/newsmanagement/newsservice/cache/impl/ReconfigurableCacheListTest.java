@@ -0,0 +1,95 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+class ReconfigurableCacheListTest {
+
+    private static final UnaryOperator<Cache> TO_LFU = cache -> cache instanceof LfuCache
+            ? cache
+            : new LfuCache(cache.getKey(), cache.getValue());
+
+    private ReconfigurableCacheList cacheList;
+
+    @BeforeEach
+    public void setUp() {
+        cacheList = new ReconfigurableCacheList(new HashLruCacheList(10), UnaryOperator.identity());
+    }
+
+    @Test
+    void migrateShouldMoveCachesIntoListOfOtherType() {
+        IntStream.range(0, 10).forEach(i -> cacheList.add(String.valueOf(i), i));
+
+        int migrated = cacheList.migrate(new HashLfuCacheList(10), TO_LFU);
+
+        Assertions.assertThat(migrated).isEqualTo(10);
+        Assertions.assertThat(cacheList.getList()).isInstanceOf(HashLfuCacheList.class);
+        Assertions.assertThat(cacheList.snapshot())
+                .hasSize(10)
+                .allMatch(LfuCache.class::isInstance);
+        Assertions.assertThat(cacheList.findByKey("7")).map(Cache::getValue).contains(7);
+    }
+
+    @Test
+    void migrateToSmallerListShouldKeepMostRecentlyUsedCaches() {
+        IntStream.range(0, 10).forEach(i -> cacheList.add(String.valueOf(i), i));
+        cacheList.remove("0").ifPresent(cacheList::add);
+
+        cacheList.migrate(new HashLruCacheList(3), UnaryOperator.identity());
+
+        Assertions.assertThat(cacheList.snapshot())
+                .map(Cache::getKey)
+                .containsExactly("8", "9", "0");
+    }
+
+    @Test
+    void addShouldAdaptCacheOfReplacedType() {
+        cacheList.add("1", 1);
+        Cache hit = cacheList.remove("1").orElseThrow();
+        cacheList.migrate(new HashLfuCacheList(10), TO_LFU);
+
+        cacheList.add(hit);
+
+        Assertions.assertThat(cacheList.findByKey("1")).get().isInstanceOf(LfuCache.class);
+    }
+
+    @Test
+    void removalsDuringMigrationShouldNotBeUndone() {
+        cacheList = new ReconfigurableCacheList(
+                new StripedCacheList(16, 400_000, HashLruCacheList::new), UnaryOperator.identity());
+        IntStream.range(0, 100_000).forEach(i -> cacheList.add(String.valueOf(i), i));
+
+        CompletableFuture<Integer> migration = CompletableFuture.supplyAsync(
+                () -> cacheList.migrate(new StripedCacheList(16, 400_000, HashLfuCacheList::new), TO_LFU));
+        IntStream.range(0, 100_000)
+                .filter(i -> i % 2 == 0)
+                .forEach(i -> cacheList.remove((long) i));
+        migration.join();
+
+        Assertions.assertThat(IntStream.range(0, 100_000).filter(i -> i % 2 == 0))
+                .noneMatch(i -> cacheList.containsKey(String.valueOf(i)));
+        Assertions.assertThat(cacheList.size()).isEqualTo(50_000);
+    }
+
+    @Test
+    void removeIfDuringMigrationShouldRemoveFromBothLists() {
+        cacheList = new ReconfigurableCacheList(
+                new StripedCacheList(16, 400_000, HashLruCacheList::new), UnaryOperator.identity());
+        IntStream.range(0, 100_000).forEach(i -> cacheList.add(String.valueOf(i), i));
+
+        CompletableFuture<Integer> migration = CompletableFuture.supplyAsync(
+                () -> cacheList.migrate(new StripedCacheList(16, 400_000, HashLfuCacheList::new), TO_LFU));
+        int removed = cacheList.removeIf(cache -> (Integer) cache.getValue() % 2 == 0);
+        migration.join();
+
+        Assertions.assertThat(removed).isEqualTo(50_000);
+        Assertions.assertThat(cacheList.snapshot()).noneMatch(cache -> (Integer) cache.getValue() % 2 == 0);
+        Assertions.assertThat(cacheList.size()).isEqualTo(50_000);
+    }
+}
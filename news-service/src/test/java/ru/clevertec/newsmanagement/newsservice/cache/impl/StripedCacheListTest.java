@@ -0,0 +1,108 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+class StripedCacheListTest {
+
+    @Test
+    void addShouldNotExceedSize() {
+        CacheList cacheList = new StripedCacheList(16, 10, HashLruCacheList::new);
+
+        IntStream.range(0, 100)
+                .forEach(i -> cacheList.add(String.valueOf(i), i));
+
+        long actual = IntStream.range(0, 100)
+                .filter(i -> cacheList.findByKey(String.valueOf(i)).isPresent())
+                .count();
+        Assertions.assertThat(actual).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void smallListShouldEvictInGlobalOrder() {
+        CacheList cacheList = new StripedCacheList(16, 10, HashLruCacheList::new);
+        IntStream.range(0, 10).forEach(i -> cacheList.add(String.valueOf(i), i));
+
+        cacheList.hit("0");
+        cacheList.add("10", 10);
+        cacheList.add("11", 11);
+
+        Assertions.assertThat(cacheList.snapshot())
+                .map(Cache::getKey)
+                .containsExactlyInAnyOrder("0", "3", "4", "5", "6", "7", "8", "9", "10", "11");
+    }
+
+    @Test
+    void smallListShouldKeepWholeWeightBudget() {
+        CacheList cacheList = new StripedCacheList(16, 10, 10,
+                (size, maxWeight) -> new HashLruCacheList(size, maxWeight, value -> ((String) value).length()));
+
+        cacheList.add("1", "first");
+        cacheList.add("2", "fifth");
+
+        Assertions.assertThat(cacheList.weight()).isEqualTo(10);
+        Assertions.assertThat(cacheList.findByKey("1")).isPresent();
+    }
+
+    @Test
+    void concurrentAccessShouldKeepAllEntries() {
+        CacheList cacheList = new StripedCacheList(16, 1000, HashLfuCacheList::new);
+
+        List<CompletableFuture<Void>> workers = IntStream.range(0, 8)
+                .mapToObj(worker -> CompletableFuture.runAsync(() -> IntStream.range(0, 10_000)
+                        .forEach(i -> access(cacheList, String.valueOf(i % 500)))))
+                .toList();
+        workers.forEach(CompletableFuture::join);
+
+        long actual = IntStream.range(0, 500)
+                .filter(i -> cacheList.findByKey(String.valueOf(i)).isPresent())
+                .count();
+        Assertions.assertThat(actual).isEqualTo(500);
+    }
+
+    @Test
+    void concurrentHitsShouldNotMissHeldEntry() {
+        CacheList cacheList = new StripedCacheList(16, 1000, HashLruCacheList::new);
+        cacheList.add("1", "first");
+
+        List<CompletableFuture<Long>> workers = IntStream.range(0, 8)
+                .mapToObj(worker -> CompletableFuture.supplyAsync(() -> IntStream.range(0, 10_000)
+                        .filter(i -> cacheList.hit("1").isEmpty())
+                        .count()))
+                .toList();
+
+        Assertions.assertThat(workers)
+                .map(CompletableFuture::join)
+                .containsOnly(0L);
+    }
+
+    @Test
+    void replaceDuringHitsShouldKeepNewValue() {
+        CacheList cacheList = new StripedCacheList(16, 1000, HashLfuCacheList::new);
+        cacheList.add("1", "first");
+
+        CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> IntStream.range(0, 10_000)
+                .forEach(i -> cacheList.hit("1")));
+        cacheList.replace("1", "updated");
+        reader.join();
+
+        Assertions.assertThat(cacheList.findByKey("1"))
+                .map(Cache::getValue)
+                .contains("updated");
+    }
+
+    private void access(CacheList cacheList, String key) {
+        cacheList.remove(key).ifPresentOrElse(
+                cache -> {
+                    cache.hit();
+                    cacheList.add(cache);
+                },
+                () -> cacheList.add(key, key));
+    }
+}
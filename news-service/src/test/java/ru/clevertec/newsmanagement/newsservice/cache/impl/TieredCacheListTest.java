@@ -0,0 +1,101 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.Weigher;
+import ru.clevertec.newsmanagement.newsservice.model.DTO;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static ru.clevertec.newsmanagement.newsservice.builder.impl.NewsBuilder.aNews;
+
+class TieredCacheListTest {
+
+    private OffHeapTier offHeap;
+    private CacheList cacheList;
+
+    @BeforeEach
+    public void setUp() {
+        offHeap = new OffHeapTier(1024 * 1024, 64 * 1024, DTO.News.parser(), LruCache::new);
+        cacheList = new TieredCacheList(
+                new HashLruCacheList(1, Long.MAX_VALUE, Weigher.SERIALIZED_SIZE, offHeap::demote), offHeap);
+    }
+
+    @Test
+    void removeShouldRestoreEvictedCache() {
+        DTO.News first = aNews().setId(1L).buildToDTO();
+        cacheList.add("1", first);
+        cacheList.add("2", aNews().setId(2L).buildToDTO());
+
+        Optional<Cache> actual = cacheList.remove("1");
+
+        Assertions.assertThat(actual)
+                .map(Cache::getValue)
+                .contains(first);
+        Assertions.assertThat(offHeap.size()).isZero();
+    }
+
+    @Test
+    void addShouldDiscardOffHeapCopy() {
+        DTO.News updated = aNews().setId(1L).setTitle("updated").buildToDTO();
+        cacheList.add("1", aNews().setId(1L).buildToDTO());
+        cacheList.add("2", aNews().setId(2L).buildToDTO());
+
+        cacheList.add("1", updated);
+
+        Assertions.assertThat(cacheList.findByKey("1"))
+                .map(Cache::getValue)
+                .contains(updated);
+        Assertions.assertThat(offHeap.findByKey("1")).isEmpty();
+    }
+
+    @Test
+    void restoredCacheShouldKeepWriteTime() {
+        Cache first = cacheList.add("1", aNews().setId(1L).buildToDTO());
+        first.expireAfter(10, 5);
+        cacheList.add("2", aNews().setId(2L).buildToDTO());
+
+        Cache actual = cacheList.remove("1").orElseThrow();
+
+        Assertions.assertThat(actual.getWriteTime()).isEqualTo(first.getWriteTime());
+        Assertions.assertThat(actual.getExpireAfterWrite()).isEqualTo(10);
+        Assertions.assertThat(actual.getRefreshAfterWrite()).isEqualTo(5);
+    }
+
+    @Test
+    void demoteShouldRecycleOldestSlab() {
+        OffHeapTier small = new OffHeapTier(2048, 1024, DTO.News.parser(), LruCache::new);
+
+        LongStream.rangeClosed(1, 100)
+                .forEach(id -> small.demote(new LruCache(String.valueOf(id), aNews().setId(id).buildToDTO())));
+
+        Assertions.assertThat(small.findByKey("1")).isEmpty();
+        Assertions.assertThat(small.findByKey("100")).isPresent();
+        Assertions.assertThat(small.used()).isLessThanOrEqualTo(2048);
+    }
+
+    @Test
+    void removeExpiredShouldNotRestoreOffHeapCaches() {
+        AtomicInteger restored = new AtomicInteger();
+        OffHeapTier counted = new OffHeapTier(1024 * 1024, 64 * 1024, DTO.News.parser(), (key, value) -> {
+            restored.incrementAndGet();
+            return new LruCache(key, value);
+        });
+        LruCache expired = new LruCache("1", aNews().setId(1L).buildToDTO());
+        expired.expireAfter(1, 0);
+        counted.demote(expired);
+        counted.demote(new LruCache("2", aNews().setId(2L).buildToDTO()));
+
+        int removed = counted.removeExpired(expired.getWriteTime() + 1);
+
+        Assertions.assertThat(removed).isOne();
+        Assertions.assertThat(counted.containsKey("1")).isFalse();
+        Assertions.assertThat(counted.containsKey("2")).isTrue();
+        Assertions.assertThat(restored).hasValue(0);
+    }
+}
@@ -0,0 +1,167 @@
+package ru.clevertec.newsmanagement.newsservice.cache.impl;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.newsmanagement.newsservice.cache.Cache;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.EvictionListener;
+import ru.clevertec.newsmanagement.newsservice.cache.Weigher;
+
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+class TinyLfuCacheListTest {
+
+    private TinyLfuCacheList cacheList;
+
+    @BeforeEach
+    public void setUp() {
+        cacheList = new TinyLfuCacheList(10);
+    }
+
+    @Test
+    void findByKeyShouldReturnAddedValue() {
+        cacheList.add("1", "first");
+
+        Optional<Cache> actual = cacheList.findByKey("1");
+
+        Assertions.assertThat(actual)
+                .map(Cache::getValue)
+                .contains("first");
+    }
+
+    @Test
+    void addShouldNotGrowBeyondSize() {
+        IntStream.range(0, 100).forEach(i -> cacheList.add(String.valueOf(i), i));
+
+        Assertions.assertThat(cacheList.size()).isEqualTo(10);
+        Assertions.assertThat(cacheList.snapshot()).hasSize(10);
+    }
+
+    @Test
+    void scanShouldNotEvictFrequentlyUsedEntries() {
+        IntStream.range(0, 10).forEach(i -> cacheList.add(String.valueOf(i), i));
+        for (int round = 0; round < 3; round++) {
+            IntStream.range(0, 10).forEach(i -> hit(String.valueOf(i)));
+        }
+
+        IntStream.range(100, 200).forEach(i -> cacheList.add(String.valueOf(i), i));
+
+        long kept = IntStream.range(0, 10)
+                .filter(i -> cacheList.findByKey(String.valueOf(i)).isPresent())
+                .count();
+        Assertions.assertThat(kept).isEqualTo(9);
+    }
+
+    @Test
+    void candidateUsedMoreOftenShouldBeAdmitted() {
+        IntStream.range(0, 10).forEach(i -> cacheList.add(String.valueOf(i), i));
+        for (int round = 0; round < 3; round++) {
+            cacheList.add("new", round);
+            cacheList.add("other" + round, round);
+        }
+
+        Assertions.assertThat(cacheList.findByKey("new")).isPresent();
+        Assertions.assertThat(cacheList.frequency("new")).isGreaterThan(cacheList.frequency("0"));
+    }
+
+    @Test
+    void hitShouldKeepEntryInList() {
+        cacheList.add("1", "first");
+
+        hit("1");
+
+        Assertions.assertThat(cacheList.findByKey("1")).isPresent();
+        Assertions.assertThat(cacheList.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removeIfShouldRemoveMatchingEntries() {
+        IntStream.range(0, 10).forEach(i -> cacheList.add(String.valueOf(i), i));
+
+        int removed = cacheList.removeIf(cache -> ((Integer) cache.getValue()) % 2 == 0);
+
+        Assertions.assertThat(removed).isEqualTo(5);
+        Assertions.assertThat(cacheList.size()).isEqualTo(5);
+        Assertions.assertThat(cacheList.snapshot()).hasSize(5);
+    }
+
+    @Test
+    void addShouldEvictWhileOverWeight() {
+        int[] evicted = new int[1];
+        TinyLfuCacheList weighted = new TinyLfuCacheList(10, 3, Weigher.SINGLETON, cache -> evicted[0]++);
+
+        IntStream.range(0, 5).forEach(i -> weighted.add(String.valueOf(i), i));
+
+        Assertions.assertThat(weighted.size()).isEqualTo(3);
+        Assertions.assertThat(weighted.weight()).isEqualTo(3);
+        Assertions.assertThat(evicted[0]).isEqualTo(2);
+    }
+
+    @Test
+    void replaceShouldUpdateValueAndKeepSize() {
+        TinyLfuCacheList list = new TinyLfuCacheList(2, Long.MAX_VALUE, Weigher.SINGLETON, EvictionListener.NONE);
+        list.add("1", "first");
+        list.add("2", "second");
+
+        list.replace("1", "updated");
+
+        Assertions.assertThat(list.findByKey("1")).map(Cache::getValue).contains("updated");
+        Assertions.assertThat(list.size()).isEqualTo(2);
+    }
+
+    @Test
+    void singleEntryListShouldAdmitOnlyCandidateUsedMoreOften() {
+        TinyLfuCacheList list = new TinyLfuCacheList(1);
+        list.add("1", "first");
+        list.hit("1");
+
+        list.add("2", "second");
+        list.add("3", "third");
+        list.add("3", "third");
+        list.add("3", "third");
+
+        Assertions.assertThat(list.findByKey("2")).isEmpty();
+        Assertions.assertThat(list.findByKey("3")).isPresent();
+        Assertions.assertThat(list.size()).isEqualTo(1);
+    }
+
+    @Test
+    void stripedListOfConfiguredSizeShouldResistScan() {
+        CacheList list = new StripedCacheList(16, 10, Long.MAX_VALUE,
+                (size, maxWeight) -> new TinyLfuCacheList(size, maxWeight, Weigher.SINGLETON, EvictionListener.NONE));
+        IntStream.range(0, 10).forEach(i -> list.add(String.valueOf(i), i));
+        for (int round = 0; round < 3; round++) {
+            IntStream.range(0, 10).forEach(i -> list.hit(String.valueOf(i)));
+        }
+
+        IntStream.range(100, 200).forEach(i -> list.add(String.valueOf(i), i));
+
+        long kept = IntStream.range(0, 10)
+                .filter(i -> list.findByKey(String.valueOf(i)).isPresent())
+                .count();
+        Assertions.assertThat(kept).isEqualTo(9);
+    }
+
+    private void hit(String key) {
+        Cache cache = cacheList.remove(key).orElseThrow();
+        cache.hit();
+        cacheList.add(cache);
+    }
+
+    @Test
+    void scaleShouldKeepFrequentlyUsedEntries() {
+        TinyLfuCacheList list = new TinyLfuCacheList(100);
+        IntStream.range(0, 100).forEach(i -> list.add(String.valueOf(i), i));
+        IntStream.range(0, 10).forEach(i -> IntStream.range(0, 5).forEach(n -> {
+            Cache cache = list.remove(String.valueOf(i)).orElseThrow();
+            list.add(cache);
+        }));
+
+        list.scale(0.2);
+
+        Assertions.assertThat(list.size()).isEqualTo(20);
+        Assertions.assertThat(IntStream.range(0, 10)).allMatch(i -> list.containsKey(String.valueOf(i)));
+    }
+}
@@ -0,0 +1,193 @@
+package ru.clevertec.newsmanagement.newsservice.cache.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.clevertec.newsmanagement.exceptionservice.exception.CustomException;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheEvictor;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheList;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheProperties;
+import ru.clevertec.newsmanagement.newsservice.cache.CustomCacheManager;
+import ru.clevertec.newsmanagement.newsservice.cache.EvictCache;
+import ru.clevertec.newsmanagement.newsservice.cache.NegativeCache;
+import ru.clevertec.newsmanagement.newsservice.model.DTO;
+import ru.clevertec.newsmanagement.newsservice.model.NewsPage;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static ru.clevertec.newsmanagement.exceptionservice.exception.ExceptionStatus.ENTITY_NOT_FOUND;
+
+class InvalidationBusTest {
+
+    private CustomCacheManager firstManager;
+    private CustomCacheManager secondManager;
+    private InvalidationBus first;
+    private InvalidationBus second;
+    private NegativeCache secondNegativeCache;
+
+    @BeforeEach
+    public void setUp() {
+        CacheProperties properties = new CacheProperties();
+        firstManager = new CustomCacheManager(properties, new SimpleMeterRegistry());
+        secondManager = new CustomCacheManager(properties, new SimpleMeterRegistry());
+        secondNegativeCache = new NegativeCache(properties);
+        first = new InvalidationBus(new LocalInvalidationTransport(), firstManager, new CacheEvictor(firstManager),
+                new NegativeCache(properties), properties);
+        second = new InvalidationBus(new LocalInvalidationTransport(), secondManager, new CacheEvictor(secondManager),
+                secondNegativeCache, properties);
+        first.start();
+        second.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        first.stop();
+        second.stop();
+    }
+
+    @Test
+    void publishShouldRemoveKeyFromOtherInstances() {
+        CacheList firstCache = firstManager.getCache(DTO.News.class);
+        CacheList secondCache = secondManager.getCache(DTO.News.class);
+        firstCache.add("1", "first");
+        secondCache.add("1", "first");
+        secondCache.add("2", "second");
+
+        first.publish(DTO.News.class, "1");
+        first.flush();
+
+        Assertions.assertThat(secondCache.findByKey("1")).isEmpty();
+        Assertions.assertThat(secondCache.findByKey("2")).isPresent();
+        Assertions.assertThat(firstCache.findByKey("1")).isPresent();
+    }
+
+    @Test
+    void publishShouldForgetNotFoundKeyInOtherInstances() {
+        secondNegativeCache.remember(DTO.News.class, "1", new CustomException(ENTITY_NOT_FOUND.toString()));
+
+        first.publish(DTO.News.class, "1");
+        first.flush();
+
+        Assertions.assertThat(secondNegativeCache.find(DTO.News.class, "1")).isEmpty();
+    }
+
+    @Test
+    void publishEvictionShouldEvictOwnCachesOfOtherInstances() {
+        CacheList secondPages = secondManager.getCache(NewsPage.class);
+        secondPages.add("0,20,UNSORTED", "page");
+        secondPages.add("1,20,UNSORTED", "page");
+
+        first.publishEviction(NewsPage.class, EvictCache.Scope.ALL, "", "id");
+        first.flush();
+
+        Assertions.assertThat(secondPages.size()).isZero();
+    }
+
+    @Test
+    void publishTagEvictionShouldEvictCachesTaggedByOtherInstances() {
+        CacheList secondComments = secondManager.getCache(DTO.Comment.class);
+        secondComments.add("1,7", "comment");
+        secondComments.add("2,8", "comment");
+        secondManager.tag(DTO.Comment.class, "1,7", List.of("news:1"));
+        secondManager.tag(DTO.Comment.class, "2,8", List.of("news:2"));
+
+        first.publishEviction(DTO.Comment.class, EvictCache.Scope.TAG, "news:1", "id");
+        first.flush();
+
+        Assertions.assertThat(secondComments.findByKey("1,7")).isEmpty();
+        Assertions.assertThat(secondComments.findByKey("2,8")).isPresent();
+    }
+
+    @Test
+    void tcpTransportShouldDeliverMessage() throws InterruptedException {
+        BlockingQueue<InvalidationMessage> received = new LinkedBlockingQueue<>();
+        TcpInvalidationTransport receiver = new TcpInvalidationTransport("localhost", 0,
+                () -> List.of(new InetSocketAddress("localhost", 0)), new SimpleMeterRegistry());
+        receiver.start(received::add);
+        TcpInvalidationTransport sender = new TcpInvalidationTransport("localhost", 0,
+                () -> List.of(new InetSocketAddress("localhost", receiver.getLocalPort())), new SimpleMeterRegistry());
+        sender.start(message -> {
+        });
+        InvalidationMessage message = new InvalidationMessage("sender", Map.of("News", Set.of("1", "2")),
+                List.of(new InvalidationMessage.Eviction("NewsPage", EvictCache.Scope.CONTAINING, "1", "id")));
+
+        sender.send(message);
+
+        Assertions.assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(message);
+        sender.stop();
+        receiver.stop();
+    }
+
+    @Test
+    void tcpTransportShouldRefuseConnectionsOfUnknownHosts() throws InterruptedException {
+        BlockingQueue<InvalidationMessage> received = new LinkedBlockingQueue<>();
+        TcpInvalidationTransport receiver = new TcpInvalidationTransport("localhost", 0, List::of, new SimpleMeterRegistry());
+        receiver.start(received::add);
+        TcpInvalidationTransport sender = new TcpInvalidationTransport("localhost", 0,
+                () -> List.of(new InetSocketAddress("localhost", receiver.getLocalPort())), new SimpleMeterRegistry());
+        sender.start(message -> {
+        });
+
+        sender.send(new InvalidationMessage("sender", Map.of("News", Set.of("1"))));
+
+        Assertions.assertThat(received.poll(500, TimeUnit.MILLISECONDS)).isNull();
+        sender.stop();
+        receiver.stop();
+    }
+
+    @Test
+    void tcpTransportShouldCountFailedSendsWithoutBlocking() throws IOException, InterruptedException {
+        int closedPort;
+        try (ServerSocket closed = new ServerSocket(0)) {
+            closedPort = closed.getLocalPort();
+        }
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TcpInvalidationTransport sender = new TcpInvalidationTransport("localhost", 0,
+                () -> List.of(new InetSocketAddress("localhost", closedPort)), registry);
+        sender.start(message -> {
+        });
+
+        sender.send(new InvalidationMessage("sender", Map.of("News", Set.of("1"))));
+        Counter failures = registry.get("cache.invalidation.failures").counter();
+        for (int i = 0; i < 50 && failures.count() == 0; i++) {
+            Thread.sleep(100);
+        }
+
+        Assertions.assertThat(failures.count()).isEqualTo(1);
+        sender.stop();
+    }
+
+    @Test
+    void tcpTransportShouldSkipMalformedFrame() throws IOException, InterruptedException {
+        BlockingQueue<InvalidationMessage> received = new LinkedBlockingQueue<>();
+        TcpInvalidationTransport receiver = new TcpInvalidationTransport("localhost", 0,
+                () -> List.of(new InetSocketAddress("localhost", 0)), new SimpleMeterRegistry());
+        receiver.start(received::add);
+        InvalidationMessage message = new InvalidationMessage("sender", Map.of("News", Set.of("1")));
+
+        try (Socket socket = new Socket("localhost", receiver.getLocalPort())) {
+            DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+            output.writeInt(12);
+            output.writeUTF("sender");
+            output.writeInt(Integer.MAX_VALUE);
+            message.write(output);
+            output.flush();
+
+            Assertions.assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(message);
+        }
+        receiver.stop();
+    }
+}
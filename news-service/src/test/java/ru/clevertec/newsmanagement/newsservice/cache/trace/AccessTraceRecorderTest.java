@@ -0,0 +1,64 @@
+package ru.clevertec.newsmanagement.newsservice.cache.trace;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.clevertec.newsmanagement.newsservice.cache.CacheProperties;
+import ru.clevertec.newsmanagement.newsservice.model.DTO;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+class AccessTraceRecorderTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void recordedAccessesShouldBeReadBack() throws IOException {
+        AccessTraceRecorder recorder = recorder(1);
+        recorder.start();
+
+        recorder.record(DTO.News.class, "1");
+        recorder.record(DTO.Comment.class, "1,2");
+        recorder.record(DTO.News.class, "1");
+        recorder.stop();
+
+        AccessTrace trace = AccessTrace.read(directory.resolve("cache.trace"));
+        Assertions.assertThat(trace.getSampleRate()).isEqualTo(1);
+        Assertions.assertThat(trace.getAccesses())
+                .extracting(AccessTrace.Access::type, AccessTrace.Access::key)
+                .containsExactly(
+                        Assertions.tuple(DTO.News.class.getName(), "1"),
+                        Assertions.tuple(DTO.Comment.class.getName(), "1,2"),
+                        Assertions.tuple(DTO.News.class.getName(), "1"));
+        Assertions.assertThat(trace.getAccesses())
+                .extracting(AccessTrace.Access::timestamp)
+                .isSorted();
+    }
+
+    @Test
+    void recordShouldKeepAllAccessesOfSampledKeysOnly() throws IOException {
+        AccessTraceRecorder recorder = recorder(0.1);
+        recorder.start();
+
+        for (int round = 0; round < 2; round++) {
+            IntStream.range(0, 1000).forEach(i -> recorder.record(DTO.News.class, String.valueOf(i)));
+        }
+        recorder.stop();
+
+        AccessTrace trace = AccessTrace.read(directory.resolve("cache.trace"));
+        long sampled = IntStream.range(0, 1000).filter(i -> recorder.isSampled(String.valueOf(i))).count();
+        Assertions.assertThat(trace.getAccesses()).hasSize((int) (2 * sampled));
+        Assertions.assertThat(sampled).isBetween(50L, 150L);
+    }
+
+    private AccessTraceRecorder recorder(double sampleRate) {
+        CacheProperties properties = new CacheProperties();
+        properties.getTrace().setEnabled(true);
+        properties.getTrace().setPath(directory.resolve("cache.trace").toString());
+        properties.getTrace().setSampleRate(sampleRate);
+        return new AccessTraceRecorder(properties);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.clevertec.newsmanagement.newsservice.cache.trace;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class CacheSimulatorTest {
+
+    private static final String TYPE = "News";
+
+    @Test
+    void hitRatioShouldGrowWithSize() {
+        AccessTrace trace = trace(1, cyclic(100, 10));
+
+        List<CacheSimulator.Result> results = new CacheSimulator(CacheSimulator.POLICIES)
+                .simulate(trace, new int[]{10, 100});
+
+        Assertions.assertThat(results).hasSize(6);
+        Assertions.assertThat(results)
+                .filteredOn(result -> result.size() == 100)
+                .allSatisfy(result -> Assertions.assertThat(result.hitRatio()).isEqualTo(0.9));
+        Assertions.assertThat(results)
+                .filteredOn(result -> result.policy().equals("lru") && result.size() == 10)
+                .allSatisfy(result -> Assertions.assertThat(result.hitRatio()).isZero());
+    }
+
+    @Test
+    void tinyLfuShouldResistScan() {
+        List<String> keys = new ArrayList<>();
+        for (int round = 0; round < 20; round++) {
+            for (int hot = 0; hot < 5; hot++) {
+                keys.add("hot" + hot);
+            }
+            for (int cold = 0; cold < 10; cold++) {
+                keys.add("cold" + round + "-" + cold);
+            }
+        }
+
+        List<CacheSimulator.Result> results = new CacheSimulator(CacheSimulator.POLICIES)
+                .simulate(trace(1, keys), new int[]{10});
+
+        Assertions.assertThat(hitRatio(results, "tinylfu")).isGreaterThan(hitRatio(results, "lru"));
+    }
+
+    @Test
+    void sizeShouldBeScaledBySampleRate() {
+        CacheSimulator simulator = new CacheSimulator(Map.of("lru", CacheSimulator.POLICIES.get("lru")));
+
+        List<CacheSimulator.Result> results = simulator.simulate(trace(0.1, cyclic(10, 10)), new int[]{100});
+
+        Assertions.assertThat(results).singleElement()
+                .satisfies(result -> Assertions.assertThat(result.hitRatio()).isEqualTo(0.9));
+    }
+
+    private static double hitRatio(List<CacheSimulator.Result> results, String policy) {
+        return results.stream()
+                .filter(result -> result.policy().equals(policy))
+                .findFirst()
+                .orElseThrow()
+                .hitRatio();
+    }
+
+    private static List<String> cyclic(int keys, int rounds) {
+        List<String> cyclic = new ArrayList<>();
+        for (int round = 0; round < rounds; round++) {
+            for (int key = 0; key < keys; key++) {
+                cyclic.add(String.valueOf(key));
+            }
+        }
+        return cyclic;
+    }
+
+    private static AccessTrace trace(double sampleRate, List<String> keys) {
+        List<AccessTrace.Access> accesses = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            accesses.add(new AccessTrace.Access(i, TYPE, keys.get(i)));
+        }
+        return new AccessTrace(sampleRate, accesses);
+    }
+}
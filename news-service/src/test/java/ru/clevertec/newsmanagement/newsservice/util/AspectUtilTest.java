@@ -28,6 +28,12 @@ class AspectUtilTest {
             Assertions.assertThat(fieldValue).isEqualTo("test text");
         }
         @Test
+        void getFieldValueShouldReturnCorrectId() throws NoSuchFieldException, IllegalAccessException {
+            String fieldName = "id";
+            String fieldValue = AspectUtil.getFieldValue(aComment().buildToDTO(), fieldName);
+            Assertions.assertThat(fieldValue).isEqualTo("1");
+        }
+        @Test
         void getFieldValueShouldThrowNoSuchFieldException() {
             String fieldName = "invalid_field";
             Assertions.assertThatThrownBy(() -> AspectUtil.getFieldValue(aComment().buildToDTO(), fieldName))
@@ -10,7 +10,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.expression.spel.SpelEvaluationException;
 
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static ru.clevertec.newsmanagement.newsservice.builder.impl.NewsBuilder.aNews;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +33,8 @@ class SpelExpressionTest {
                     .when(joinPoint).getArgs();
             doReturn(signature)
                     .when(joinPoint).getSignature();
+            doReturn(method("byPrimitive"))
+                    .when(signature).getMethod();
             doReturn(new String[]{id})
                     .when(signature).getParameterNames();
 
@@ -43,6 +50,8 @@ class SpelExpressionTest {
                     .when(joinPoint).getArgs();
             doReturn(signature)
                     .when(joinPoint).getSignature();
+            doReturn(method("byObject"))
+                    .when(signature).getMethod();
             doReturn(new String[]{"model"})
                     .when(signature).getParameterNames();
 
@@ -58,6 +67,8 @@ class SpelExpressionTest {
                     .when(joinPoint).getArgs();
             doReturn(signature)
                     .when(joinPoint).getSignature();
+            doReturn(method("byProperty"))
+                    .when(signature).getMethod();
             doReturn(new String[]{id})
                     .when(signature).getParameterNames();
             Assertions.assertThatThrownBy(() -> SpelExpression.getKeyValue(joinPoint,id))
@@ -71,6 +82,8 @@ class SpelExpressionTest {
                     .when(joinPoint).getArgs();
             doReturn(signature)
                     .when(joinPoint).getSignature();
+            doReturn(method("byMismatchedArguments"))
+                    .when(signature).getMethod();
             doReturn(new String[]{id})
                     .when(signature).getParameterNames();
 
@@ -82,5 +95,90 @@ class SpelExpressionTest {
             Assertions.assertThatThrownBy(() -> SpelExpression.getKeyValue(joinPoint,null))
                     .isInstanceOf(NullPointerException.class);
         }
+
+        @Test
+        void getKeyValueFromMethodShouldReturnJoinedList() {
+            doReturn(new Object[]{1L, 2L})
+                    .when(joinPoint).getArgs();
+            doReturn(signature)
+                    .when(joinPoint).getSignature();
+            doReturn(method("byList"))
+                    .when(signature).getMethod();
+            doReturn(new String[]{"news", "id"})
+                    .when(signature).getParameterNames();
+
+            Object result = SpelExpression.getKeyValue(joinPoint,"{#news,#id}");
+
+            Assertions.assertThat(result).isEqualTo("1,2");
+        }
+
+        @Test
+        void listKeyShouldEqualKeyListingParameters() {
+            doReturn(new Object[]{1L, 42L})
+                    .when(joinPoint).getArgs();
+            doReturn(signature)
+                    .when(joinPoint).getSignature();
+            doReturn(method("byListKey"))
+                    .when(signature).getMethod();
+            doReturn(new String[]{"news", "id"})
+                    .when(signature).getParameterNames();
+
+            String result = SpelExpression.getKeyValue(joinPoint,"{#news,#id}");
+
+            Assertions.assertThat(SpelExpression.listKey(1L, 42L)).isEqualTo(result);
+        }
+
+        @Test
+        void getKeyValueFromMethodShouldCompileKeyOnce() {
+            doReturn(new Object[]{aNews().buildToEntity()})
+                    .when(joinPoint).getArgs();
+            doReturn(signature)
+                    .when(joinPoint).getSignature();
+            doReturn(method("byCachedObject"))
+                    .when(signature).getMethod();
+            doReturn(new String[]{"model"})
+                    .when(signature).getParameterNames();
+
+            SpelExpression.getKeyValue(joinPoint,"#model.title");
+            Object result = SpelExpression.getKeyValue(joinPoint,"#model.title");
+
+            Assertions.assertThat(result).isEqualTo("test title");
+            verify(signature, times(1)).getParameterNames();
+        }
+    }
+
+    @Test
+    void getIdParametersShouldTakeTypesFromMethod() {
+        doReturn(signature)
+                .when(joinPoint).getSignature();
+        doReturn(method("byIds"))
+                .when(signature).getMethod();
+        doReturn(new String[]{"news", "id"})
+                .when(signature).getParameterNames();
+
+        int[] result = SpelExpression.getIdParameters(joinPoint, "{#news,#id}");
+
+        Assertions.assertThat(result).containsExactly(0, 1);
+    }
+
+    private static Method method(String name) {
+        return Arrays.stream(Target.class.getDeclaredMethods())
+                .filter(method -> method.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Methods of the join points, distinct for every test because the compiled keys are cached by method.
+     */
+    private static class Target {
+        void byPrimitive(int id) {}
+        void byObject(Object model) {}
+        void byProperty(int id) {}
+        void byMismatchedArguments(int id) {}
+        void byList(long news, long id) {}
+        void byListKey(long news, long id) {}
+        void byCachedObject(Object model) {}
+        void byIds(Long news, long id) {}
     }
 }
\ No newline at end of file